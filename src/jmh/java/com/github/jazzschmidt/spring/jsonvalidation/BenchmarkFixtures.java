@@ -0,0 +1,130 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldEqualsComponent;
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldNotEmptyComponent;
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldNotEqualsComponent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.github.jazzschmidt.spring.jsonvalidation.RuleSetBuilder.DefinitionsSupplier.*;
+
+/**
+ * Documents and rule sets shared by the benchmarks.
+ */
+public final class BenchmarkFixtures {
+
+    public static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Built-in components the rule sets are made of
+     */
+    public enum ComponentKind {
+        FIELD_EQUALS, FIELD_NOT_EQUALS, FIELD_NOT_EMPTY
+    }
+
+    /**
+     * Creates a validator with all built-in components.
+     *
+     * @return validator without rule sets
+     */
+    static RuleSetValidator validator() {
+        FieldEqualsComponent fieldEquals = new FieldEqualsComponent();
+        FieldNotEqualsComponent fieldNotEquals = new FieldNotEqualsComponent();
+        FieldNotEmptyComponent fieldNotEmpty = new FieldNotEmptyComponent();
+
+        return new RuleSetValidator(
+                Set.of(fieldEquals.getMatcher(), fieldNotEquals.getMatcher(), fieldNotEmpty.getMatcher()),
+                Set.of(fieldEquals.getValidator(), fieldNotEquals.getValidator(), fieldNotEmpty.getValidator()),
+                new JsonWrapperFactory(MAPPER));
+    }
+
+    /**
+     * Creates a document with {@code fields} string fields {@code f0 = "v0"} etc., nested {@code depth} objects deep.
+     *
+     * @param fields number of fields
+     * @param depth  nesting depth of the fields
+     * @return document
+     */
+    public static ObjectNode document(int fields, int depth) {
+        ObjectNode root = MAPPER.createObjectNode();
+        ObjectNode node = root;
+
+        for (int level = 1; level < depth; level++) {
+            node = node.putObject("l" + level);
+        }
+
+        for (int field = 0; field < fields; field++) {
+            node.put("f" + field, "v" + field);
+        }
+
+        return root;
+    }
+
+    /**
+     * Returns the JSON path of a field of a {@link #document(int, int)}.
+     *
+     * @param field field name
+     * @param depth nesting depth of the fields
+     * @return JSON path
+     */
+    static String fieldPath(String field, int depth) {
+        StringBuilder path = new StringBuilder("$");
+
+        for (int level = 1; level < depth; level++) {
+            path.append(".l").append(level);
+        }
+
+        return path.append('.').append(field).toString();
+    }
+
+    /**
+     * Creates rule sets whose matchers and rules use a single component kind. The first {@code hitRatio} of the rule
+     * sets match a {@link #document(int, int)}, all rules pass.
+     *
+     * @param count    number of rule sets
+     * @param kind     component kind
+     * @param fields   number of fields of the document
+     * @param depth    nesting depth of the fields
+     * @param hitRatio ratio of matching rule sets
+     * @return rule sets
+     */
+    static List<RuleSet> ruleSets(int count, ComponentKind kind, int fields, int depth, double hitRatio) {
+        List<RuleSet> ruleSets = new ArrayList<>(count);
+        int hits = (int) Math.round(count * hitRatio);
+
+        for (int i = 0; i < count; i++) {
+            int field = i % fields;
+            boolean hit = i < hits;
+            String path = fieldPath("f" + field, depth);
+            String value = "v" + field;
+
+            RuleSetBuilder builder = new RuleSetBuilder("Rule set " + i, "Benchmark rule set");
+
+            switch (kind) {
+                case FIELD_EQUALS:
+                    builder.matches(fieldEquals(path, hit ? value : "miss"))
+                            .validates(fieldEquals(path, value));
+                    break;
+                case FIELD_NOT_EQUALS:
+                    builder.matches(fieldNotEquals(path, hit ? "other" : value))
+                            .validates(fieldNotEquals(path, "other"));
+                    break;
+                case FIELD_NOT_EMPTY:
+                    builder.matches(fieldNotEmpty(hit ? path : fieldPath("absent" + field, depth)))
+                            .validates(fieldNotEmpty(path));
+                    break;
+            }
+
+            ruleSets.add(builder.build());
+        }
+
+        return ruleSets;
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldEquals;
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldEqualsComponent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+
+import static com.github.jazzschmidt.spring.jsonvalidation.RuleSetBuilder.DefinitionsSupplier.fieldEquals;
+
+/**
+ * Measures reading JSON paths through {@link RuleSetComponent#readJsonPath} and converting documents with {@link
+ * JsonWrapper#getJsonMap()}. Every operation uses a new wrapper, so that no memorized value is reused.
+ */
+@State(Scope.Benchmark)
+public class JsonWrapperBenchmark {
+
+    @Param({"10", "1000"})
+    public int documentFields;
+
+    @Param({"1", "8"})
+    public int documentDepth;
+
+    private final FieldEqualsComponent component = new FieldEqualsComponent();
+    private final JsonWrapperFactory wrapperFactory = new JsonWrapperFactory(BenchmarkFixtures.MAPPER);
+
+    private JsonNode jsonNode;
+    private FieldEquals firstField;
+    private FieldEquals lastField;
+
+    @Setup
+    public void setUp() {
+        jsonNode = BenchmarkFixtures.document(documentFields, documentDepth);
+
+        int last = documentFields - 1;
+        firstField = fieldEquals(BenchmarkFixtures.fieldPath("f0", documentDepth), "v0");
+        lastField = fieldEquals(BenchmarkFixtures.fieldPath("f" + last, documentDepth), "v" + last);
+    }
+
+    @Benchmark
+    public boolean readFirstField() {
+        return component.matches(firstField, wrapperFactory.wrap(jsonNode));
+    }
+
+    @Benchmark
+    public boolean readLastField() {
+        return component.matches(lastField, wrapperFactory.wrap(jsonNode));
+    }
+
+    @Benchmark
+    public boolean readFieldTwice() {
+        JsonWrapper json = wrapperFactory.wrap(jsonNode);
+        return component.matches(lastField, json) && component.matches(lastField, json);
+    }
+
+    @Benchmark
+    public Map<String, Object> getJsonMap() {
+        return wrapperFactory.wrap(jsonNode).getJsonMap();
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldEquals;
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldNotEmpty;
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldNotEquals;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.github.jazzschmidt.spring.jsonvalidation.RuleSetBuilder.DefinitionsSupplier.*;
+
+/**
+ * Measures {@link RuleSetDeserializer#deserialize} for rule sets with a growing number of definitions.
+ */
+@State(Scope.Benchmark)
+public class RuleSetDeserializerBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int ruleSetSize;
+
+    private ObjectReader reader;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        Map<String, Class<?>> matchers = Map.of(
+                "field-equals-matcher", FieldEquals.class,
+                "field-not-equals-matcher", FieldNotEquals.class,
+                "field-not-empty-matcher", FieldNotEmpty.class);
+        Map<String, Class<?>> rules = Map.of(
+                "field-equals-rule", FieldEquals.class,
+                "field-not-equals-rule", FieldNotEquals.class,
+                "field-not-empty-rule", FieldNotEmpty.class);
+
+        SimpleModule module = new SimpleModule("RuleSet Serialization");
+        module.addSerializer(RuleSet.class, new RuleSetSerializer());
+        module.addDeserializer(RuleSet.class, new RuleSetDeserializer(matchers, rules));
+
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(module);
+        reader = objectMapper.readerFor(RuleSet.class);
+
+        RuleSetBuilder builder = new RuleSetBuilder("Benchmark", "Benchmark rule set");
+
+        for (int i = 0; i < ruleSetSize; i++) {
+            builder.matches(fieldEquals("$.f" + i, "v" + i))
+                    .validates(fieldNotEquals("$.f" + i, "other"))
+                    .validates(fieldNotEmpty("$.f" + i));
+        }
+
+        json = objectMapper.writeValueAsBytes(builder.build());
+    }
+
+    @Benchmark
+    public RuleSet deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+}
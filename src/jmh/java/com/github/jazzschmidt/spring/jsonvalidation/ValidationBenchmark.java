@@ -0,0 +1,87 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Measures {@link RuleSetValidator#validate} for growing catalogs, documents and hit ratios of the matchers. The
+ * default parameters are a representative subset; the full sweep over all values listed with each parameter is run
+ * with {@code -Pjmh.fullSweep}, or single parameters are overridden with e.g. {@code -Pjmh.params=hitRatio=0.0,1.0}.
+ */
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    /**
+     * Full sweep: 1, 100, 1000, 10000
+     */
+    @Param({"100", "10000"})
+    public int ruleSetCount;
+
+    /**
+     * Full sweep: 10, 1000
+     */
+    @Param({"10", "1000"})
+    public int documentFields;
+
+    /**
+     * Full sweep: 1, 8
+     */
+    @Param({"1"})
+    public int documentDepth;
+
+    /**
+     * Full sweep: 0.0, 0.1, 1.0
+     */
+    @Param({"0.1"})
+    public double hitRatio;
+
+    /**
+     * Full sweep: FIELD_EQUALS, FIELD_NOT_EQUALS, FIELD_NOT_EMPTY
+     */
+    @Param({"FIELD_EQUALS"})
+    public BenchmarkFixtures.ComponentKind component;
+
+    /**
+     * Full sweep: false, true
+     */
+    @Param({"false", "true"})
+    public boolean compilePredicates;
+
+    private RuleSetValidator validator;
+    private JsonNode jsonNode;
+    private Map<String, Object> jsonMap;
+    private byte[] jsonBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        validator = BenchmarkFixtures.validator();
+        validator.setPredicateCompilation(compilePredicates);
+        validator.update(Collections.emptyList(),
+                BenchmarkFixtures.ruleSets(ruleSetCount, component, documentFields, documentDepth, hitRatio));
+
+        jsonNode = BenchmarkFixtures.document(documentFields, documentDepth);
+        jsonMap = BenchmarkFixtures.MAPPER.convertValue(jsonNode, new TypeReference<>() {
+        });
+        jsonBytes = BenchmarkFixtures.MAPPER.writeValueAsBytes(jsonNode);
+    }
+
+    @Benchmark
+    public void validateJsonNode() throws RuleValidationException {
+        validator.validate(jsonNode);
+    }
+
+    @Benchmark
+    public void validateJsonMap() throws RuleValidationException {
+        validator.validate(jsonMap);
+    }
+
+    @Benchmark
+    public void validateJsonSource() throws RuleValidationException, IOException {
+        validator.validate(factory -> factory.createParser(jsonBytes));
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web;
+
+import com.github.jazzschmidt.spring.jsonvalidation.BenchmarkFixtures;
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValidationConfiguration;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+
+/**
+ * Measures capturing request bodies with the {@link JsonContentFilter} and replaying them through the {@link
+ * JsonContentHttpRequestWrapper}, as done for every JSON request.
+ */
+@State(Scope.Benchmark)
+public class ContentCaptureBenchmark {
+
+    @Param({"10", "1000", "30000"})
+    public int documentFields;
+
+    private JsonContentFilter filter;
+    private byte[] body;
+
+    /**
+     * Replays the captured body, just as a message converter would
+     */
+    private final FilterChain chain = (request, response) -> {
+        byte[] buffer = new byte[8192];
+
+        while (request.getInputStream().read(buffer, 0, buffer.length) != -1) {
+            // Consume the body
+        }
+    };
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonValidationConfiguration configuration = new JsonValidationConfiguration();
+        configuration.setMaxContentLength(DataSize.ofMegabytes(16));
+
+        filter = new JsonContentFilter(new JsonContentBufferPool(configuration), configuration);
+        body = BenchmarkFixtures.MAPPER.writeValueAsBytes(BenchmarkFixtures.document(documentFields, 1));
+    }
+
+    @Benchmark
+    public int captureAndReplay() throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/benchmark");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,325 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldEquals;
+import com.jayway.jsonpath.JsonPath;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Immutable execution plan of a {@link RuleSet}. Every definition of the rule set is bound to the {@link Matcher}s and
+ * {@link Validator}s that support it once at registration, so that evaluating the plan neither needs to look up
+ * components nor to copy the definitions of the rule set.
+ */
+final class CompiledRuleSet {
+
+    private final RuleSet ruleSet;
+    private final long ordinal;
+    private final ConditionNetwork.Condition[] conditions;
+    private final BoundValidator<?>[] validators;
+
+    /**
+     * Equality matcher that must match for this rule set to match
+     */
+    private final FieldEquals discriminator;
+
+    /**
+     * Compiled JSON paths declared by the bound components
+     */
+    private final Set<JsonPath> jsonPaths;
+
+    CompiledRuleSet(RuleSet ruleSet, long ordinal, ConditionNetwork.Condition[] conditions,
+                    BoundValidator<?>[] validators, @Nullable FieldEquals discriminator, Set<JsonPath> jsonPaths) {
+        this.ruleSet = ruleSet;
+        this.ordinal = ordinal;
+        this.conditions = conditions;
+        this.validators = validators;
+        this.discriminator = discriminator;
+        this.jsonPaths = Set.copyOf(jsonPaths);
+    }
+
+    /**
+     * Returns the compiled {@link RuleSet}
+     *
+     * @return rule set
+     */
+    RuleSet getRuleSet() {
+        return ruleSet;
+    }
+
+    /**
+     * Returns the registration order of the rule set
+     *
+     * @return ordinal
+     */
+    long getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Returns the match conditions, that might be shared with other rule sets
+     *
+     * @return conditions
+     */
+    ConditionNetwork.Condition[] getConditions() {
+        return conditions;
+    }
+
+    /**
+     * Returns a {@link FieldEquals} match definition that is a necessary condition of this rule set matching, if
+     * any.
+     *
+     * @return discriminating definition or null
+     */
+    @Nullable
+    FieldEquals getDiscriminator() {
+        return discriminator;
+    }
+
+    /**
+     * Returns the compiled JSON paths that are read by the bound components
+     *
+     * @return JSON paths
+     */
+    Set<JsonPath> getJsonPaths() {
+        return jsonPaths;
+    }
+
+    /**
+     * Determines if the {@link RuleSet} matches the given JSON. Conditions shared with other rule sets are only
+     * evaluated once per document.
+     *
+     * @param json    JSON
+     * @param results results of the shared conditions already evaluated for the JSON
+     * @param metrics metrics recording the duration of every evaluated matcher, if enabled
+     * @return true if all conditions match or no matcher is configured
+     */
+    boolean matches(JsonWrapper json, ConditionNetwork.Results results, ValidationMetrics metrics) {
+        for (ConditionNetwork.Condition condition : conditions) {
+            if (!results.test(condition, json, metrics)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Applies all bound validators to the given JSON.
+     *
+     * @param json JSON
+     * @throws RuleValidationException if any validation fails
+     */
+    void apply(JsonWrapper json) throws RuleValidationException {
+        apply(json, () -> false, ValidationMetrics.NOOP);
+    }
+
+    /**
+     * Applies the bound validators to the given JSON until the evaluation is cancelled.
+     *
+     * @param json      JSON
+     * @param cancelled checked before every validator
+     * @param metrics   metrics recording the duration of every validator, if enabled
+     * @throws RuleValidationException if any validation fails
+     */
+    void apply(JsonWrapper json, BooleanSupplier cancelled, ValidationMetrics metrics)
+            throws RuleValidationException {
+        boolean instrumented = metrics.isEnabled();
+
+        try {
+            for (BoundValidator<?> validator : validators) {
+                if (cancelled.getAsBoolean()) {
+                    return;
+                }
+
+                if (!instrumented) {
+                    validator.apply(json);
+                    continue;
+                }
+
+                long start = System.nanoTime();
+
+                try {
+                    validator.apply(json);
+                } finally {
+                    metrics.recordComponent(validator.componentName, System.nanoTime() - start);
+                }
+            }
+        } catch (RuleValidationException e) {
+            e.setRuleSet(ruleSet);
+            throw e;
+        }
+    }
+
+    /**
+     * Binds a definition to a {@link Matcher} supporting its type.
+     *
+     * @param matcher    matcher
+     * @param definition definition of the exact target type of the matcher
+     * @param compile    whether the definition is compiled into a predicate by a {@link NativeRuleSetComponent}
+     * @param <D>        definition type
+     * @return bound matcher
+     */
+    static <D> BoundMatcher<D> bind(Matcher<D> matcher, Object definition, boolean compile) {
+        NativeRuleSetComponent<D> component = matcher instanceof NativeRuleSetComponent.ComponentMatcher
+                ? ((NativeRuleSetComponent<D>.ComponentMatcher) matcher).getComponent()
+                : null;
+        D typedDefinition = matcher.getTargetType().cast(definition);
+
+        JsonPredicate predicate = component != null
+                ? predicate(component, typedDefinition, compile)
+                : json -> matcher.matches(typedDefinition, json);
+
+        return new BoundMatcher<>(matcher, typedDefinition, predicate,
+                componentName(component != null ? component : matcher));
+    }
+
+    /**
+     * Binds a definition to a {@link Validator} supporting its type. A predicate of its {@link NativeRuleSetComponent}
+     * replaces the validator only if the component does not override {@link NativeRuleSetComponent#apply(Object,
+     * JsonWrapper)}.
+     *
+     * @param validator  validator
+     * @param definition definition of the exact target type of the validator
+     * @param compile    whether the definition is compiled into a predicate by a {@link NativeRuleSetComponent}
+     * @param <D>        definition type
+     * @return bound validator
+     */
+    static <D> BoundValidator<D> bind(Validator<D> validator, Object definition, boolean compile) {
+        NativeRuleSetComponent<D> component = validator instanceof NativeRuleSetComponent.ComponentValidator
+                ? ((NativeRuleSetComponent<D>.ComponentValidator) validator).getComponent()
+                : null;
+        D typedDefinition = validator.getTargetType().cast(definition);
+        Check check;
+
+        if (component != null && !overridesApply(component)) {
+            JsonPredicate predicate = predicate(component, typedDefinition, compile);
+
+            check = json -> {
+                if (!predicate.test(json)) {
+                    throw component.validationException(typedDefinition, json);
+                }
+            };
+        } else {
+            check = json -> validator.apply(typedDefinition, json);
+        }
+
+        return new BoundValidator<>(validator, typedDefinition, check,
+                componentName(component != null ? component : validator));
+    }
+
+    /**
+     * Returns the predicate of a native component for the definition. Without compilation, the component binds the
+     * definition, unless a subclass overrides {@link NativeRuleSetComponent#matches(Object, JsonWrapper)} after the
+     * binding was implemented.
+     *
+     * @param component  native component
+     * @param definition definition of the target type of the component
+     * @param compile    whether the definition is compiled
+     * @param <D>        definition type
+     * @return predicate
+     */
+    private static <D> JsonPredicate predicate(NativeRuleSetComponent<D> component, D definition, boolean compile) {
+        if (compile) {
+            return component.compile(definition);
+        }
+
+        Method matches = ReflectionUtils.findMethod(component.getClass(), "matches", Object.class, JsonWrapper.class);
+        Method bind = ReflectionUtils.findMethod(component.getClass(), "bind", Object.class);
+
+        if (matches != null && bind != null
+                && matches.getDeclaringClass().isAssignableFrom(bind.getDeclaringClass())) {
+            return component.bind(definition);
+        }
+
+        return json -> component.matches(definition, json);
+    }
+
+    /**
+     * Checks if a component implements its validation other than by negating its match.
+     *
+     * @param component native component
+     * @return true if {@link NativeRuleSetComponent#apply(Object, JsonWrapper)} is overridden
+     */
+    private static boolean overridesApply(NativeRuleSetComponent<?> component) {
+        Method apply = ReflectionUtils.findMethod(component.getClass(), "apply", Object.class, JsonWrapper.class);
+        return apply == null || apply.getDeclaringClass() != NativeRuleSetComponent.class;
+    }
+
+    /**
+     * Returns the name of a component, that is used in metrics.
+     *
+     * @param component matcher, validator or native component
+     * @return simple class name
+     */
+    private static String componentName(Object component) {
+        String name = component.getClass().getSimpleName();
+        return name.isEmpty() ? component.getClass().getName() : name;
+    }
+
+    /**
+     * Pair of a definition and the {@link Matcher} it configures.
+     */
+    static final class BoundMatcher<D> {
+        private final Matcher<D> matcher;
+        private final D definition;
+        private final JsonPredicate predicate;
+        private final String componentName;
+
+        private BoundMatcher(Matcher<D> matcher, D definition, JsonPredicate predicate, String componentName) {
+            this.matcher = matcher;
+            this.definition = definition;
+            this.predicate = predicate;
+            this.componentName = componentName;
+        }
+
+        boolean matches(JsonWrapper json) {
+            return predicate.test(json);
+        }
+
+        String getComponentName() {
+            return componentName;
+        }
+
+        Collection<String> jsonPaths() {
+            return matcher.jsonPaths(definition);
+        }
+    }
+
+    /**
+     * Pair of a definition and the {@link Validator} it configures.
+     */
+    static final class BoundValidator<D> {
+        private final Validator<D> validator;
+        private final D definition;
+        private final Check check;
+        private final String componentName;
+
+        private BoundValidator(Validator<D> validator, D definition, Check check, String componentName) {
+            this.validator = validator;
+            this.definition = definition;
+            this.check = check;
+            this.componentName = componentName;
+        }
+
+        void apply(JsonWrapper json) throws RuleValidationException {
+            check.apply(json);
+        }
+
+        Collection<String> jsonPaths() {
+            return validator.jsonPaths(definition);
+        }
+    }
+
+    /**
+     * Validation with its definition already applied.
+     */
+    @FunctionalInterface
+    private interface Check {
+        void apply(JsonWrapper json) throws RuleValidationException;
+    }
+}
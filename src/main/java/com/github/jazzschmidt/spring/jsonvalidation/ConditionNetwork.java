@@ -0,0 +1,197 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Network of the distinct match conditions of all {@link RuleSet}s. Matcher definitions that are equal share a single
+ * {@link Condition}, that is evaluated at most once per document and feeds every rule set depending on it. Definitions
+ * are compared by their JSON representation, so that definition types do not need to implement equality.
+ * <p>
+ * Conditions are counted by the rule sets referencing them, and are created and released incrementally as rule sets
+ * are added and removed. The network is only modified by the {@link RuleSetValidator} while it holds its lock; a
+ * published {@link CompiledRuleSet} keeps its conditions, so that validations of older catalogs are not affected.
+ * </p>
+ */
+final class ConditionNetwork {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Key, Condition> conditions = new HashMap<>();
+
+    ConditionNetwork(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the condition of a matcher and definition, binding a new one if no equal condition exists yet.
+     *
+     * @param matcher    matcher
+     * @param definition definition of the exact target type of the matcher
+     * @param binder     binds the definition to the matcher
+     * @return shared condition
+     */
+    Condition acquire(Matcher<?> matcher, Object definition, Supplier<CompiledRuleSet.BoundMatcher<?>> binder) {
+        Key key = new Key(matcher, identity(definition));
+        Condition condition = conditions.computeIfAbsent(key, k -> new Condition(k, binder.get()));
+        condition.references++;
+
+        return condition;
+    }
+
+    /**
+     * Releases the conditions of a rule set that is no longer part of the validation.
+     *
+     * @param ruleSet removed rule set
+     */
+    void release(CompiledRuleSet ruleSet) {
+        for (Condition condition : ruleSet.getConditions()) {
+            release(condition);
+        }
+    }
+
+    /**
+     * Releases a single reference of a condition, e.g. of a rule set that could not be compiled.
+     *
+     * @param condition acquired condition
+     */
+    void release(Condition condition) {
+        if (--condition.references == 0) {
+            conditions.remove(condition.key);
+        }
+    }
+
+    /**
+     * Returns the number of distinct conditions
+     *
+     * @return number of conditions
+     */
+    int size() {
+        return conditions.size();
+    }
+
+    /**
+     * Returns a value that is equal for equal definitions. Definitions that cannot be serialized are only equal to
+     * themselves.
+     *
+     * @param definition definition
+     * @return JSON representation of the definition or the definition itself
+     */
+    private Object identity(Object definition) {
+        try {
+            return objectMapper.valueToTree(definition);
+        } catch (IllegalArgumentException e) {
+            return definition;
+        }
+    }
+
+    /**
+     * Matcher along with the identity of its definition. The hash is computed once, since the definition might be
+     * modified after registration.
+     */
+    private static final class Key {
+        private final Matcher<?> matcher;
+        private final Object definition;
+        private final int hash;
+
+        private Key(Matcher<?> matcher, Object definition) {
+            this.matcher = matcher;
+            this.definition = definition;
+            this.hash = 31 * System.identityHashCode(matcher) + definition.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) o;
+            return hash == key.hash && matcher == key.matcher && definition.equals(key.definition);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Bound matcher shared by all rule sets with an equal definition.
+     */
+    static final class Condition {
+        private final Key key;
+        private final CompiledRuleSet.BoundMatcher<?> matcher;
+
+        /**
+         * Number of rule sets referencing this condition; read by validations to decide whether the result is worth
+         * remembering
+         */
+        private volatile int references;
+
+        private Condition(Key key, CompiledRuleSet.BoundMatcher<?> matcher) {
+            this.key = key;
+            this.matcher = matcher;
+        }
+
+        CompiledRuleSet.BoundMatcher<?> getMatcher() {
+            return matcher;
+        }
+
+        private boolean isShared() {
+            return references > 1;
+        }
+
+        private boolean evaluate(JsonWrapper json, ValidationMetrics metrics) {
+            if (!metrics.isEnabled()) {
+                return matcher.matches(json);
+            }
+
+            long start = System.nanoTime();
+            boolean matches = matcher.matches(json);
+            metrics.recordComponent(matcher.getComponentName(), System.nanoTime() - start);
+
+            return matches;
+        }
+    }
+
+    /**
+     * Results of the shared conditions evaluated for a single document. Conditions referenced by a single rule set are
+     * evaluated directly. Not thread-safe, since the rule sets of a document are matched sequentially.
+     */
+    static final class Results {
+        private Map<Condition, Boolean> results;
+
+        /**
+         * Evaluates a condition, unless it was already evaluated for this document.
+         *
+         * @param condition condition
+         * @param json      JSON
+         * @param metrics   metrics recording the duration of every evaluation, if enabled
+         * @return true if the condition matches
+         */
+        boolean test(Condition condition, JsonWrapper json, ValidationMetrics metrics) {
+            if (!condition.isShared()) {
+                return condition.evaluate(json, metrics);
+            }
+
+            if (results == null) {
+                results = new IdentityHashMap<>();
+            }
+
+            Boolean result = results.get(condition);
+
+            if (result == null) {
+                result = condition.evaluate(json, metrics);
+                results.put(condition, result);
+            }
+
+            return result;
+        }
+    }
+}
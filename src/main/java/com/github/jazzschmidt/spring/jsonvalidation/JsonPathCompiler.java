@@ -0,0 +1,130 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles JSON paths once and shares them along with a single {@link Configuration} between all {@link
+ * RuleSetComponent}s.
+ * <p>
+ * Compiled paths are only held weakly, so that a path stays shared as long as any compiled {@link RuleSet} or catalog
+ * refers to it, and is released along with the last of them. Paths of rule sets that come and go thus do not
+ * accumulate.
+ * </p>
+ */
+final class JsonPathCompiler {
+
+    /**
+     * Configuration used for reading any compiled JSON path from a JSON Map
+     */
+    static final Configuration CONFIGURATION = Configuration.defaultConfiguration()
+            .setOptions(Option.SUPPRESS_EXCEPTIONS);
+
+    /**
+     * Configuration used for reading any compiled JSON path directly from a Jackson {@link
+     * com.fasterxml.jackson.databind.JsonNode}
+     */
+    static final Configuration NODE_CONFIGURATION = nodeConfiguration(JsonWrapper.DEFAULT_MAPPER);
+
+    /**
+     * Compiled JSON paths by their expression
+     */
+    private static final Map<String, CompiledPath> compiledPaths = new ConcurrentHashMap<>();
+
+    /**
+     * Compiled JSON paths that are no longer referenced
+     */
+    private static final ReferenceQueue<JsonPath> releasedPaths = new ReferenceQueue<>();
+
+    private JsonPathCompiler() {
+    }
+
+    /**
+     * Creates a configuration that evaluates JSON paths on Jackson JSON nodes.
+     *
+     * @param objectMapper mapper used by the JSON and mapping provider
+     * @return configuration
+     */
+    static Configuration nodeConfiguration(ObjectMapper objectMapper) {
+        return Configuration.builder()
+                .jsonProvider(new JacksonJsonNodeJsonProvider(objectMapper))
+                .mappingProvider(new JacksonMappingProvider(objectMapper))
+                .options(Option.SUPPRESS_EXCEPTIONS)
+                .build();
+    }
+
+    /**
+     * Returns the compiled JSON path of the expression and compiles it if it was not requested before.
+     *
+     * @param jsonPath JSON path expression
+     * @return compiled JSON path
+     * @throws com.jayway.jsonpath.InvalidPathException if the expression is invalid
+     */
+    static JsonPath compile(String jsonPath) {
+        CompiledPath reference = compiledPaths.get(jsonPath);
+        JsonPath compiled = reference != null ? reference.get() : null;
+
+        if (compiled != null) {
+            return compiled;
+        }
+
+        expungeReleasedPaths();
+
+        JsonPath[] result = new JsonPath[1];
+
+        compiledPaths.compute(jsonPath, (expression, previous) -> {
+            result[0] = previous != null ? previous.get() : null;
+
+            if (result[0] != null) {
+                return previous;
+            }
+
+            result[0] = JsonPath.compile(expression);
+            return new CompiledPath(expression, result[0]);
+        });
+
+        return result[0];
+    }
+
+    /**
+     * Returns the number of compiled paths that might still be referenced
+     *
+     * @return number of paths
+     */
+    static int size() {
+        expungeReleasedPaths();
+        return compiledPaths.size();
+    }
+
+    /**
+     * Removes the entries of compiled paths that were garbage collected.
+     */
+    private static void expungeReleasedPaths() {
+        CompiledPath released;
+
+        while ((released = (CompiledPath) releasedPaths.poll()) != null) {
+            compiledPaths.remove(released.expression, released);
+        }
+    }
+
+    /**
+     * Weak reference of a compiled path, that remembers its expression
+     */
+    private static final class CompiledPath extends WeakReference<JsonPath> {
+        private final String expression;
+
+        private CompiledPath(String expression, JsonPath jsonPath) {
+            super(jsonPath, releasedPaths);
+            this.expression = expression;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+/**
+ * Condition on JSON content with its definition already applied. Compiled by {@link
+ * NativeRuleSetComponent#compile(Object)} once per definition when a {@link RuleSet} is added to the {@link
+ * RuleSetValidator}.
+ */
+@FunctionalInterface
+public interface JsonPredicate {
+
+    /**
+     * Tests the JSON.
+     *
+     * @param json JSON
+     * @return true if the JSON fulfills the condition
+     */
+    boolean test(JsonWrapper json);
+}
@@ -0,0 +1,23 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Raw JSON content that can be parsed repeatedly, e.g. the captured body of a request.
+ */
+@FunctionalInterface
+public interface JsonSource {
+
+    /**
+     * Creates a new parser reading the JSON content from its beginning.
+     *
+     * @param factory JSON factory
+     * @return JSON parser
+     * @throws IOException if the content could not be read
+     */
+    JsonParser createParser(JsonFactory factory) throws IOException;
+
+}
@@ -2,23 +2,33 @@ package com.github.jazzschmidt.spring.jsonvalidation;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.github.jazzschmidt.spring.jsonvalidation.web.FileRuleSetRepository;
 import com.github.jazzschmidt.spring.jsonvalidation.web.InMemoryRuleSetRepository;
 import com.github.jazzschmidt.spring.jsonvalidation.web.InterceptorConfigurer;
+import com.github.jazzschmidt.spring.jsonvalidation.web.JsonContentFilter;
 import com.github.jazzschmidt.spring.jsonvalidation.web.RuleSetRepository;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.*;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
 import org.springframework.lang.NonNull;
 
 import javax.annotation.PostConstruct;
+import javax.servlet.DispatcherType;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Enables the autoconfiguration of the JSON Validation library. Will inject combined {@link Matcher}s and {@link
@@ -30,6 +40,11 @@ import java.util.*;
 @ComponentScan
 public class JsonValidationAutoconfiguration implements BeanFactoryAware {
 
+    /**
+     * Name of an optional {@link Executor} bean for parallel validation
+     */
+    public static final String EXECUTOR_BEAN_NAME = "jsonValidationExecutor";
+
     /**
      * Collection of matcher definitions with their respective id
      */
@@ -145,17 +160,68 @@ public class JsonValidationAutoconfiguration implements BeanFactoryAware {
         }
     }
 
+    /**
+     * Creates the {@link RuleSetValidator}. Parallel validation runs on the executor bean named {@value
+     * #EXECUTOR_BEAN_NAME} or the common {@link ForkJoinPool}. {@link ValidationMetrics} are recorded if available.
+     */
     @Bean
     @ConditionalOnMissingBean
     @Autowired
-    public RuleSetValidator ruleSetValidator(Set<Matcher<?>> matchers, Set<Validator<?>> validators) {
-        return new RuleSetValidator(matchers, validators);
+    public RuleSetValidator ruleSetValidator(Set<Matcher<?>> matchers, Set<Validator<?>> validators,
+                                             JsonWrapperFactory wrapperFactory,
+                                             JsonValidationConfiguration configuration,
+                                             @Qualifier(EXECUTOR_BEAN_NAME) Optional<Executor> executor,
+                                             ObjectProvider<ValidationMetrics> metrics) {
+        RuleSetValidator validator = new RuleSetValidator(matchers, validators, wrapperFactory);
+        validator.setPredicateCompilation(configuration.isCompilePredicates());
+
+        metrics.ifAvailable(validationMetrics -> {
+            validator.setMetrics(validationMetrics);
+            validationMetrics.monitor(validator);
+        });
+
+        if (configuration.isParallel()) {
+            validator.enableParallelValidation(executor.orElseGet(ForkJoinPool::commonPool),
+                    configuration.getParallelThreshold());
+        }
+
+        return validator;
+    }
+
+    @Bean
+    @ConditionalOnProperty("jsonvalidation.rule-set-directory")
+    public RuleSetDirectoryWatcher ruleSetDirectoryWatcher(RuleSetValidator validator,
+                                                           JsonValidationConfiguration configuration)
+            throws IOException {
+        RuleSetDirectoryWatcher watcher =
+                new RuleSetDirectoryWatcher(configuration.getRuleSetDirectory(), validator, objectMapper);
+        watcher.start();
+
+        return watcher;
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public RuleSetRepository ruleSetRepository() {
-        return new InMemoryRuleSetRepository();
+    public RuleSetRepository ruleSetRepository(JsonValidationConfiguration configuration) throws IOException {
+        if (configuration.getRepositoryDirectory() == null) {
+            return new InMemoryRuleSetRepository();
+        }
+
+        return new FileRuleSetRepository(configuration.getRepositoryDirectory(), objectMapper,
+                configuration.getRepositoryCompactionThreshold());
+    }
+
+    /**
+     * Registers the {@link JsonContentFilter} for asynchronous dispatches as well, which resume requests whose content
+     * was captured asynchronously.
+     */
+    @Bean
+    public FilterRegistrationBean<JsonContentFilter> jsonContentFilterRegistration(JsonContentFilter filter) {
+        FilterRegistrationBean<JsonContentFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.setAsyncSupported(true);
+
+        return registration;
     }
 
     @Bean
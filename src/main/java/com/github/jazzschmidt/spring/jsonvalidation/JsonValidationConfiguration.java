@@ -2,6 +2,11 @@ package com.github.jazzschmidt.spring.jsonvalidation;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
 
 @Configuration
 @ConfigurationProperties("jsonvalidation")
@@ -18,6 +23,97 @@ public class JsonValidationConfiguration {
      */
     private String endpoint = "/jsonvalidation";
 
+    /**
+     * Whether request bodies are validated by streaming only the values of the JSON paths used by the rule sets
+     * instead of parsing them completely
+     */
+    private boolean streaming = false;
+
+    /**
+     * Maximum size of JSON request bodies, larger requests are rejected; not limited if not set
+     */
+    private DataSize maxContentLength;
+
+    /**
+     * Number of buffers that are kept for capturing request bodies
+     */
+    private int contentBufferPoolSize = 64;
+
+    /**
+     * Size of request bodies beyond which they are spilled to a temporary file instead of being held in memory
+     */
+    private DataSize contentSpillThreshold = DataSize.ofMegabytes(1);
+
+    /**
+     * Directory of the temporary files of spilled request bodies, defaults to the temporary directory of the system
+     */
+    private Path contentSpillDirectory;
+
+    /**
+     * Whether request bodies are captured with non-blocking reads of an asynchronous request
+     */
+    private boolean asyncCapture = false;
+
+    /**
+     * Time a request body may take to be captured asynchronously, not limited if zero
+     */
+    private Duration asyncCaptureTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Whether matching rule sets are applied concurrently
+     */
+    private boolean parallel = false;
+
+    /**
+     * Minimum number of matching rule sets for a parallel validation
+     */
+    private int parallelThreshold = 8;
+
+    /**
+     * Whether rule definitions of the built-in and native components are compiled into specialized predicates
+     */
+    private boolean compilePredicates = false;
+
+    /**
+     * Directory in which rule sets created by the REST API are persisted; they are held in memory only if not set
+     */
+    private Path repositoryDirectory;
+
+    /**
+     * Number of changes after which the persisted rule sets are compacted into a snapshot
+     */
+    private int repositoryCompactionThreshold = 10000;
+
+    /**
+     * Maximum number of cached validation outcomes of request bodies, outcomes are not cached if zero
+     */
+    private int outcomeCacheSize = 0;
+
+    /**
+     * Maximum size of request bodies whose validation outcome is cached
+     */
+    private DataSize outcomeCacheMaxBodySize = DataSize.ofKilobytes(16);
+
+    /**
+     * Whether rule sets created by the REST API are stored in the database of the application, shared by all instances
+     */
+    private boolean repositoryJdbc = false;
+
+    /**
+     * Interval in which a shared repository is polled for changes of other instances
+     */
+    private Duration repositoryPollInterval = Duration.ofSeconds(5);
+
+    /**
+     * Directory of rule set JSON files that are loaded and reloaded whenever they change
+     */
+    private Path ruleSetDirectory;
+
+    /**
+     * Maximum number of rule sets that are tagged by their name in the metrics
+     */
+    private int metricsRuleSetLimit = 1000;
+
     public boolean isEnableEndpoint() {
         return enableEndpoint;
     }
@@ -33,4 +129,149 @@ public class JsonValidationConfiguration {
     public void setEndpoint(String endpoint) {
         this.endpoint = endpoint;
     }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    @Nullable
+    public DataSize getMaxContentLength() {
+        return maxContentLength;
+    }
+
+    public void setMaxContentLength(@Nullable DataSize maxContentLength) {
+        this.maxContentLength = maxContentLength;
+    }
+
+    public int getContentBufferPoolSize() {
+        return contentBufferPoolSize;
+    }
+
+    public void setContentBufferPoolSize(int contentBufferPoolSize) {
+        this.contentBufferPoolSize = contentBufferPoolSize;
+    }
+
+    public DataSize getContentSpillThreshold() {
+        return contentSpillThreshold;
+    }
+
+    public void setContentSpillThreshold(DataSize contentSpillThreshold) {
+        this.contentSpillThreshold = contentSpillThreshold;
+    }
+
+    public Path getContentSpillDirectory() {
+        return contentSpillDirectory;
+    }
+
+    public void setContentSpillDirectory(Path contentSpillDirectory) {
+        this.contentSpillDirectory = contentSpillDirectory;
+    }
+
+    public boolean isAsyncCapture() {
+        return asyncCapture;
+    }
+
+    public void setAsyncCapture(boolean asyncCapture) {
+        this.asyncCapture = asyncCapture;
+    }
+
+    public Duration getAsyncCaptureTimeout() {
+        return asyncCaptureTimeout;
+    }
+
+    public void setAsyncCaptureTimeout(Duration asyncCaptureTimeout) {
+        this.asyncCaptureTimeout = asyncCaptureTimeout;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public boolean isCompilePredicates() {
+        return compilePredicates;
+    }
+
+    public void setCompilePredicates(boolean compilePredicates) {
+        this.compilePredicates = compilePredicates;
+    }
+
+    public Path getRepositoryDirectory() {
+        return repositoryDirectory;
+    }
+
+    public void setRepositoryDirectory(Path repositoryDirectory) {
+        this.repositoryDirectory = repositoryDirectory;
+    }
+
+    public int getRepositoryCompactionThreshold() {
+        return repositoryCompactionThreshold;
+    }
+
+    public void setRepositoryCompactionThreshold(int repositoryCompactionThreshold) {
+        this.repositoryCompactionThreshold = repositoryCompactionThreshold;
+    }
+
+    public int getOutcomeCacheSize() {
+        return outcomeCacheSize;
+    }
+
+    public void setOutcomeCacheSize(int outcomeCacheSize) {
+        this.outcomeCacheSize = outcomeCacheSize;
+    }
+
+    public DataSize getOutcomeCacheMaxBodySize() {
+        return outcomeCacheMaxBodySize;
+    }
+
+    public void setOutcomeCacheMaxBodySize(DataSize outcomeCacheMaxBodySize) {
+        this.outcomeCacheMaxBodySize = outcomeCacheMaxBodySize;
+    }
+
+    public boolean isRepositoryJdbc() {
+        return repositoryJdbc;
+    }
+
+    public void setRepositoryJdbc(boolean repositoryJdbc) {
+        this.repositoryJdbc = repositoryJdbc;
+    }
+
+    public Duration getRepositoryPollInterval() {
+        return repositoryPollInterval;
+    }
+
+    public void setRepositoryPollInterval(Duration repositoryPollInterval) {
+        this.repositoryPollInterval = repositoryPollInterval;
+    }
+
+    public Path getRuleSetDirectory() {
+        return ruleSetDirectory;
+    }
+
+    public void setRuleSetDirectory(Path ruleSetDirectory) {
+        this.ruleSetDirectory = ruleSetDirectory;
+    }
+
+    public int getMetricsRuleSetLimit() {
+        return metricsRuleSetLimit;
+    }
+
+    public void setMetricsRuleSetLimit(int metricsRuleSetLimit) {
+        this.metricsRuleSetLimit = metricsRuleSetLimit;
+    }
 }
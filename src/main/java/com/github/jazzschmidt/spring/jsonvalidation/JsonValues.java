@@ -0,0 +1,157 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import org.springframework.lang.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Compares scalar JSON values independently of the Java types they were deserialized to. Depending on the JSON
+ * provider, the number {@code 1} may be read as {@link Integer}, {@link Long}, {@link Double} or {@link BigDecimal},
+ * which are never {@link Object#equals(Object) equal} to each other.
+ * <p>
+ * The canonical form of a number is a {@link Long} if it is integral and fits into a long, otherwise a {@link Double}
+ * if it can be represented as one, otherwise a {@link BigDecimal} without trailing zeros. Any other value is its own
+ * canonical form.
+ * </p>
+ * <p>
+ * A decimal is represented by a double if it equals the exact value of the double, e.g. {@code 2^64}, or the shortest
+ * decimal that rounds to the double, e.g. {@code 0.1}. The latter is how a JSON parser reads such a literal into a
+ * double, so that {@code 0.1} equals {@code 0.1} regardless of whether it was read as double or decimal. Thus both
+ * decimals equal the double, although they are not equal to each other.
+ * </p>
+ */
+public final class JsonValues {
+
+    private static final double MIN_LONG = -0x1p63;
+    private static final double MAX_LONG = 0x1p63;
+
+    private JsonValues() {
+    }
+
+    /**
+     * Determines if two JSON values are equal. Integral and floating point numbers are compared as primitives, so that
+     * the comparison of the common number types does not allocate.
+     *
+     * @param value a value
+     * @param other another value
+     * @return true if both values are equal
+     */
+    public static boolean equal(@Nullable Object value, @Nullable Object other) {
+        if (value == other) {
+            return true;
+        }
+
+        if (value == null || other == null) {
+            return false;
+        }
+
+        if (value instanceof Number && other instanceof Number) {
+            return numbersEqual((Number) value, (Number) other);
+        }
+
+        return value.equals(other);
+    }
+
+    /**
+     * Returns the canonical form of a JSON value, that can be used as key of hash based collections.
+     *
+     * @param value value
+     * @return canonical value
+     */
+    @Nullable
+    public static Object canonical(@Nullable Object value) {
+        if (isIntegral(value)) {
+            return value instanceof Long ? value : Long.valueOf(((Number) value).longValue());
+        }
+
+        if (isFloatingPoint(value)) {
+            double doubleValue = ((Number) value).doubleValue();
+
+            if (isLong(doubleValue)) {
+                return (long) doubleValue;
+            }
+
+            return value instanceof Double ? value : Double.valueOf(doubleValue);
+        }
+
+        if (value instanceof BigInteger) {
+            BigInteger bigInteger = (BigInteger) value;
+            return bigInteger.bitLength() < Long.SIZE ? Long.valueOf(bigInteger.longValue()) : canonical(bigInteger);
+        }
+
+        if (value instanceof BigDecimal) {
+            return canonical((BigDecimal) value);
+        }
+
+        return value;
+    }
+
+    private static boolean numbersEqual(Number value, Number other) {
+        boolean integral = isIntegral(value);
+        boolean otherIntegral = isIntegral(other);
+
+        if (integral && otherIntegral) {
+            return value.longValue() == other.longValue();
+        }
+
+        boolean floatingPoint = isFloatingPoint(value);
+        boolean otherFloatingPoint = isFloatingPoint(other);
+
+        if (floatingPoint && otherFloatingPoint) {
+            return value.doubleValue() == other.doubleValue();
+        }
+
+        if (integral && otherFloatingPoint) {
+            return equal(value.longValue(), other.doubleValue());
+        }
+
+        if (floatingPoint && otherIntegral) {
+            return equal(other.longValue(), value.doubleValue());
+        }
+
+        Object canonical = canonical(value);
+        return canonical != null && canonical.equals(canonical(other));
+    }
+
+    private static boolean equal(long longValue, double doubleValue) {
+        return isLong(doubleValue) && (long) doubleValue == longValue;
+    }
+
+    private static Object canonical(BigInteger value) {
+        return canonical(new BigDecimal(value));
+    }
+
+    private static Object canonical(BigDecimal value) {
+        BigDecimal stripped = value.stripTrailingZeros();
+
+        if (stripped.scale() <= 0 && stripped.precision() - stripped.scale() <= 19) {
+            try {
+                return stripped.longValueExact();
+            } catch (ArithmeticException e) {
+                // Exceeds the range of long
+            }
+        }
+
+        double doubleValue = stripped.doubleValue();
+
+        if (Double.isFinite(doubleValue) && (new BigDecimal(doubleValue).compareTo(stripped) == 0
+                || BigDecimal.valueOf(doubleValue).compareTo(stripped) == 0)) {
+            return doubleValue;
+        }
+
+        return stripped;
+    }
+
+    private static boolean isLong(double value) {
+        return value >= MIN_LONG && value < MAX_LONG && value == Math.rint(value);
+    }
+
+    private static boolean isIntegral(@Nullable Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+    }
+
+    private static boolean isFloatingPoint(@Nullable Object value) {
+        return value instanceof Double || value instanceof Float;
+    }
+}
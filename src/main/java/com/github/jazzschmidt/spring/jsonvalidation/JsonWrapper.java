@@ -1,52 +1,103 @@
 package com.github.jazzschmidt.spring.jsonvalidation;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import org.springframework.lang.Nullable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Wrapper for convenient retrieval of lazy-generated views of the JSON object.
+ * Wrapper for convenient retrieval of lazy-generated views of the JSON object. JSON paths are evaluated on the view the
+ * wrapper was created with, so that a {@link JsonNode} never needs to be converted to a Map and vice versa. Every JSON
+ * path is evaluated at most once per wrapper. A wrapper may be read by several threads at once.
+ * <p>
+ * A wrapper of a {@link JsonSource} is created with the values of the JSON paths that were extracted by streaming. The
+ * content will only be parsed completely when any other view or JSON path is requested.
+ * </p>
  */
 public final class JsonWrapper {
+
+    /**
+     * Mapper of wrappers that were created without an explicit {@link ObjectMapper}
+     */
+    static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
+
+    /**
+     * Placeholder of resolved null values
+     */
+    private static final Object NULL = new Object();
+
     private JsonNode jsonNode;
     private Map<String, Object> jsonMap;
     private String jsonText;
+    private JsonSource jsonSource;
 
     private final ObjectMapper objectMapper;
+    private final Configuration nodeConfiguration;
     private final TypeReference<Map<String, Object>> mapReference = new TypeReference<>() {
     };
 
+    /**
+     * Values of the JSON paths that were already read
+     */
+    private final Map<JsonPath, Object> resolvedValues = new ConcurrentHashMap<>();
+
     public JsonWrapper(JsonNode jsonNode) {
-        this(new ObjectMapper(), jsonNode);
+        this(DEFAULT_MAPPER, JsonPathCompiler.NODE_CONFIGURATION, jsonNode);
     }
 
     public JsonWrapper(Map<String, Object> jsonMap) {
-        this(new ObjectMapper(), jsonMap);
+        this(DEFAULT_MAPPER, jsonMap);
     }
 
     public JsonWrapper(ObjectMapper objectMapper, JsonNode jsonNode) {
-        this.objectMapper = objectMapper;
-        this.jsonNode = jsonNode;
+        this(objectMapper, JsonPathCompiler.nodeConfiguration(objectMapper), jsonNode);
     }
 
     public JsonWrapper(ObjectMapper objectMapper, Map<String, Object> jsonMap) {
         this.objectMapper = objectMapper;
+        this.nodeConfiguration = JsonPathCompiler.NODE_CONFIGURATION;
         this.jsonMap = jsonMap;
     }
 
+    JsonWrapper(ObjectMapper objectMapper, Configuration nodeConfiguration, JsonNode jsonNode) {
+        this.objectMapper = objectMapper;
+        this.nodeConfiguration = nodeConfiguration;
+        this.jsonNode = jsonNode;
+    }
+
+    JsonWrapper(ObjectMapper objectMapper, Configuration nodeConfiguration, JsonSource jsonSource,
+                Map<JsonPath, Object> resolvedValues) {
+        this.objectMapper = objectMapper;
+        this.nodeConfiguration = nodeConfiguration;
+        this.jsonSource = jsonSource;
+
+        resolvedValues.forEach((jsonPath, value) -> this.resolvedValues.put(jsonPath, value == null ? NULL : value));
+    }
+
     /**
      * Gets the JSON as {@link JsonNode}
      *
      * @return JSON
+     * @throws UncheckedIOException if the JSON source could not be parsed
      */
-    public JsonNode getJsonNode() {
+    public synchronized JsonNode getJsonNode() {
         if (jsonNode == null && jsonMap != null) {
             jsonNode = objectMapper.valueToTree(jsonMap);
         }
 
+        if (jsonNode == null && jsonSource != null) {
+            jsonNode = readSource();
+        }
+
         return jsonNode;
     }
 
@@ -54,9 +105,10 @@ public final class JsonWrapper {
      * Gets the JSON as Map
      *
      * @return JSON
+     * @throws UncheckedIOException if the JSON source could not be parsed
      */
-    public Map<String, Object> getJsonMap() {
-        if (jsonMap == null && jsonNode != null) {
+    public synchronized Map<String, Object> getJsonMap() {
+        if (jsonMap == null && getJsonNode() != null) {
             jsonMap = objectMapper.convertValue(jsonNode, mapReference);
         }
 
@@ -69,13 +121,77 @@ public final class JsonWrapper {
      * @return JSON
      * @throws JsonProcessingException if the JSON could not be converted
      */
-    public String getJsonText() throws JsonProcessingException {
+    public synchronized String getJsonText() throws JsonProcessingException {
         if (jsonText == null) {
-            Object from = jsonNode == null ? jsonMap : jsonNode;
+            Object from = jsonNode == null && jsonMap != null ? jsonMap : getJsonNode();
             jsonText = objectMapper.writeValueAsString(from);
         }
 
         return jsonText;
     }
 
+    /**
+     * Reads the value of a JSON path. If the wrapper holds a {@link JsonNode}, the path is evaluated on the node and
+     * only the resulting object or array will be converted to a Map or List. The value is memorized, so that any
+     * following read of the same path returns the very same value.
+     *
+     * @param jsonPath compiled JSON path
+     * @return its value or null
+     */
+    @Nullable
+    public Object read(JsonPath jsonPath) {
+        Object value = resolvedValues.get(jsonPath);
+
+        if (value == null) {
+            value = evaluate(jsonPath);
+
+            // Concurrent readers agree on the first value
+            Object previous = resolvedValues.putIfAbsent(jsonPath, value == null ? NULL : value);
+            value = previous != null ? previous : value;
+        }
+
+        return value == NULL ? null : value;
+    }
+
+    /**
+     * Evaluates a JSON path on the view the wrapper was created with.
+     *
+     * @param jsonPath compiled JSON path
+     * @return its value or null
+     */
+    @Nullable
+    private Object evaluate(JsonPath jsonPath) {
+        Map<String, Object> jsonMap;
+
+        synchronized (this) {
+            jsonMap = jsonNode == null ? this.jsonMap : null;
+        }
+
+        if (jsonMap != null) {
+            return jsonPath.read(jsonMap, JsonPathCompiler.CONFIGURATION);
+        }
+
+        Object value = jsonPath.read(getJsonNode(), nodeConfiguration);
+
+        if (value instanceof JsonNode) {
+            // Objects, arrays and exotic values are not unwrapped by the JSON provider
+            return objectMapper.convertValue(value, Object.class);
+        }
+
+        return value;
+    }
+
+    /**
+     * Parses the complete JSON source.
+     *
+     * @return JSON
+     */
+    private JsonNode readSource() {
+        try (JsonParser parser = jsonSource.createParser(objectMapper.getFactory())) {
+            return objectMapper.readTree(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
 }
@@ -1,29 +1,48 @@
 package com.github.jazzschmidt.spring.jsonvalidation;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.Configuration;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
- * Pending feature
+ * Creates {@link JsonWrapper}s that share a single {@link ObjectMapper} and JSON path configuration.
  */
 @Component
 public class JsonWrapperFactory {
 
     private final ObjectMapper objectMapper;
+    private final Configuration nodeConfiguration;
 
     public JsonWrapperFactory(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
+        this.nodeConfiguration = JsonPathCompiler.nodeConfiguration(objectMapper);
     }
 
     public JsonWrapper wrap(JsonNode jsonNode) {
-        return new JsonWrapper(objectMapper, jsonNode);
+        return new JsonWrapper(objectMapper, nodeConfiguration, jsonNode);
     }
 
     public JsonWrapper wrap(Map<String, Object> jsonMap) {
         return new JsonWrapper(objectMapper, jsonMap);
     }
 
+    /**
+     * Wraps a JSON source with the values of the JSON paths the reader extracts from a single pass over its content.
+     *
+     * @param jsonSource JSON source
+     * @param reader     streaming reader of the JSON paths
+     * @return JSON
+     * @throws IOException if the JSON source could not be parsed
+     */
+    JsonWrapper wrap(JsonSource jsonSource, StreamingJsonReader reader) throws IOException {
+        try (JsonParser parser = jsonSource.createParser(objectMapper.getFactory())) {
+            return new JsonWrapper(objectMapper, nodeConfiguration, jsonSource, reader.read(parser, objectMapper));
+        }
+    }
+
 }
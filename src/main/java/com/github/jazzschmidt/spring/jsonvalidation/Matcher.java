@@ -1,5 +1,8 @@
 package com.github.jazzschmidt.spring.jsonvalidation;
 
+import java.util.Collection;
+import java.util.Collections;
+
 /**
  * Matches JSON content. Derivatives of this class must provide the type of their definition in order to be accountant
  * for that {@link JsonMatcher}.
@@ -25,6 +28,17 @@ abstract public class Matcher<DefinitionType> extends RuleSetComponent {
      */
     abstract protected boolean matches(DefinitionType definition, JsonWrapper json);
 
+    /**
+     * Returns the JSON paths that will be read when matching with the configuration of the {@code definition} object.
+     * They are compiled once when a {@link RuleSet} is added to the {@link RuleSetValidator}.
+     *
+     * @param definition configuration of this match
+     * @return JSON paths
+     */
+    protected Collection<String> jsonPaths(DefinitionType definition) {
+        return Collections.emptyList();
+    }
+
     /**
      * Matches an untyped object. Internal library method.
      *
@@ -2,6 +2,9 @@ package com.github.jazzschmidt.spring.jsonvalidation;
 
 import org.springframework.lang.NonNull;
 
+import java.util.Collection;
+import java.util.Collections;
+
 /**
  * Combines a {@link Matcher} and {@link Validator} in a single class for coveinience.
  *
@@ -54,6 +57,43 @@ abstract public class NativeRuleSetComponent<DefinitionType> extends RuleSetComp
     @NonNull
     protected abstract RuleValidationException validationException(DefinitionType definition, JsonWrapper json);
 
+    /**
+     * Returns the JSON paths that will be read with the configuration of the {@code definition} object. They are
+     * compiled once when a {@link RuleSet} is added to the {@link RuleSetValidator}.
+     *
+     * @param definition configuration of the match or validation
+     * @return JSON paths
+     */
+    protected Collection<String> jsonPaths(DefinitionType definition) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Binds the definition to a predicate that evaluates exactly like {@link #matches(Object, JsonWrapper)}, that is
+     * used instead of the matcher and validator by default. Components may override this method to resolve their
+     * configuration once per definition, e.g. to compile JSON paths. It is not used for subclasses that override
+     * {@link #matches(Object, JsonWrapper)} again.
+     *
+     * @param definition configuration of the match or validation
+     * @return predicate
+     */
+    protected JsonPredicate bind(DefinitionType definition) {
+        return json -> matches(definition, json);
+    }
+
+    /**
+     * Compiles the definition into a predicate equivalent to {@link #matches(Object, JsonWrapper)}, that is used
+     * instead of the matcher and validator when predicate compilation is enabled in the {@link RuleSetValidator}.
+     * Components may override this method to resolve their configuration once, e.g. to compile JSON paths and to fold
+     * constant values into the predicate.
+     *
+     * @param definition configuration of the match or validation
+     * @return predicate
+     */
+    protected JsonPredicate compile(DefinitionType definition) {
+        return json -> matches(definition, json);
+    }
+
     /**
      * Throws the {@link RuleValidationException} from {@link #validationException(Object, JsonWrapper)} if the match
      * fails with the given definition.
@@ -79,10 +119,24 @@ abstract public class NativeRuleSetComponent<DefinitionType> extends RuleSetComp
             this.delegate = delegate;
         }
 
+        /**
+         * Returns the component this matcher delegates to
+         *
+         * @return native component
+         */
+        public NativeRuleSetComponent<DefinitionType> getComponent() {
+            return delegate;
+        }
+
         @Override
         protected boolean matches(DefinitionType definition, JsonWrapper json) {
             return delegate.matches(definition, json);
         }
+
+        @Override
+        protected Collection<String> jsonPaths(DefinitionType definition) {
+            return delegate.jsonPaths(definition);
+        }
     }
 
     /**
@@ -96,10 +150,24 @@ abstract public class NativeRuleSetComponent<DefinitionType> extends RuleSetComp
             this.delegate = delegate;
         }
 
+        /**
+         * Returns the component this validator delegates to
+         *
+         * @return native component
+         */
+        public NativeRuleSetComponent<DefinitionType> getComponent() {
+            return delegate;
+        }
+
         @Override
         protected void apply(DefinitionType definition, JsonWrapper json) throws RuleValidationException {
             delegate.apply(definition, json);
         }
+
+        @Override
+        protected Collection<String> jsonPaths(DefinitionType definition) {
+            return delegate.jsonPaths(definition);
+        }
     }
 
 }
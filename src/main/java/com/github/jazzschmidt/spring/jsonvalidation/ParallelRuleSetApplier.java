@@ -0,0 +1,97 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Applies matching {@link CompiledRuleSet}s concurrently on an {@link Executor}. As soon as one rule set fails, all
+ * rule sets registered after it that did not start yet are skipped and running ones stop before their next validator.
+ * Rule sets registered before it still complete, so that the reported failure is the first one in registration order,
+ * just as in a sequential validation. Fewer rule sets than the threshold are applied sequentially on the calling
+ * thread.
+ */
+final class ParallelRuleSetApplier {
+
+    private final Executor executor;
+    private final int threshold;
+
+    ParallelRuleSetApplier(Executor executor, int threshold) {
+        this.executor = executor;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Applies all rule sets to the JSON.
+     *
+     * @param ruleSets matching rule sets in registration order
+     * @param json     JSON
+     * @param metrics  metrics of the validators
+     * @throws RuleValidationException of the first rule set in registration order that failed
+     */
+    void apply(List<CompiledRuleSet> ruleSets, JsonWrapper json, ValidationMetrics metrics)
+            throws RuleValidationException {
+        if (ruleSets.size() < threshold) {
+            for (CompiledRuleSet ruleSet : ruleSets) {
+                ruleSet.apply(json, () -> false, metrics);
+            }
+            return;
+        }
+
+        AtomicInteger failedIndex = new AtomicInteger(Integer.MAX_VALUE);
+        Exception[] failures = new Exception[ruleSets.size()];
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[ruleSets.size() - 1];
+
+        for (int i = 0; i < tasks.length; i++) {
+            int index = i + 1;
+            tasks[i] = CompletableFuture.runAsync(
+                    () -> apply(ruleSets.get(index), index, json, metrics, failedIndex, failures), executor);
+        }
+
+        // The calling thread takes its share of the work instead of waiting idle
+        apply(ruleSets.get(0), 0, json, metrics, failedIndex, failures);
+
+        try {
+            CompletableFuture.allOf(tasks).join();
+        } catch (CompletionException e) {
+            failedIndex.set(-1);
+
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+
+        int index = failedIndex.get();
+
+        if (index == Integer.MAX_VALUE) {
+            return;
+        }
+
+        if (failures[index] instanceof RuleValidationException) {
+            throw (RuleValidationException) failures[index];
+        }
+
+        throw (RuntimeException) failures[index];
+    }
+
+    private static void apply(CompiledRuleSet ruleSet, int index, JsonWrapper json, ValidationMetrics metrics,
+                              AtomicInteger failedIndex, Exception[] failures) {
+        // Only the failure of a rule set registered earlier makes the outcome of this one irrelevant
+        BooleanSupplier cancelled = () -> failedIndex.get() < index;
+
+        if (cancelled.getAsBoolean()) {
+            return;
+        }
+
+        try {
+            ruleSet.apply(json, cancelled, metrics);
+        } catch (RuleValidationException | RuntimeException e) {
+            failures[index] = e;
+            failedIndex.accumulateAndGet(index, Math::min);
+        }
+    }
+}
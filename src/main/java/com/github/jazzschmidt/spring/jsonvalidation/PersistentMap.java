@@ -0,0 +1,394 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Immutable hash map, whose modifications return a new map sharing all but the changed path of its hash array mapped
+ * trie with the original map. Putting and removing a key thus costs a few small array copies instead of a copy of the
+ * whole map, so that the snapshots of a {@link RuleSetCatalog} can be derived from each other cheaply. Keys are
+ * compared by their equality; neither keys nor values may be null.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+final class PersistentMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(Node.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map
+     *
+     * @param <K> type of the keys
+     * @param <V> type of the values
+     * @return empty map
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Returns the number of entries
+     *
+     * @return size
+     */
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value of a key
+     *
+     * @param key key
+     * @return value or null if the key is not present
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    V get(Object key) {
+        Entry entry = root.find(hash(key), key, 0);
+        return entry != null ? (V) entry.value : null;
+    }
+
+    boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Returns a map with the value of a key replaced or added.
+     *
+     * @param key   key
+     * @param value value
+     * @return new map
+     */
+    PersistentMap<K, V> put(K key, V value) {
+        Entry entry = new Entry(hash(key), Objects.requireNonNull(key), Objects.requireNonNull(value));
+        boolean[] added = new boolean[1];
+        Node root = this.root.put(entry, 0, added);
+
+        return new PersistentMap<>(root, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Returns a map without a key.
+     *
+     * @param key key
+     * @return new map or this map if the key is not present
+     */
+    PersistentMap<K, V> remove(Object key) {
+        Node root = this.root.remove(hash(key), key, 0);
+        return root == this.root ? this : new PersistentMap<>(root, size - 1);
+    }
+
+    /**
+     * Passes all entries in no particular order to the action.
+     *
+     * @param action action
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        root.forEach(entry -> action.accept((K) entry.key, (V) entry.value));
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * Entry or entries of equal hashes, that is stored in a slot of a {@link Node}
+     */
+    private abstract static class Leaf {
+        final int hash;
+
+        Leaf(int hash) {
+            this.hash = hash;
+        }
+
+        @Nullable
+        abstract Entry find(Object key);
+
+        /**
+         * Returns a leaf with an entry of the same hash replaced or added.
+         */
+        abstract Leaf put(Entry entry, boolean[] added);
+
+        /**
+         * Returns a leaf without a key, null if it gets empty, or this leaf if the key is not present.
+         */
+        @Nullable
+        abstract Leaf remove(Object key);
+
+        abstract void forEach(Consumer<Entry> action);
+    }
+
+    private static final class Entry extends Leaf {
+        final Object key;
+        final Object value;
+
+        Entry(int hash, Object key, Object value) {
+            super(hash);
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        Entry find(Object key) {
+            return this.key.equals(key) ? this : null;
+        }
+
+        @Override
+        Leaf put(Entry entry, boolean[] added) {
+            if (key.equals(entry.key)) {
+                return entry;
+            }
+
+            added[0] = true;
+            return new Collision(hash, new Entry[]{this, entry});
+        }
+
+        @Override
+        Leaf remove(Object key) {
+            return this.key.equals(key) ? null : this;
+        }
+
+        @Override
+        void forEach(Consumer<Entry> action) {
+            action.accept(this);
+        }
+    }
+
+    /**
+     * Entries of distinct keys with equal hashes
+     */
+    private static final class Collision extends Leaf {
+        final Entry[] entries;
+
+        Collision(int hash, Entry[] entries) {
+            super(hash);
+            this.entries = entries;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].key.equals(key)) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        @Override
+        Entry find(Object key) {
+            int index = indexOf(key);
+            return index < 0 ? null : entries[index];
+        }
+
+        @Override
+        Leaf put(Entry entry, boolean[] added) {
+            int index = indexOf(entry.key);
+            Entry[] entries;
+
+            if (index < 0) {
+                added[0] = true;
+                entries = Arrays.copyOf(this.entries, this.entries.length + 1);
+                entries[this.entries.length] = entry;
+            } else {
+                entries = this.entries.clone();
+                entries[index] = entry;
+            }
+
+            return new Collision(hash, entries);
+        }
+
+        @Override
+        Leaf remove(Object key) {
+            int index = indexOf(key);
+
+            if (index < 0) {
+                return this;
+            }
+
+            if (entries.length == 2) {
+                return entries[1 - index];
+            }
+
+            Entry[] entries = new Entry[this.entries.length - 1];
+            System.arraycopy(this.entries, 0, entries, 0, index);
+            System.arraycopy(this.entries, index + 1, entries, index, entries.length - index);
+
+            return new Collision(hash, entries);
+        }
+
+        @Override
+        void forEach(Consumer<Entry> action) {
+            for (Entry entry : entries) {
+                action.accept(entry);
+            }
+        }
+    }
+
+    /**
+     * Node of the trie, whose slots hold either a {@link Leaf} or a child node. Only the slots present in the bitmap
+     * are allocated.
+     */
+    private static final class Node {
+        static final Node EMPTY = new Node(0, new Object[0]);
+
+        final int bitmap;
+        final Object[] slots;
+
+        Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Nullable
+        Entry find(int hash, Object key, int shift) {
+            int bit = bit(hash, shift);
+
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+
+            Object slot = slots[index(bit)];
+
+            if (slot instanceof Node) {
+                return ((Node) slot).find(hash, key, shift + BITS);
+            }
+
+            Leaf leaf = (Leaf) slot;
+            return leaf.hash == hash ? leaf.find(key) : null;
+        }
+
+        Node put(Entry entry, int shift, boolean[] added) {
+            int bit = bit(entry.hash, shift);
+            int index = index(bit);
+
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+
+                Object[] slots = new Object[this.slots.length + 1];
+                System.arraycopy(this.slots, 0, slots, 0, index);
+                slots[index] = entry;
+                System.arraycopy(this.slots, index, slots, index + 1, this.slots.length - index);
+
+                return new Node(bitmap | bit, slots);
+            }
+
+            Object slot = this.slots[index];
+            Object replaced;
+
+            if (slot instanceof Node) {
+                replaced = ((Node) slot).put(entry, shift + BITS, added);
+            } else if (((Leaf) slot).hash == entry.hash) {
+                replaced = ((Leaf) slot).put(entry, added);
+            } else {
+                added[0] = true;
+                replaced = merge((Leaf) slot, entry, shift + BITS);
+            }
+
+            Object[] slots = this.slots.clone();
+            slots[index] = replaced;
+
+            return new Node(bitmap, slots);
+        }
+
+        /**
+         * Creates the node holding two leaves of distinct hashes
+         */
+        private static Node merge(Leaf first, Leaf second, int shift) {
+            int firstBit = bit(first.hash, shift);
+            int secondBit = bit(second.hash, shift);
+
+            if (firstBit == secondBit) {
+                return new Node(firstBit, new Object[]{merge(first, second, shift + BITS)});
+            }
+
+            Object[] slots = firstBit < secondBit ? new Object[]{first, second} : new Object[]{second, first};
+            return new Node(firstBit | secondBit, slots);
+        }
+
+        Node remove(int hash, Object key, int shift) {
+            int bit = bit(hash, shift);
+
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+
+            int index = index(bit);
+            Object slot = slots[index];
+            Object replaced;
+
+            if (slot instanceof Node) {
+                Node child = ((Node) slot).remove(hash, key, shift + BITS);
+
+                if (child == slot) {
+                    return this;
+                }
+
+                // A single remaining leaf moves up, so that the trie stays as shallow as possible
+                boolean single = child.slots.length == 1 && !(child.slots[0] instanceof Node);
+                replaced = child.slots.length == 0 ? null : single ? child.slots[0] : child;
+            } else {
+                Leaf leaf = (Leaf) slot;
+                replaced = leaf.hash == hash ? leaf.remove(key) : leaf;
+
+                if (replaced == leaf) {
+                    return this;
+                }
+            }
+
+            if (replaced == null) {
+                Object[] slots = new Object[this.slots.length - 1];
+                System.arraycopy(this.slots, 0, slots, 0, index);
+                System.arraycopy(this.slots, index + 1, slots, index, slots.length - index);
+
+                return new Node(bitmap & ~bit, slots);
+            }
+
+            Object[] slots = this.slots.clone();
+            slots[index] = replaced;
+
+            return new Node(bitmap, slots);
+        }
+
+        void forEach(Consumer<Entry> action) {
+            for (Object slot : slots) {
+                if (slot instanceof Node) {
+                    ((Node) slot).forEach(action);
+                } else {
+                    ((Leaf) slot).forEach(action);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import com.jayway.jsonpath.JsonPath;
+import org.springframework.lang.Nullable;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of all {@link RuleSet}s of the {@link RuleSetValidator} along with their derived indexes. Every
+ * change of the rule sets creates a new catalog with an incremented version, so that a validation always sees a
+ * consistent state.
+ * <p>
+ * A new catalog shares its structures with the previous one, so that adding or removing a single rule set does not
+ * copy all rule sets. The streaming reader is only rebuilt if the set of JSON paths read by the rule sets changes.
+ * </p>
+ */
+public final class RuleSetCatalog {
+
+    private final long version;
+
+    /**
+     * Compiled rule sets
+     */
+    private final PersistentMap<RuleSet, CompiledRuleSet> ruleSets;
+
+    private final RuleSetIndex index;
+
+    /**
+     * Number of rule sets reading a JSON path
+     */
+    private final PersistentMap<JsonPath, Integer> jsonPathUsages;
+
+    /**
+     * Streaming reader of all JSON paths of the rule sets
+     */
+    private final StreamingJsonReader streamingReader;
+
+    /**
+     * Rule sets in order of their registration, that are sorted once requested
+     */
+    private volatile List<RuleSet> orderedRuleSets;
+
+    RuleSetCatalog() {
+        this(0, PersistentMap.empty(), new RuleSetIndex(), PersistentMap.empty(),
+                new StreamingJsonReader(Collections.emptyList()));
+    }
+
+    private RuleSetCatalog(long version, PersistentMap<RuleSet, CompiledRuleSet> ruleSets, RuleSetIndex index,
+                           PersistentMap<JsonPath, Integer> jsonPathUsages, StreamingJsonReader streamingReader) {
+        this.version = version;
+        this.ruleSets = ruleSets;
+        this.index = index;
+        this.jsonPathUsages = jsonPathUsages;
+        this.streamingReader = streamingReader;
+    }
+
+    /**
+     * Returns the version of this catalog, that is incremented with every change
+     *
+     * @return version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns all {@link RuleSet}s in order of their registration. A rule set that was added again counts as
+     * registered anew.
+     *
+     * @return rule sets
+     */
+    public List<RuleSet> getRuleSets() {
+        List<RuleSet> ordered = orderedRuleSets;
+
+        if (ordered == null) {
+            List<CompiledRuleSet> compiled = new ArrayList<>(ruleSets.size());
+            ruleSets.forEach((ruleSet, compiledRuleSet) -> compiled.add(compiledRuleSet));
+            compiled.sort(Comparator.comparingLong(CompiledRuleSet::getOrdinal));
+
+            ordered = compiled.stream().map(CompiledRuleSet::getRuleSet).collect(Collectors.toUnmodifiableList());
+            orderedRuleSets = ordered;
+        }
+
+        return ordered;
+    }
+
+    /**
+     * Checks if the {@link RuleSet} is part of this catalog
+     *
+     * @param ruleSet rule set
+     * @return true if the rule set is registered
+     */
+    public boolean contains(RuleSet ruleSet) {
+        return ruleSets.containsKey(ruleSet);
+    }
+
+    /**
+     * Returns the number of {@link RuleSet}s
+     *
+     * @return number of rule sets
+     */
+    public int size() {
+        return ruleSets.size();
+    }
+
+    /**
+     * Returns the compiled form of a registered {@link RuleSet}
+     *
+     * @param ruleSet rule set
+     * @return compiled rule set or null if not registered
+     */
+    @Nullable
+    CompiledRuleSet getCompiled(RuleSet ruleSet) {
+        return ruleSets.get(ruleSet);
+    }
+
+    RuleSetIndex getIndex() {
+        return index;
+    }
+
+    StreamingJsonReader getStreamingReader() {
+        return streamingReader;
+    }
+
+    /**
+     * Creates the next version of this catalog without the removed and with the added rule sets. Added rule sets
+     * replace registered ones.
+     *
+     * @param removed rule sets to be removed
+     * @param added   compiled rule sets to be added
+     * @return new catalog
+     */
+    RuleSetCatalog update(Collection<RuleSet> removed, Collection<CompiledRuleSet> added) {
+        Update update = new Update();
+
+        for (RuleSet ruleSet : removed) {
+            CompiledRuleSet compiled = update.ruleSets.get(ruleSet);
+
+            if (compiled != null) {
+                update.ruleSets = update.ruleSets.remove(ruleSet);
+                update.drop(compiled);
+            }
+        }
+
+        for (CompiledRuleSet compiled : added) {
+            CompiledRuleSet previous = update.ruleSets.get(compiled.getRuleSet());
+            update.ruleSets = update.ruleSets.put(compiled.getRuleSet(), compiled);
+
+            if (previous != null) {
+                update.drop(previous);
+            }
+
+            update.add(compiled);
+        }
+
+        return update.publish();
+    }
+
+    /**
+     * Changes of the structures of this catalog while deriving the next version
+     */
+    private final class Update {
+        private PersistentMap<RuleSet, CompiledRuleSet> ruleSets = RuleSetCatalog.this.ruleSets;
+        private RuleSetIndex index = RuleSetCatalog.this.index;
+        private PersistentMap<JsonPath, Integer> jsonPathUsages = RuleSetCatalog.this.jsonPathUsages;
+        private boolean jsonPathsChanged;
+
+        private void add(CompiledRuleSet ruleSet) {
+            index = index.add(ruleSet);
+
+            for (JsonPath path : ruleSet.getJsonPaths()) {
+                Integer usages = jsonPathUsages.get(path);
+                jsonPathUsages = jsonPathUsages.put(path, usages == null ? 1 : usages + 1);
+                jsonPathsChanged |= usages == null;
+            }
+        }
+
+        /**
+         * Removes a rule set from the index and decrements the usages of its JSON paths.
+         *
+         * @param ruleSet removed rule set
+         */
+        private void drop(CompiledRuleSet ruleSet) {
+            index = index.remove(ruleSet);
+
+            for (JsonPath path : ruleSet.getJsonPaths()) {
+                Integer usages = jsonPathUsages.get(path);
+
+                if (usages == null) {
+                    continue;
+                }
+
+                jsonPathUsages = usages == 1 ? jsonPathUsages.remove(path) : jsonPathUsages.put(path, usages - 1);
+                jsonPathsChanged |= usages == 1;
+            }
+        }
+
+        private RuleSetCatalog publish() {
+            StreamingJsonReader reader = streamingReader;
+
+            if (jsonPathsChanged) {
+                List<JsonPath> jsonPaths = new ArrayList<>(jsonPathUsages.size());
+                jsonPathUsages.forEach((path, usages) -> jsonPaths.add(path));
+                reader = new StreamingJsonReader(jsonPaths);
+            }
+
+            return new RuleSetCatalog(version + 1, ruleSets, index, jsonPathUsages, reader);
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package com.github.jazzschmidt.spring.jsonvalidation;
 
-import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.Option;
 import org.springframework.lang.Nullable;
 
 /**
@@ -11,7 +9,8 @@ import org.springframework.lang.Nullable;
 abstract public class RuleSetComponent {
 
     /**
-     * Retrieve a value from the given JSON that can be nullable.
+     * Retrieve a value from the given JSON that can be nullable. The JSON path will only be compiled on its first
+     * use.
      *
      * @param jsonPath JSON path
      * @param json     JSON
@@ -19,9 +18,28 @@ abstract public class RuleSetComponent {
      */
     @Nullable
     protected Object readJsonPath(String jsonPath, JsonWrapper json) {
-        Configuration config = Configuration.defaultConfiguration().
-                setOptions(Option.SUPPRESS_EXCEPTIONS);
+        return readJsonPath(compileJsonPath(jsonPath), json);
+    }
 
-        return JsonPath.using(config).parse(json.getJsonMap()).read(jsonPath);
+    /**
+     * Retrieve a value from the given JSON that can be nullable.
+     *
+     * @param jsonPath compiled JSON path
+     * @param json     JSON
+     * @return its value or null
+     */
+    @Nullable
+    protected Object readJsonPath(JsonPath jsonPath, JsonWrapper json) {
+        return json.read(jsonPath);
+    }
+
+    /**
+     * Returns the compiled JSON path, that is shared between all components.
+     *
+     * @param jsonPath JSON path
+     * @return compiled JSON path
+     */
+    protected static JsonPath compileJsonPath(String jsonPath) {
+        return JsonPathCompiler.compile(jsonPath);
     }
 }
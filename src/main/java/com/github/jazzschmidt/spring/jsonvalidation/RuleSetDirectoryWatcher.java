@@ -0,0 +1,351 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Loads {@link RuleSet}s from the JSON files of a directory and keeps the {@link RuleSetValidator} in sync with them.
+ * Every file holds a single rule set. Changes are collected until the directory is quiet for a moment and then applied
+ * in a single update of the validator; files whose content did not change are neither read again into a rule set nor
+ * recompiled. A file that cannot be read, deserialized or compiled keeps its previous rule set.
+ * <p>
+ * Rule set names are unique across the files: a file whose rule set has the name of the rule set of another file is
+ * rejected and provides no rule set until the name is free again. A name stays with the file that holds it.
+ * </p>
+ */
+public class RuleSetDirectoryWatcher implements Closeable {
+
+    private static final Log logger = LogFactory.getLog(RuleSetDirectoryWatcher.class);
+
+    /**
+     * Time to wait for further changes before the collected changes are applied
+     */
+    private static final long QUIET_PERIOD_MILLIS = 200;
+
+    private final Path directory;
+    private final RuleSetValidator validator;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Rule sets by the file they were loaded from
+     */
+    private final Map<Path, LoadedFile> files = new HashMap<>();
+
+    /**
+     * Files that were rejected for the name of their rule set, which are reloaded along with every change
+     */
+    private final Set<Path> conflicting = new HashSet<>();
+
+    private WatchService watchService;
+    private Thread thread;
+
+    /**
+     * Creates a watcher of a directory
+     *
+     * @param directory    directory of the rule set files
+     * @param validator    validator the rule sets are attached to
+     * @param objectMapper mapper with the {@link RuleSetDeserializer}
+     */
+    public RuleSetDirectoryWatcher(Path directory, RuleSetValidator validator, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Loads all rule sets of the directory and starts watching it for changes.
+     *
+     * @throws IOException if the directory cannot be watched
+     */
+    public synchronized void start() throws IOException {
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        scan();
+
+        thread = new Thread(this::watch, "jsonvalidation-rule-set-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the directory. The loaded rule sets stay attached to the validator.
+     *
+     * @throws IOException if the watch service could not be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (thread != null) {
+            thread.interrupt();
+        }
+
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Reloads all files of the directory as well as all files that were loaded before.
+     */
+    synchronized void scan() {
+        Set<Path> paths = new HashSet<>(files.keySet());
+
+        try (Stream<Path> list = Files.list(directory)) {
+            paths.addAll(list.collect(Collectors.toList()));
+        } catch (IOException e) {
+            logger.warn("Could not list rule set directory " + directory, e);
+            return;
+        }
+
+        reload(paths);
+    }
+
+    /**
+     * Reloads the given files and applies the changed rule sets to the validator in a single update. If the update
+     * fails, e.g. since a rule set cannot be compiled, the files are applied one by one, so that a single bad file does
+     * not hold back the others.
+     *
+     * @param paths changed files
+     */
+    synchronized void reload(Collection<Path> paths) {
+        // Reloaded files, whose rule set is null if the file was removed
+        Map<Path, LoadedFile> changed = new HashMap<>();
+
+        // Rejected files may be accepted once another file freed the name
+        Set<Path> reloaded = new HashSet<>(paths);
+        reloaded.addAll(conflicting);
+        conflicting.clear();
+
+        for (Path path : reloaded) {
+            LoadedFile previous = files.get(path);
+
+            if (!isRuleSetFile(path)) {
+                if (previous != null) {
+                    changed.put(path, null);
+                }
+                continue;
+            }
+
+            LoadedFile loaded = load(path, previous);
+
+            if (loaded != previous) {
+                changed.put(path, loaded);
+            }
+        }
+
+        rejectDuplicateNames(changed);
+
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        try {
+            apply(changed);
+        } catch (RuntimeException e) {
+            changed.forEach((path, loaded) -> {
+                try {
+                    apply(Collections.singletonMap(path, loaded));
+                } catch (RuntimeException fileException) {
+                    logger.warn("Could not apply rule set file " + path, fileException);
+                }
+            });
+        }
+    }
+
+    /**
+     * Rejects the reloaded files whose rule set has the same name as the rule set of another file. Names are kept by
+     * the files that are unchanged or whose rule set keeps its name, then assigned to the other files in the order of
+     * their paths. A rejected file loses its previous rule set.
+     *
+     * @param changed reloaded files, whose rule set is null if the file was removed
+     */
+    private void rejectDuplicateNames(Map<Path, LoadedFile> changed) {
+        Map<String, Path> owners = new HashMap<>();
+
+        files.forEach((path, loaded) -> {
+            if (!changed.containsKey(path)) {
+                owners.put(loaded.getName(), path);
+            }
+        });
+
+        List<Path> claims = changed.entrySet().stream()
+                .filter(entry -> entry.getValue() != null)
+                .map(Map.Entry::getKey)
+                .sorted(Comparator.comparing((Path path) -> !keepsName(path, changed.get(path)))
+                        .thenComparing(Comparator.naturalOrder()))
+                .collect(Collectors.toList());
+
+        for (Path path : claims) {
+            String name = changed.get(path).getName();
+            Path owner = owners.putIfAbsent(name, path);
+
+            if (owner != null) {
+                logger.warn("Rejected rule set file " + path + ", as its rule set " + name
+                        + " is already loaded from " + owner);
+
+                conflicting.add(path);
+
+                if (files.containsKey(path)) {
+                    changed.put(path, null);
+                } else {
+                    changed.remove(path);
+                }
+            }
+        }
+    }
+
+    private boolean keepsName(Path path, LoadedFile loaded) {
+        LoadedFile previous = files.get(path);
+        return previous != null && previous.getName().equals(loaded.getName());
+    }
+
+    /**
+     * Replaces the rule sets of the files in a single update of the validator.
+     *
+     * @param changed reloaded files, whose rule set is null if the file was removed
+     */
+    private void apply(Map<Path, LoadedFile> changed) {
+        List<RuleSet> removed = new ArrayList<>();
+        List<RuleSet> added = new ArrayList<>();
+
+        changed.forEach((path, loaded) -> {
+            LoadedFile previous = files.get(path);
+
+            if (previous != null) {
+                removed.add(previous.ruleSet);
+            }
+
+            if (loaded != null) {
+                added.add(loaded.ruleSet);
+            }
+        });
+
+        validator.update(removed, added);
+
+        changed.forEach((path, loaded) -> {
+            if (loaded == null) {
+                files.remove(path);
+            } else {
+                files.put(path, loaded);
+            }
+        });
+    }
+
+    /**
+     * Loads the rule set of a file, unless its content did not change.
+     *
+     * @param path     file
+     * @param previous rule set previously loaded from the file or null
+     * @return loaded rule set or the previous one if it is unchanged or the file cannot be read
+     */
+    private LoadedFile load(Path path, LoadedFile previous) {
+        try {
+            byte[] content = Files.readAllBytes(path);
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+
+            if (previous != null && Arrays.equals(previous.hash, hash)) {
+                return previous;
+            }
+
+            return new LoadedFile(objectMapper.readValue(content, RuleSet.class), hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException | RuntimeException e) {
+            // e.g. unknown components or missing definitions
+            logger.warn("Could not load rule set file " + path, e);
+            return previous;
+        }
+    }
+
+    private static boolean isRuleSetFile(Path path) {
+        return path.getFileName().toString().endsWith(".json") && Files.isRegularFile(path);
+    }
+
+    /**
+     * Collects the changed files of the directory and reloads them until watching is stopped.
+     */
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    if (!awaitChanges()) {
+                        return;
+                    }
+                } catch (ClosedWatchServiceException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    // Keeps watching, a later change may fix the files
+                    logger.error("Could not reload rule set directory " + directory, e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watching was stopped
+        }
+    }
+
+    /**
+     * Waits for changes of the directory, collects them until it is quiet and reloads the changed files.
+     *
+     * @return false if the directory can no longer be watched
+     * @throws InterruptedException if watching was stopped
+     */
+    private boolean awaitChanges() throws InterruptedException {
+        WatchKey key = watchService.take();
+        Set<Path> changed = new HashSet<>();
+        boolean overflow = false;
+
+        while (key != null) {
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    overflow = true;
+                } else {
+                    changed.add(directory.resolve((Path) event.context()));
+                }
+            }
+
+            if (!key.reset()) {
+                logger.warn("Rule set directory " + directory + " is no longer accessible");
+                return false;
+            }
+
+            key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        if (overflow) {
+            scan();
+        } else {
+            reload(changed);
+        }
+
+        return true;
+    }
+
+    /**
+     * Rule set loaded from a file along with the hash of the file content
+     */
+    private static final class LoadedFile {
+        private final RuleSet ruleSet;
+        private final byte[] hash;
+
+        private LoadedFile(RuleSet ruleSet, byte[] hash) {
+            this.ruleSet = ruleSet;
+            this.hash = hash;
+        }
+
+        private String getName() {
+            return String.valueOf(ruleSet.getName());
+        }
+    }
+}
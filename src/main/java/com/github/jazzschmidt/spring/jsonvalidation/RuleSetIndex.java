@@ -0,0 +1,232 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldEquals;
+import com.jayway.jsonpath.JsonPath;
+
+import java.util.*;
+
+/**
+ * Index of {@link CompiledRuleSet}s by the JSON path and value of their discriminating {@link FieldEquals} matcher.
+ * Every indexed path is read once per document and only the rule sets registered for the value found in the document
+ * are selected, along with every rule set that has no discriminator. Values are keyed by their {@link
+ * JsonValues#canonical(Object) canonical form}, so that numbers of different types select the same rule sets.
+ * <p>
+ * An index is immutable. Adding or removing a rule set derives a new index, that shares the buckets of all other
+ * values with this one; only the paths, the bucket of the value and the rule sets without discriminator are copied,
+ * which every validation reads anyway.
+ * </p>
+ */
+final class RuleSetIndex {
+
+    private static final Comparator<CompiledRuleSet> REGISTRATION_ORDER =
+            Comparator.comparingLong(CompiledRuleSet::getOrdinal);
+
+    private static final CompiledRuleSet[] NONE = new CompiledRuleSet[0];
+
+    /**
+     * Discriminated rule sets by their JSON path
+     */
+    private final PathIndex[] paths;
+
+    /**
+     * Rule sets without discriminator in order of their registration
+     */
+    private final CompiledRuleSet[] unindexed;
+
+    RuleSetIndex() {
+        this(new PathIndex[0], NONE);
+    }
+
+    private RuleSetIndex(PathIndex[] paths, CompiledRuleSet[] unindexed) {
+        this.paths = paths;
+        this.unindexed = unindexed;
+    }
+
+    /**
+     * Derives an index with a rule set added.
+     *
+     * @param ruleSet compiled rule set
+     * @return new index
+     */
+    RuleSetIndex add(CompiledRuleSet ruleSet) {
+        FieldEquals discriminator = ruleSet.getDiscriminator();
+
+        if (discriminator == null) {
+            return new RuleSetIndex(paths, insert(unindexed, ruleSet));
+        }
+
+        int position = indexOf(discriminator.jsonPath);
+
+        if (position < 0) {
+            PathIndex[] paths = Arrays.copyOf(this.paths, this.paths.length + 1);
+            paths[this.paths.length] = new PathIndex(discriminator.jsonPath).add(ruleSet);
+
+            return new RuleSetIndex(paths, unindexed);
+        }
+
+        PathIndex[] paths = this.paths.clone();
+        paths[position] = paths[position].add(ruleSet);
+
+        return new RuleSetIndex(paths, unindexed);
+    }
+
+    /**
+     * Derives an index with a rule set removed.
+     *
+     * @param ruleSet compiled rule set
+     * @return new index
+     */
+    RuleSetIndex remove(CompiledRuleSet ruleSet) {
+        FieldEquals discriminator = ruleSet.getDiscriminator();
+
+        if (discriminator == null) {
+            return new RuleSetIndex(paths, remove(unindexed, ruleSet));
+        }
+
+        int position = indexOf(discriminator.jsonPath);
+
+        if (position < 0) {
+            return this;
+        }
+
+        PathIndex pathIndex = paths[position].remove(ruleSet);
+
+        if (!pathIndex.buckets.isEmpty()) {
+            PathIndex[] paths = this.paths.clone();
+            paths[position] = pathIndex;
+
+            return new RuleSetIndex(paths, unindexed);
+        }
+
+        PathIndex[] paths = new PathIndex[this.paths.length - 1];
+        System.arraycopy(this.paths, 0, paths, 0, position);
+        System.arraycopy(this.paths, position + 1, paths, position, paths.length - position);
+
+        return new RuleSetIndex(paths, unindexed);
+    }
+
+    /**
+     * Selects the rule sets that might match the given JSON in order of their registration.
+     *
+     * @param json JSON
+     * @return candidate rule sets
+     */
+    List<CompiledRuleSet> candidates(JsonWrapper json) {
+        List<CompiledRuleSet> candidates = new ArrayList<>(Arrays.asList(unindexed));
+        boolean sorted = true;
+
+        for (PathIndex pathIndex : paths) {
+            Object value = json.read(pathIndex.jsonPath);
+
+            // Equality matchers never match missing values
+            CompiledRuleSet[] bucket = value == null ? null : pathIndex.buckets.get(JsonValues.canonical(value));
+
+            if (bucket != null) {
+                sorted &= candidates.isEmpty();
+                Collections.addAll(candidates, bucket);
+            }
+        }
+
+        if (!sorted) {
+            candidates.sort(REGISTRATION_ORDER);
+        }
+
+        return candidates;
+    }
+
+    private int indexOf(String jsonPath) {
+        for (int i = 0; i < paths.length; i++) {
+            if (paths[i].path.equals(jsonPath)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Inserts a rule set into rule sets ordered by their registration.
+     *
+     * @param ruleSets ordered rule sets
+     * @param ruleSet  rule set to insert
+     * @return new rule sets
+     */
+    private static CompiledRuleSet[] insert(CompiledRuleSet[] ruleSets, CompiledRuleSet ruleSet) {
+        int position = ruleSets.length;
+
+        // Rule sets are usually added in order of their registration
+        while (position > 0 && ruleSets[position - 1].getOrdinal() > ruleSet.getOrdinal()) {
+            position--;
+        }
+
+        CompiledRuleSet[] inserted = new CompiledRuleSet[ruleSets.length + 1];
+        System.arraycopy(ruleSets, 0, inserted, 0, position);
+        inserted[position] = ruleSet;
+        System.arraycopy(ruleSets, position, inserted, position + 1, ruleSets.length - position);
+
+        return inserted;
+    }
+
+    /**
+     * Removes a rule set from ordered rule sets.
+     *
+     * @param ruleSets ordered rule sets
+     * @param ruleSet  rule set to remove
+     * @return new rule sets or the same rule sets if the rule set is not present
+     */
+    private static CompiledRuleSet[] remove(CompiledRuleSet[] ruleSets, CompiledRuleSet ruleSet) {
+        for (int i = 0; i < ruleSets.length; i++) {
+            if (ruleSets[i] == ruleSet) {
+                CompiledRuleSet[] removed = new CompiledRuleSet[ruleSets.length - 1];
+                System.arraycopy(ruleSets, 0, removed, 0, i);
+                System.arraycopy(ruleSets, i + 1, removed, i, removed.length - i);
+
+                return removed;
+            }
+        }
+
+        return ruleSets;
+    }
+
+    /**
+     * Rule sets discriminated by the same JSON path, grouped by the value they expect.
+     */
+    private static final class PathIndex {
+        private final String path;
+        private final JsonPath jsonPath;
+        private final PersistentMap<Object, CompiledRuleSet[]> buckets;
+
+        private PathIndex(String path) {
+            this(path, JsonPathCompiler.compile(path), PersistentMap.empty());
+        }
+
+        private PathIndex(String path, JsonPath jsonPath, PersistentMap<Object, CompiledRuleSet[]> buckets) {
+            this.path = path;
+            this.jsonPath = jsonPath;
+            this.buckets = buckets;
+        }
+
+        private PathIndex add(CompiledRuleSet ruleSet) {
+            Object value = JsonValues.canonical(ruleSet.getDiscriminator().value);
+            CompiledRuleSet[] bucket = buckets.get(value);
+
+            return new PathIndex(path, jsonPath, buckets.put(value, insert(bucket != null ? bucket : NONE, ruleSet)));
+        }
+
+        private PathIndex remove(CompiledRuleSet ruleSet) {
+            Object value = JsonValues.canonical(ruleSet.getDiscriminator().value);
+            CompiledRuleSet[] bucket = buckets.get(value);
+
+            if (bucket == null) {
+                return this;
+            }
+
+            CompiledRuleSet[] removed = RuleSetIndex.remove(bucket, ruleSet);
+            PersistentMap<Object, CompiledRuleSet[]> buckets = removed.length == 0
+                    ? this.buckets.remove(value)
+                    : this.buckets.put(value, removed);
+
+            return new PathIndex(path, jsonPath, buckets);
+        }
+    }
+}
@@ -1,33 +1,99 @@
 package com.github.jazzschmidt.spring.jsonvalidation;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldEquals;
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldEqualsComponent;
+import com.jayway.jsonpath.JsonPath;
+import org.springframework.lang.Nullable;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * Validates JSON against all {@link RuleSet}.
+ * Validates JSON against all {@link RuleSet}. The rule sets are held in an immutable {@link RuleSetCatalog}, that is
+ * replaced on every change, so that validations never lock and always see a consistent version of the rule sets.
  */
 public class RuleSetValidator {
-    private final Set<RuleSet> ruleSets = new HashSet<>();
     private final Set<Matcher<?>> matchers = new HashSet<>();
     private final Set<Validator<?>> validators = new HashSet<>();
+    private final JsonWrapperFactory wrapperFactory;
+
+    /**
+     * Current snapshot of the rule sets
+     */
+    private volatile RuleSetCatalog catalog = new RuleSetCatalog();
+
+    /**
+     * Distinct match conditions shared by the rule sets
+     */
+    private final ConditionNetwork conditions = new ConditionNetwork(JsonWrapper.DEFAULT_MAPPER);
+
+    /**
+     * Registration counter to preserve the order of the {@link RuleSet}s
+     */
+    private long sequence;
+
+    /**
+     * Applies matching rule sets concurrently, if enabled
+     */
+    private volatile ParallelRuleSetApplier parallelApplier;
+
+    /**
+     * Whether definitions of native components are compiled into predicates
+     */
+    private volatile boolean predicateCompilation;
+
+    /**
+     * Metrics of the validation
+     */
+    private volatile ValidationMetrics metrics = ValidationMetrics.NOOP;
+
+    /**
+     * Dispatch table of the {@link Matcher}s supporting a definition type
+     */
+    private final ClassValue<List<Matcher<?>>> matcherDispatch = new ClassValue<>() {
+        @Override
+        protected List<Matcher<?>> computeValue(Class<?> type) {
+            return matchers.stream()
+                    .filter(m -> m.getTargetType() == type)
+                    .collect(Collectors.toUnmodifiableList());
+        }
+    };
+
+    /**
+     * Dispatch table of the {@link Validator}s supporting a definition type
+     */
+    private final ClassValue<List<Validator<?>>> validatorDispatch = new ClassValue<>() {
+        @Override
+        protected List<Validator<?>> computeValue(Class<?> type) {
+            return validators.stream()
+                    .filter(v -> v.getTargetType() == type)
+                    .collect(Collectors.toUnmodifiableList());
+        }
+    };
 
     public RuleSetValidator(Set<Matcher<?>> matchers, Set<Validator<?>> validators) {
+        this(matchers, validators, new JsonWrapperFactory(JsonWrapper.DEFAULT_MAPPER));
+    }
+
+    public RuleSetValidator(Set<Matcher<?>> matchers, Set<Validator<?>> validators,
+                            JsonWrapperFactory wrapperFactory) {
         this.matchers.addAll(matchers);
         this.validators.addAll(validators);
+        this.wrapperFactory = wrapperFactory;
     }
 
     /**
-     * Adds a {@link RuleSet} to the validation
+     * Adds a {@link RuleSet} to the validation. The rule set is compiled once, so later modifications of the rule set
+     * will not be reflected until it is added again.
      *
      * @param ruleSet rule set
      */
     public void addRuleSet(RuleSet ruleSet) {
-        ruleSets.add(ruleSet);
+        update(Collections.emptyList(), List.of(ruleSet));
     }
 
     /**
@@ -36,7 +102,136 @@ public class RuleSetValidator {
      * @param ruleSet rule set
      */
     public void removeRuleSet(RuleSet ruleSet) {
-        ruleSets.remove(ruleSet);
+        update(List.of(ruleSet), Collections.emptyList());
+    }
+
+    /**
+     * Removes and adds {@link RuleSet}s in a single atomic change of the validation. Only the added rule sets will be
+     * compiled; their matcher definitions share the conditions of equal definitions of registered rule sets. If any
+     * added rule set cannot be compiled, the validation is not changed at all.
+     *
+     * @param removed rule sets to be removed
+     * @param added   rule sets to be added
+     * @return new catalog
+     */
+    public synchronized RuleSetCatalog update(Collection<RuleSet> removed, Collection<RuleSet> added) {
+        // A rule set added twice is compiled once
+        Set<RuleSet> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<CompiledRuleSet> compiled = new ArrayList<>(added.size());
+        RuleSetCatalog previous = catalog;
+
+        try {
+            for (RuleSet ruleSet : added) {
+                if (distinct.add(ruleSet)) {
+                    compiled.add(compile(ruleSet));
+                }
+            }
+
+            catalog = previous.update(removed, compiled);
+        } catch (RuntimeException e) {
+            // Releases the conditions acquired by this update
+            compiled.forEach(conditions::release);
+            throw e;
+        }
+
+        // Conditions are released after the new ones were acquired, so that unchanged ones are kept
+        Set<CompiledRuleSet> dropped = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        Stream.concat(removed.stream(), added.stream())
+                .map(previous::getCompiled)
+                .filter(replaced -> replaced != null && catalog.getCompiled(replaced.getRuleSet()) != replaced)
+                .filter(dropped::add)
+                .forEach(conditions::release);
+
+        metrics.recordUpdate(
+                dropped.stream().map(CompiledRuleSet::getRuleSet).collect(Collectors.toList()),
+                compiled.stream().map(CompiledRuleSet::getRuleSet).collect(Collectors.toList()));
+
+        return catalog;
+    }
+
+    /**
+     * Returns the number of distinct match conditions of all {@link RuleSet}s
+     *
+     * @return number of conditions
+     */
+    synchronized int getConditionCount() {
+        return conditions.size();
+    }
+
+    /**
+     * Enables the parallel application of matching {@link RuleSet}s. Once a rule set fails, the remaining ones are
+     * cancelled. Documents matching fewer rule sets than the threshold are still validated sequentially.
+     *
+     * @param executor  executor running the rule sets
+     * @param threshold minimum number of matching rule sets for a parallel validation
+     */
+    public void enableParallelValidation(Executor executor, int threshold) {
+        this.parallelApplier = new ParallelRuleSetApplier(executor, threshold);
+    }
+
+    /**
+     * Validates all matching {@link RuleSet}s sequentially on the calling thread, which is the default.
+     */
+    public void disableParallelValidation() {
+        this.parallelApplier = null;
+    }
+
+    /**
+     * Enables or disables the compilation of the definitions handled by a {@link NativeRuleSetComponent} into
+     * specialized predicates, see {@link NativeRuleSetComponent#compile(Object)}. Only applies to {@link RuleSet}s
+     * added afterwards.
+     *
+     * @param predicateCompilation whether definitions are compiled
+     */
+    public void setPredicateCompilation(boolean predicateCompilation) {
+        this.predicateCompilation = predicateCompilation;
+    }
+
+    /**
+     * Returns whether definitions are compiled into specialized predicates
+     *
+     * @return true if enabled
+     */
+    public boolean isPredicateCompilation() {
+        return predicateCompilation;
+    }
+
+    /**
+     * Returns the metrics of the validation
+     *
+     * @return metrics
+     */
+    public ValidationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the metrics of the validation
+     *
+     * @param metrics metrics
+     */
+    public void setMetrics(ValidationMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+        metrics.recordUpdate(Collections.emptyList(), catalog.getRuleSets());
+    }
+
+    /**
+     * Returns the current snapshot of all {@link RuleSet}s
+     *
+     * @return catalog
+     */
+    public RuleSetCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Returns all {@link RuleSet}s of the validation
+     *
+     * @return rule sets
+     */
+    public List<RuleSet> getRuleSets() {
+        return catalog.getRuleSets();
     }
 
     /**
@@ -46,8 +241,19 @@ public class RuleSetValidator {
      * @throws RuleValidationException if any validation fails
      */
     public void validate(Map<String, Object> jsonMap) throws RuleValidationException {
-        JsonWrapper wrapper = new JsonWrapper(jsonMap);
-        validate(wrapper);
+        validate(catalog, jsonMap);
+    }
+
+    /**
+     * Validates a JSON Map object against a snapshot of the {@link RuleSet}s, whose version thus identifies the rule
+     * sets the JSON was validated with.
+     *
+     * @param catalog snapshot of the rule sets, as returned by {@link #getCatalog()}
+     * @param jsonMap JSON
+     * @throws RuleValidationException if any validation fails
+     */
+    public void validate(RuleSetCatalog catalog, Map<String, Object> jsonMap) throws RuleValidationException {
+        validate(catalog, wrapperFactory.wrap(jsonMap));
     }
 
     /**
@@ -57,75 +263,265 @@ public class RuleSetValidator {
      * @throws RuleValidationException if any validation fails
      */
     public void validate(JsonNode jsonNode) throws RuleValidationException {
-        JsonWrapper wrapper = new JsonWrapper(jsonNode);
-        validate(wrapper);
+        validate(catalog, jsonNode);
     }
 
     /**
-     * Validates JSON against all matching {@link RuleSet}s.
+     * Validates a JSON Node object against a snapshot of the {@link RuleSet}s, whose version thus identifies the rule
+     * sets the JSON was validated with.
      *
-     * @param json JSON
+     * @param catalog  snapshot of the rule sets, as returned by {@link #getCatalog()}
+     * @param jsonNode JSON
      * @throws RuleValidationException if any validation fails
      */
-    private void validate(JsonWrapper json) throws RuleValidationException {
-        for (RuleSet ruleSet : ruleSets) {
-            if (ruleSetMatches(ruleSet, json)) {
-                applyRuleSet(ruleSet, json);
-            }
+    public void validate(RuleSetCatalog catalog, JsonNode jsonNode) throws RuleValidationException {
+        validate(catalog, wrapperFactory.wrap(jsonNode));
+    }
+
+    /**
+     * Validates raw JSON content. Only the values of the JSON paths declared by the components of all {@link RuleSet}s
+     * are extracted in a single pass over the content, which stops as soon as all of them are known. The content will
+     * only be parsed completely if any component reads other JSON paths or views.
+     *
+     * @param jsonSource JSON content
+     * @throws RuleValidationException if any validation fails
+     * @throws IOException             if the content could not be parsed
+     */
+    public void validate(JsonSource jsonSource) throws RuleValidationException, IOException {
+        validate(catalog, jsonSource);
+    }
+
+    /**
+     * Validates raw JSON content against a snapshot of the {@link RuleSet}s, whose version thus identifies the rule
+     * sets the JSON was validated with.
+     *
+     * @param catalog    snapshot of the rule sets, as returned by {@link #getCatalog()}
+     * @param jsonSource JSON content
+     * @throws RuleValidationException if any validation fails
+     * @throws IOException             if the content could not be parsed
+     * @see #validate(JsonSource)
+     */
+    public void validate(RuleSetCatalog catalog, JsonSource jsonSource) throws RuleValidationException, IOException {
+        validate(catalog, wrapperFactory.wrap(jsonSource, catalog.getStreamingReader()));
+    }
+
+    /**
+     * Validates many JSON documents against the same version of the {@link RuleSet}s. Failed validations are
+     * reported in the results instead of being thrown.
+     *
+     * @param jsonNodes JSON documents
+     * @return results in the order of the documents
+     */
+    public List<ValidationResult> validateAll(Iterable<JsonNode> jsonNodes) {
+        RuleSetCatalog catalog = this.catalog;
+        List<ValidationResult> results = new ArrayList<>();
+
+        for (JsonNode jsonNode : jsonNodes) {
+            results.add(validateDocument(catalog, jsonNode));
         }
+
+        return results;
     }
 
     /**
-     * Applies a {@link RuleSet} to the given JSON.
+     * Validates a stream of JSON documents against the same version of the {@link RuleSet}s. The documents are
+     * validated lazily as the results are consumed; a parallel stream spreads them across cores. Failed validations are
+     * reported in the results instead of being thrown.
      *
-     * @param ruleSet rule set
+     * @param jsonNodes JSON documents
+     * @return results in the order of the documents
+     */
+    public Stream<ValidationResult> validateAll(Stream<JsonNode> jsonNodes) {
+        RuleSetCatalog catalog = this.catalog;
+        return jsonNodes.map(jsonNode -> validateDocument(catalog, jsonNode));
+    }
+
+    /**
+     * Validates a single document of a batch against a snapshot of the {@link RuleSet}s, which is shared by the
+     * documents of the batch. The rule sets of a document are applied sequentially, since batches are spread across
+     * threads by document. Failed validations are reported in the result instead of being thrown.
+     *
+     * @param catalog  snapshot of the rule sets
+     * @param jsonNode JSON
+     * @return result of the validation
+     */
+    public ValidationResult validateDocument(RuleSetCatalog catalog, JsonNode jsonNode) {
+        try {
+            return new ValidationResult(validate(catalog, wrapperFactory.wrap(jsonNode), null), null);
+        } catch (RuleValidationException e) {
+            return new ValidationResult(catalog.getVersion(), e);
+        }
+    }
+
+    /**
+     * Validates JSON against all matching {@link RuleSet}s of a catalog.
+     *
+     * @param catalog snapshot of the rule sets
      * @param json    JSON
+     * @return version of the catalog
+     * @throws RuleValidationException if any validation fails
+     */
+    private long validate(RuleSetCatalog catalog, JsonWrapper json) throws RuleValidationException {
+        return validate(catalog, json, parallelApplier);
+    }
+
+    /**
+     * Validates JSON against all matching {@link RuleSet}s of a catalog. Only the candidates selected by the {@link
+     * RuleSetIndex} are matched against the JSON.
+     *
+     * @param catalog         snapshot of the rule sets
+     * @param json            JSON
+     * @param parallelApplier applier of the matching rule sets or null to apply them sequentially
+     * @return version of the catalog
+     * @throws RuleValidationException if any validation fails
+     */
+    private long validate(RuleSetCatalog catalog, JsonWrapper json, @Nullable ParallelRuleSetApplier parallelApplier)
+            throws RuleValidationException {
+        ValidationMetrics metrics = this.metrics;
+
+        if (metrics.isEnabled()) {
+            return validateInstrumented(catalog, json, parallelApplier, metrics);
+        }
+
+        ConditionNetwork.Results results = new ConditionNetwork.Results();
+
+        try {
+            if (parallelApplier == null) {
+                for (CompiledRuleSet ruleSet : catalog.getIndex().candidates(json)) {
+                    if (ruleSet.matches(json, results, ValidationMetrics.NOOP)) {
+                        ruleSet.apply(json);
+                    }
+                }
+            } else {
+                List<CompiledRuleSet> matching = new ArrayList<>();
+
+                for (CompiledRuleSet ruleSet : catalog.getIndex().candidates(json)) {
+                    if (ruleSet.matches(json, results, ValidationMetrics.NOOP)) {
+                        matching.add(ruleSet);
+                    }
+                }
+
+                parallelApplier.apply(matching, json, ValidationMetrics.NOOP);
+            }
+        } catch (RuleValidationException e) {
+            e.setCatalogVersion(catalog.getVersion());
+            throw e;
+        }
+
+        return catalog.getVersion();
+    }
+
+    /**
+     * Validates JSON just as {@link #validate(RuleSetCatalog, JsonWrapper, ParallelRuleSetApplier)} and records the
+     * evaluated, matched and rejected {@link RuleSet}s along with the durations of the validation and its components.
+     *
+     * @param catalog         snapshot of the rule sets
+     * @param json            JSON
+     * @param parallelApplier applier of the matching rule sets or null to apply them sequentially
+     * @param metrics         enabled metrics
+     * @return version of the catalog
      * @throws RuleValidationException if any validation fails
      */
-    private void applyRuleSet(RuleSet ruleSet, JsonWrapper json) throws RuleValidationException {
+    private long validateInstrumented(RuleSetCatalog catalog, JsonWrapper json,
+                                      @Nullable ParallelRuleSetApplier parallelApplier, ValidationMetrics metrics)
+            throws RuleValidationException {
+        long start = System.nanoTime();
+        ConditionNetwork.Results results = new ConditionNetwork.Results();
+
         try {
-            for (Object params : ruleSet.getRules()) {
-                // Retrieve all matching validators
-                List<Validator<?>> validators = this.validators.stream()
-                        .filter(r -> r.getTargetType() == params.getClass())
-                        .collect(Collectors.toList());
-
-                for (Validator<?> validator : validators) {
-                    // Validate!
-                    validator.applyObject(params, json);
+            List<CompiledRuleSet> matching = new ArrayList<>();
+
+            for (CompiledRuleSet ruleSet : catalog.getIndex().candidates(json)) {
+                metrics.recordEvaluated(ruleSet.getRuleSet());
+
+                if (ruleSet.matches(json, results, metrics)) {
+                    metrics.recordMatched(ruleSet.getRuleSet());
+
+                    if (parallelApplier == null) {
+                        ruleSet.apply(json, () -> false, metrics);
+                    } else {
+                        matching.add(ruleSet);
+                    }
                 }
             }
+
+            if (parallelApplier != null) {
+                parallelApplier.apply(matching, json, metrics);
+            }
         } catch (RuleValidationException e) {
-            e.setRuleSet(ruleSet);
+            e.setCatalogVersion(catalog.getVersion());
+            if (e.getRuleSet() != null) {
+                metrics.recordRejected(e.getRuleSet());
+            }
             throw e;
+        } finally {
+            metrics.recordPhase(ValidationMetrics.Phase.VALIDATE, System.nanoTime() - start);
         }
+
+        return catalog.getVersion();
     }
 
     /**
-     * Determines if a {@link RuleSet} matches the given JSON.
+     * Binds every definition of the {@link RuleSet} to the {@link Matcher}s and {@link Validator}s supporting its
+     * type and compiles the JSON paths they read. Matcher definitions become conditions of the {@link
+     * ConditionNetwork}, that are shared with equal definitions of other rule sets. The first {@link FieldEquals}
+     * definition handled by the {@link FieldEqualsComponent} becomes the discriminator of the rule set in the {@link
+     * RuleSetIndex}. If any definition cannot be compiled, the conditions acquired so far are released.
      *
      * @param ruleSet rule set
-     * @param json    JSON
-     * @return true if the JSON should be validated
+     * @return execution plan of the rule set
      */
-    private boolean ruleSetMatches(RuleSet ruleSet, JsonWrapper json) {
-        for (Object params : ruleSet.getMatchers()) {
-            // Retrieve all matching matchers
-            List<Matcher<?>> matchers = this.matchers.stream()
-                    .filter(m -> m.getTargetType() == params.getClass())
-                    .collect(Collectors.toList());
+    private CompiledRuleSet compile(RuleSet ruleSet) {
+        List<ConditionNetwork.Condition> boundConditions = new ArrayList<>();
+        List<CompiledRuleSet.BoundValidator<?>> boundValidators = new ArrayList<>();
+        Set<JsonPath> jsonPaths = new HashSet<>();
+        FieldEquals discriminator = null;
+        boolean compile = predicateCompilation;
 
-            boolean match = matchers.stream()
-                    .allMatch(m -> m.matchesObject(params, json));
+        try {
+            for (Object definition : ruleSet.getMatchers()) {
+                for (Matcher<?> matcher : matcherDispatch.get(definition.getClass())) {
+                    ConditionNetwork.Condition condition = conditions.acquire(matcher, definition,
+                            () -> CompiledRuleSet.bind(matcher, definition, compile));
+                    boundConditions.add(condition);
+                    condition.getMatcher().jsonPaths().forEach(path -> jsonPaths.add(JsonPathCompiler.compile(path)));
+
+                    // Null never equals any value, so such rule sets cannot be selected by their value
+                    if (discriminator == null && isFieldEqualsMatcher(matcher)
+                            && ((FieldEquals) definition).value != null) {
+                        discriminator = (FieldEquals) definition;
+                    }
+                }
+            }
 
-            if (!match) {
-                // Not all matchers matched:
-                return false;
+            for (Object definition : ruleSet.getRules()) {
+                for (Validator<?> validator : validatorDispatch.get(definition.getClass())) {
+                    CompiledRuleSet.BoundValidator<?> bound = CompiledRuleSet.bind(validator, definition, compile);
+                    bound.jsonPaths().forEach(path -> jsonPaths.add(JsonPathCompiler.compile(path)));
+                    boundValidators.add(bound);
+                }
             }
+        } catch (RuntimeException e) {
+            boundConditions.forEach(conditions::release);
+            throw e;
         }
 
-        // Validate every JSON when no matcher is configured
-        return true;
+        return new CompiledRuleSet(ruleSet, sequence++,
+                boundConditions.toArray(new ConditionNetwork.Condition[0]),
+                boundValidators.toArray(new CompiledRuleSet.BoundValidator<?>[0]),
+                discriminator, jsonPaths);
+    }
+
+    /**
+     * Checks if the {@link Matcher} is the one of the {@link FieldEqualsComponent}, which only matches equal values.
+     *
+     * @param matcher matcher
+     * @return true if the matcher can be indexed
+     */
+    private static boolean isFieldEqualsMatcher(Matcher<?> matcher) {
+        return matcher instanceof NativeRuleSetComponent.ComponentMatcher
+                && ((NativeRuleSetComponent<?>.ComponentMatcher) matcher).getComponent()
+                instanceof FieldEqualsComponent;
     }
 
 }
@@ -3,6 +3,7 @@ package com.github.jazzschmidt.spring.jsonvalidation;
 public class RuleValidationException extends Exception {
 
     private RuleSet ruleSet;
+    private long catalogVersion;
 
     public RuleValidationException(String message) {
         super(message);
@@ -19,4 +20,17 @@ public class RuleValidationException extends Exception {
     public void setRuleSet(RuleSet ruleSet) {
         this.ruleSet = ruleSet;
     }
+
+    /**
+     * Returns the version of the {@link RuleSetCatalog} that was used for the validation
+     *
+     * @return catalog version
+     */
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public void setCatalogVersion(long catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
 }
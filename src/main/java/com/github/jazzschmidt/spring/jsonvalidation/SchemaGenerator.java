@@ -5,28 +5,63 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.BeanDescription;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
 import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion;
 import org.springframework.core.io.ClassPathResource;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
- * Generates JSON schemas of the {@link JsonMatcher}s and {@link JsonRule}s
+ * Generates JSON schemas of the {@link JsonMatcher}s and {@link JsonRule}s. The schemas are generated once and kept
+ * serialized; schemas depending on the URL are cached for the most recently requested URLs. Encoded schemas are
+ * returned as read-only views of the cached bytes, so that they are served without copying and cannot be altered.
+ * <p>
+ * The matchers and rules are fixed when the generator is created at startup, so the cached schemas stay valid for the
+ * lifetime of the application.
+ * </p>
  */
 public class SchemaGenerator {
     private final static String SCHEMA_ROOT = "/validation-rules-schema.json";
+    private final static JsonSchemaFactory SCHEMA_FACTORY = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
+
+    /**
+     * Maximum number of URLs whose schemas are cached
+     */
+    private final static int MAX_CACHED_URLS = 32;
+
     private final Map<String, Class<?>> matchers = new HashMap<>();
     private final Map<String, Class<?>> rules = new HashMap<>();
     private final ObjectMapper objectMapper;
     private final Map<Class<?>, String> simpleTypeMappings = new HashMap<>();
 
+    /**
+     * Generated schemas of the definitions, created on first use
+     */
+    private volatile GeneratedSchemas generatedSchemas;
+
+    /**
+     * Root schemas by their URL
+     */
+    private final Map<String, byte[]> rootSchemas = lruCache();
+
+    /**
+     * Compiled merged schemas by their URL
+     */
+    private final Map<String, JsonSchema> mergedSchemas = lruCache();
+
     {
         simpleTypeMappings.put(String.class, "string");
         simpleTypeMappings.put(Boolean.class, "boolean");
@@ -43,17 +78,36 @@ public class SchemaGenerator {
 
     private static String readSchemaFromResource() throws IOException {
         ClassPathResource res = new ClassPathResource(SCHEMA_ROOT);
-        return new BufferedReader(new InputStreamReader(res.getInputStream()))
+        return new BufferedReader(new InputStreamReader(res.getInputStream(), StandardCharsets.UTF_8))
                 .lines()
                 .collect(Collectors.joining("\n"));
     }
 
+    private static <V> Map<String, V> lruCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > MAX_CACHED_URLS;
+            }
+        });
+    }
+
     public Map<String, Class<?>> getRules() {
-        return rules;
+        return Collections.unmodifiableMap(rules);
     }
 
     public Map<String, Class<?>> getMatcher() {
-        return matchers;
+        return Collections.unmodifiableMap(matchers);
+    }
+
+    /**
+     * Discards all generated schemas, so that they will be generated again on their next use. As the matchers and rules
+     * are fixed, this only frees the memory of the cached schemas.
+     */
+    public void clearCache() {
+        generatedSchemas = null;
+        rootSchemas.clear();
+        mergedSchemas.clear();
     }
 
     /**
@@ -64,9 +118,29 @@ public class SchemaGenerator {
      * @throws IOException if any I/O error occurs
      */
     public String getRootSchema(String url) throws IOException {
-        String rootSchema = readSchemaFromResource();
+        return new String(rootSchemaBytes(url), StandardCharsets.UTF_8);
+    }
 
-        return rootSchema.replace("{{ URL }}", url);
+    /**
+     * Returns the UTF-8 encoded root schema of {@link RuleSet}s
+     *
+     * @param url Url of the schema
+     * @return read-only JSON schema
+     * @throws IOException if any I/O error occurs
+     */
+    public ByteBuffer getRootSchemaBytes(String url) throws IOException {
+        return ByteBuffer.wrap(rootSchemaBytes(url)).asReadOnlyBuffer();
+    }
+
+    private byte[] rootSchemaBytes(String url) throws JsonProcessingException {
+        byte[] rootSchema = rootSchemas.get(url);
+
+        if (rootSchema == null) {
+            rootSchema = getGeneratedSchemas().resource.replace("{{ URL }}", url).getBytes(StandardCharsets.UTF_8);
+            rootSchemas.put(url, rootSchema);
+        }
+
+        return rootSchema;
     }
 
     /**
@@ -79,7 +153,8 @@ public class SchemaGenerator {
      */
     @SuppressWarnings("unchecked")
     public String getMergedSchema(String url) throws IOException {
-        String rootSchema = readSchemaFromResource();
+        GeneratedSchemas generated = getGeneratedSchemas();
+        String rootSchema = generated.resource;
         rootSchema = rootSchema.replace("{{ URL }}", url);
         rootSchema = rootSchema.replaceAll("/(matchers|rules)#", "#"); // Remove links
 
@@ -90,12 +165,30 @@ public class SchemaGenerator {
             definitions.putAll((Map<? extends String, ?>) schema.get("definitions"));
         };
 
-        addDefinitions.accept(createSchema(matchers, ComponentType.Matcher));
-        addDefinitions.accept(createSchema(rules, ComponentType.Rule));
+        addDefinitions.accept(generated.matchers);
+        addDefinitions.accept(generated.rules);
 
         return objectMapper.writeValueAsString(rootSchema);
     }
 
+    /**
+     * Returns the compiled schema of {@link #getMergedSchema(String)}, that is used to validate {@link RuleSet}s.
+     *
+     * @param url Url if the schema
+     * @return JSON schema
+     * @throws IOException if any I/O error occurs
+     */
+    public JsonSchema getMergedJsonSchema(String url) throws IOException {
+        JsonSchema schema = mergedSchemas.get(url);
+
+        if (schema == null) {
+            schema = SCHEMA_FACTORY.getSchema(getMergedSchema(url));
+            mergedSchemas.put(url, schema);
+        }
+
+        return schema;
+    }
+
     /**
      * Returns the generated JSON schema of all {@link JsonMatcher}s
      *
@@ -103,11 +196,17 @@ public class SchemaGenerator {
      * @throws JsonProcessingException if any I/O error occurs
      */
     public String getMatchersSchema() throws JsonProcessingException {
-        Map<String, Object> schema = createSchema(matchers, ComponentType.Matcher);
+        return new String(getGeneratedSchemas().matchersBytes, StandardCharsets.UTF_8);
+    }
 
-        return objectMapper
-                .writerWithDefaultPrettyPrinter()
-                .writeValueAsString(schema);
+    /**
+     * Returns the UTF-8 encoded JSON schema of all {@link JsonMatcher}s
+     *
+     * @return read-only JSON schema
+     * @throws JsonProcessingException if any I/O error occurs
+     */
+    public ByteBuffer getMatchersSchemaBytes() throws JsonProcessingException {
+        return ByteBuffer.wrap(getGeneratedSchemas().matchersBytes).asReadOnlyBuffer();
     }
 
     /**
@@ -117,9 +216,47 @@ public class SchemaGenerator {
      * @throws JsonProcessingException if any I/O error occurs
      */
     public String getRulesSchema() throws JsonProcessingException {
-        Map<String, Object> schema = createSchema(rules, ComponentType.Rule);
+        return new String(getGeneratedSchemas().rulesBytes, StandardCharsets.UTF_8);
+    }
 
-        return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(schema);
+    /**
+     * Returns the UTF-8 encoded JSON schema of all {@link JsonRule}s
+     *
+     * @return read-only JSON schema
+     * @throws JsonProcessingException if any I/O error occurs
+     */
+    public ByteBuffer getRulesSchemaBytes() throws JsonProcessingException {
+        return ByteBuffer.wrap(getGeneratedSchemas().rulesBytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the schemas of the definitions and generates them if necessary.
+     *
+     * @return generated schemas
+     * @throws JsonProcessingException if the schemas could not be serialized
+     */
+    private GeneratedSchemas getGeneratedSchemas() throws JsonProcessingException {
+        GeneratedSchemas generated = generatedSchemas;
+
+        if (generated == null) {
+            String resource;
+
+            try {
+                resource = readSchemaFromResource();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            Map<String, Object> matchersSchema = createSchema(matchers, ComponentType.Matcher);
+            Map<String, Object> rulesSchema = createSchema(rules, ComponentType.Rule);
+            ObjectWriter writer = objectMapper.writerWithDefaultPrettyPrinter();
+
+            generated = new GeneratedSchemas(resource, matchersSchema, rulesSchema,
+                    writer.writeValueAsBytes(matchersSchema), writer.writeValueAsBytes(rulesSchema));
+            generatedSchemas = generated;
+        }
+
+        return generated;
     }
 
     /**
@@ -272,6 +409,26 @@ public class SchemaGenerator {
         return schema;
     }
 
+    /**
+     * Schemas that do not depend on the URL
+     */
+    private static final class GeneratedSchemas {
+        private final String resource;
+        private final Map<String, Object> matchers;
+        private final Map<String, Object> rules;
+        private final byte[] matchersBytes;
+        private final byte[] rulesBytes;
+
+        private GeneratedSchemas(String resource, Map<String, Object> matchers, Map<String, Object> rules,
+                                 byte[] matchersBytes, byte[] rulesBytes) {
+            this.resource = resource;
+            this.matchers = matchers;
+            this.rules = rules;
+            this.matchersBytes = matchersBytes;
+            this.rulesBytes = rulesBytes;
+        }
+    }
+
     private enum ComponentType {
         Matcher("matcher", "JSON validation matchers schema"),
         Rule("rules", "JSON validation rules schema");
@@ -0,0 +1,288 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Extracts the values of a fixed set of JSON paths in a single pass over the token stream of a JSON document. Only
+ * definite paths consisting of property names and array indexes are supported; parsing stops as soon as the values of
+ * all those paths are known.
+ */
+final class StreamingJsonReader {
+
+    /**
+     * Root of the tree of supported paths
+     */
+    private final PathNode root = new PathNode();
+
+    /**
+     * All supported paths
+     */
+    private final List<JsonPath> jsonPaths = new ArrayList<>();
+
+    StreamingJsonReader(Collection<JsonPath> jsonPaths) {
+        for (JsonPath jsonPath : jsonPaths) {
+            List<Object> segments = parseSegments(jsonPath);
+
+            if (segments != null) {
+                root.resolve(segments).targets.add(jsonPath);
+                this.jsonPaths.add(jsonPath);
+            }
+        }
+    }
+
+    /**
+     * Splits a definite JSON path into property names and array indexes.
+     *
+     * @param jsonPath compiled JSON path
+     * @return segments or null if the path is not supported
+     */
+    @Nullable
+    static List<Object> parseSegments(JsonPath jsonPath) {
+        if (!jsonPath.isDefinite()) {
+            return null;
+        }
+
+        // Compiled paths are normalized to $['property'][0]
+        String path = jsonPath.getPath();
+
+        if (!path.startsWith("$")) {
+            return null;
+        }
+
+        List<Object> segments = new ArrayList<>();
+        int position = 1;
+
+        while (position < path.length()) {
+            if (path.charAt(position) != '[') {
+                // Functions and the like
+                return null;
+            }
+
+            if (path.startsWith("['", position)) {
+                int end = path.indexOf("']", position + 2);
+
+                if (end < 0) {
+                    return null;
+                }
+
+                String property = path.substring(position + 2, end);
+
+                if (property.contains("','")) {
+                    // Multiple properties
+                    return null;
+                }
+
+                segments.add(property);
+                position = end + 2;
+            } else {
+                int end = path.indexOf(']', position);
+
+                if (end < 0) {
+                    return null;
+                }
+
+                String index = path.substring(position + 1, end);
+
+                if (index.isEmpty() || !index.chars().allMatch(Character::isDigit)) {
+                    // Slices, wildcards, negative indexes and filters
+                    return null;
+                }
+
+                try {
+                    segments.add(Integer.parseInt(index));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+
+                position = end + 1;
+            }
+        }
+
+        return segments;
+    }
+
+    /**
+     * Returns the paths that can be extracted by streaming
+     *
+     * @return JSON paths
+     */
+    List<JsonPath> getJsonPaths() {
+        return Collections.unmodifiableList(jsonPaths);
+    }
+
+    /**
+     * Reads the values of all supported paths. Values of paths that are not present in the document are null.
+     *
+     * @param parser       parser of the JSON document
+     * @param objectMapper mapper used for reading objects and arrays
+     * @return values by their path
+     * @throws IOException if the document could not be parsed
+     */
+    Map<JsonPath, Object> read(JsonParser parser, ObjectMapper objectMapper) throws IOException {
+        Map<JsonPath, Object> values = new HashMap<>();
+
+        if (!jsonPaths.isEmpty() && parser.nextToken() != null) {
+            new Extraction(parser, objectMapper, values, jsonPaths.size()).walk(root);
+        }
+
+        for (JsonPath jsonPath : jsonPaths) {
+            values.putIfAbsent(jsonPath, null);
+        }
+
+        return values;
+    }
+
+    /**
+     * Node in the tree of paths
+     */
+    private static final class PathNode {
+        private final List<JsonPath> targets = new ArrayList<>(1);
+        private final Map<String, PathNode> properties = new HashMap<>();
+        private final Map<Integer, PathNode> indexes = new HashMap<>();
+
+        private PathNode resolve(List<Object> segments) {
+            PathNode node = this;
+
+            for (Object segment : segments) {
+                if (segment instanceof String) {
+                    node = node.properties.computeIfAbsent((String) segment, name -> new PathNode());
+                } else {
+                    node = node.indexes.computeIfAbsent((Integer) segment, index -> new PathNode());
+                }
+            }
+
+            return node;
+        }
+    }
+
+    /**
+     * State of a single pass over a document
+     */
+    private static final class Extraction {
+        private final JsonParser parser;
+        private final ObjectMapper objectMapper;
+        private final Map<JsonPath, Object> values;
+        private int remaining;
+
+        private Extraction(JsonParser parser, ObjectMapper objectMapper, Map<JsonPath, Object> values,
+                           int remaining) {
+            this.parser = parser;
+            this.objectMapper = objectMapper;
+            this.values = values;
+            this.remaining = remaining;
+        }
+
+        /**
+         * Walks the value at the current token.
+         *
+         * @param node paths below the current value
+         * @return true if all paths are resolved and parsing can be stopped
+         * @throws IOException if the document could not be parsed
+         */
+        private boolean walk(PathNode node) throws IOException {
+            JsonToken token = parser.currentToken();
+
+            if (!node.targets.isEmpty()) {
+                resolve(node, readValue(token));
+                return remaining == 0;
+            }
+
+            if (token == JsonToken.START_OBJECT && !node.properties.isEmpty()) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    PathNode child = node.properties.get(parser.getCurrentName());
+                    parser.nextToken();
+
+                    if (child == null) {
+                        parser.skipChildren();
+                    } else if (walk(child)) {
+                        return true;
+                    }
+                }
+            } else if (token == JsonToken.START_ARRAY && !node.indexes.isEmpty()) {
+                int index = 0;
+
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    PathNode child = node.indexes.get(index++);
+
+                    if (child == null) {
+                        parser.skipChildren();
+                    } else if (walk(child)) {
+                        return true;
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+
+            return false;
+        }
+
+        /**
+         * Assigns a value to the targets of the node and the values inside of it to the paths below.
+         *
+         * @param node  path node
+         * @param value value of the node
+         */
+        @SuppressWarnings("rawtypes")
+        private void resolve(PathNode node, @Nullable Object value) {
+            for (JsonPath target : node.targets) {
+                if (!values.containsKey(target)) {
+                    remaining--;
+                }
+
+                values.put(target, value);
+            }
+
+            for (Map.Entry<String, PathNode> child : node.properties.entrySet()) {
+                Object childValue = value instanceof Map ? ((Map) value).get(child.getKey()) : null;
+                resolve(child.getValue(), childValue);
+            }
+
+            for (Map.Entry<Integer, PathNode> child : node.indexes.entrySet()) {
+                int index = child.getKey();
+                Object childValue = value instanceof List && index < ((List) value).size()
+                        ? ((List) value).get(index)
+                        : null;
+                resolve(child.getValue(), childValue);
+            }
+        }
+
+        /**
+         * Reads the value at the current token, just as it would be read from a JSON path.
+         *
+         * @param token current token
+         * @return scalar value, Map or List
+         * @throws IOException if the document could not be parsed
+         */
+        @Nullable
+        private Object readValue(JsonToken token) throws IOException {
+            switch (token) {
+                case VALUE_STRING:
+                    return parser.getText();
+                case VALUE_NUMBER_INT:
+                    return parser.getNumberValue();
+                case VALUE_NUMBER_FLOAT:
+                    if (objectMapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)) {
+                        return parser.getDecimalValue();
+                    }
+                    return parser.getNumberValue();
+                case VALUE_TRUE:
+                    return Boolean.TRUE;
+                case VALUE_FALSE:
+                    return Boolean.FALSE;
+                case VALUE_NULL:
+                    return null;
+                default:
+                    return objectMapper.readValue(parser, Object.class);
+            }
+        }
+    }
+}
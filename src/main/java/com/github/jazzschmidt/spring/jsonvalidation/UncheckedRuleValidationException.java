@@ -0,0 +1,22 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+/**
+ * Wraps a {@link RuleValidationException} where checked exceptions cannot be thrown, e.g. while reading a request
+ * body.
+ */
+public class UncheckedRuleValidationException extends RuntimeException {
+
+    /**
+     * Wraps a {@link RuleValidationException}.
+     *
+     * @param cause failed validation
+     */
+    public UncheckedRuleValidationException(RuleValidationException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public RuleValidationException getCause() {
+        return (RuleValidationException) super.getCause();
+    }
+}
@@ -19,7 +19,15 @@ public class ValidationExceptionHandler {
         return new ResponseEntity<>(new ValidationError(exception), HttpStatus.FORBIDDEN);
     }
 
-    private static class ValidationError {
+    @ExceptionHandler({UncheckedRuleValidationException.class})
+    public ResponseEntity<ValidationError> handleException(UncheckedRuleValidationException exception) {
+        return handleException(exception.getCause());
+    }
+
+    /**
+     * Error object describing the failed {@link RuleSet}
+     */
+    public static class ValidationError {
         private final RuleValidationException exception;
 
         public ValidationError(RuleValidationException exception) {
@@ -0,0 +1,103 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import java.util.Collection;
+
+/**
+ * Receives measurements of the JSON validation. All methods do nothing by default, and measurements are only taken
+ * when {@link #isEnabled()} returns true, so that disabled metrics cost nothing but a single check per validation.
+ */
+public interface ValidationMetrics {
+
+    /**
+     * Metrics that are not recorded
+     */
+    ValidationMetrics NOOP = new ValidationMetrics() {
+    };
+
+    /**
+     * Phases of the validation of a request
+     */
+    enum Phase {
+        /**
+         * Capturing the request body
+         */
+        CAPTURE,
+        /**
+         * Parsing the request body
+         */
+        PARSE,
+        /**
+         * Validating the JSON against all matching {@link RuleSet}s
+         */
+        VALIDATE
+    }
+
+    /**
+     * Returns whether measurements shall be taken
+     *
+     * @return true if the metrics are recorded
+     */
+    default boolean isEnabled() {
+        return false;
+    }
+
+    /**
+     * Records the duration of a phase.
+     *
+     * @param phase phase of the validation
+     * @param nanos duration in nanoseconds
+     */
+    default void recordPhase(Phase phase, long nanos) {
+    }
+
+    /**
+     * Records that a {@link RuleSet} was matched against a JSON document.
+     *
+     * @param ruleSet rule set
+     */
+    default void recordEvaluated(RuleSet ruleSet) {
+    }
+
+    /**
+     * Records that a {@link RuleSet} matched a JSON document.
+     *
+     * @param ruleSet rule set
+     */
+    default void recordMatched(RuleSet ruleSet) {
+    }
+
+    /**
+     * Records that a {@link RuleSet} rejected a JSON document.
+     *
+     * @param ruleSet rule set
+     */
+    default void recordRejected(RuleSet ruleSet) {
+    }
+
+    /**
+     * Records the duration of a single {@link Matcher} or {@link Validator}.
+     *
+     * @param component name of the component
+     * @param nanos     duration in nanoseconds
+     */
+    default void recordComponent(String component, long nanos) {
+    }
+
+    /**
+     * Records a change of the {@link RuleSet}s of a validator, so that measurements of removed rule sets can be
+     * discarded. A rule set that was added again is reported as removed and added.
+     *
+     * @param removed rule sets that are no longer registered
+     * @param added   rule sets that were registered
+     */
+    default void recordUpdate(Collection<RuleSet> removed, Collection<RuleSet> added) {
+    }
+
+    /**
+     * Starts monitoring the {@link RuleSet}s of a validator.
+     *
+     * @param validator validator
+     */
+    default void monitor(RuleSetValidator validator) {
+    }
+}
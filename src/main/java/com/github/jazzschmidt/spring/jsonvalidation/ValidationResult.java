@@ -0,0 +1,65 @@
+package com.github.jazzschmidt.spring.jsonvalidation;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Outcome of the validation of a single JSON document of a batch.
+ */
+public final class ValidationResult {
+
+    private final long catalogVersion;
+    private final RuleValidationException exception;
+
+    ValidationResult(long catalogVersion, @Nullable RuleValidationException exception) {
+        this.catalogVersion = catalogVersion;
+        this.exception = exception;
+    }
+
+    /**
+     * Returns whether the document passed all matching {@link RuleSet}s
+     *
+     * @return true if the document is valid
+     */
+    public boolean isValid() {
+        return exception == null;
+    }
+
+    /**
+     * Returns the version of the {@link RuleSetCatalog} that was used for the validation
+     *
+     * @return catalog version
+     */
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    /**
+     * Returns the failed validation
+     *
+     * @return exception or null if the document is valid
+     */
+    @Nullable
+    public RuleValidationException getException() {
+        return exception;
+    }
+
+    /**
+     * Returns the {@link RuleSet} the document failed
+     *
+     * @return rule set or null if the document is valid
+     */
+    @Nullable
+    public RuleSet getRuleSet() {
+        return exception == null ? null : exception.getRuleSet();
+    }
+
+    /**
+     * Returns the message of the failed validation
+     *
+     * @return message or null if the document is valid
+     */
+    @Nullable
+    public String getMessage() {
+        return exception == null ? null : exception.getMessage();
+    }
+}
@@ -1,5 +1,8 @@
 package com.github.jazzschmidt.spring.jsonvalidation;
 
+import java.util.Collection;
+import java.util.Collections;
+
 abstract public class Validator<DefinitionType> extends RuleSetComponent {
     private final Class<DefinitionType> targetType;
 
@@ -9,6 +12,17 @@ abstract public class Validator<DefinitionType> extends RuleSetComponent {
 
     abstract protected void apply(DefinitionType definition, JsonWrapper json) throws RuleValidationException;
 
+    /**
+     * Returns the JSON paths that will be read when validating with the configuration of the {@code definition}
+     * object. They are compiled once when a {@link RuleSet} is added to the {@link RuleSetValidator}.
+     *
+     * @param definition configuration of the validation
+     * @return JSON paths
+     */
+    protected Collection<String> jsonPaths(DefinitionType definition) {
+        return Collections.emptyList();
+    }
+
     public final void applyObject(Object o, JsonWrapper json) throws RuleValidationException {
         if (o.getClass() != getTargetType()) {
             throw new RuntimeException("Cannot match unsupported target type " + getTargetType().getName());
@@ -1,11 +1,17 @@
 package com.github.jazzschmidt.spring.jsonvalidation.components;
 
+import com.github.jazzschmidt.spring.jsonvalidation.JsonPredicate;
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValues;
 import com.github.jazzschmidt.spring.jsonvalidation.JsonWrapper;
 import com.github.jazzschmidt.spring.jsonvalidation.NativeRuleSetComponent;
 import com.github.jazzschmidt.spring.jsonvalidation.RuleValidationException;
+import com.jayway.jsonpath.JsonPath;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Matches and validates the presence of a specific value at a JSON Path.
  */
@@ -16,10 +22,39 @@ public class FieldEqualsComponent extends NativeRuleSetComponent<FieldEquals> {
         super(FieldEquals.class);
     }
 
+    @Override
+    protected Collection<String> jsonPaths(FieldEquals definition) {
+        return List.of(definition.jsonPath);
+    }
+
     @Override
     public boolean matches(FieldEquals definition, JsonWrapper json) {
         Object value = readJsonPath(definition.jsonPath, json);
-        return value != null && value.equals(definition.value);
+        return value != null && JsonValues.equal(value, definition.value);
+    }
+
+    @Override
+    protected JsonPredicate bind(FieldEquals definition) {
+        JsonPath jsonPath = compileJsonPath(definition.jsonPath);
+        return json -> {
+            Object value = readJsonPath(jsonPath, json);
+            return value != null && JsonValues.equal(value, definition.value);
+        };
+    }
+
+    @Override
+    protected JsonPredicate compile(FieldEquals definition) {
+        JsonPath jsonPath = compileJsonPath(definition.jsonPath);
+        Object expected = JsonValues.canonical(definition.value);
+
+        if (expected == null) {
+            return json -> false;
+        }
+
+        return json -> {
+            Object value = readJsonPath(jsonPath, json);
+            return value != null && JsonValues.equal(value, expected);
+        };
     }
 
     @Override
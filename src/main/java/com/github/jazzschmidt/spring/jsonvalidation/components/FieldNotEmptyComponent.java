@@ -1,11 +1,16 @@
 package com.github.jazzschmidt.spring.jsonvalidation.components;
 
+import com.github.jazzschmidt.spring.jsonvalidation.JsonPredicate;
 import com.github.jazzschmidt.spring.jsonvalidation.JsonWrapper;
 import com.github.jazzschmidt.spring.jsonvalidation.NativeRuleSetComponent;
 import com.github.jazzschmidt.spring.jsonvalidation.RuleValidationException;
+import com.jayway.jsonpath.JsonPath;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Matches and validates the presence of a non-null value at a JSON Path.
  */
@@ -16,11 +21,27 @@ public class FieldNotEmptyComponent extends NativeRuleSetComponent<FieldNotEmpty
         super(FieldNotEmpty.class);
     }
 
+    @Override
+    protected Collection<String> jsonPaths(FieldNotEmpty definition) {
+        return List.of(definition.jsonPath);
+    }
+
     @Override
     public boolean matches(FieldNotEmpty definition, JsonWrapper json) {
         return readJsonPath(definition.jsonPath, json) != null;
     }
 
+    @Override
+    protected JsonPredicate bind(FieldNotEmpty definition) {
+        JsonPath jsonPath = compileJsonPath(definition.jsonPath);
+        return json -> readJsonPath(jsonPath, json) != null;
+    }
+
+    @Override
+    protected JsonPredicate compile(FieldNotEmpty definition) {
+        return bind(definition);
+    }
+
     @Override
     @NonNull
     protected RuleValidationException validationException(FieldNotEmpty definition, JsonWrapper json) {
@@ -1,20 +1,55 @@
 package com.github.jazzschmidt.spring.jsonvalidation.components;
 
+import com.github.jazzschmidt.spring.jsonvalidation.JsonPredicate;
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValues;
 import com.github.jazzschmidt.spring.jsonvalidation.JsonWrapper;
 import com.github.jazzschmidt.spring.jsonvalidation.NativeRuleSetComponent;
 import com.github.jazzschmidt.spring.jsonvalidation.RuleValidationException;
+import com.jayway.jsonpath.JsonPath;
 import org.springframework.lang.NonNull;
 
+import java.util.Collection;
+import java.util.List;
+
 public class FieldNotEqualsComponent extends NativeRuleSetComponent<FieldNotEquals> {
 
     public FieldNotEqualsComponent() {
         super(FieldNotEquals.class);
     }
 
+    @Override
+    protected Collection<String> jsonPaths(FieldNotEquals definition) {
+        return List.of(definition.jsonPath);
+    }
+
     @Override
     public boolean matches(FieldNotEquals definition, JsonWrapper json) {
         Object value = readJsonPath(definition.jsonPath, json);
-        return value != null && !value.equals(definition.value);
+        return value != null && !JsonValues.equal(value, definition.value);
+    }
+
+    @Override
+    protected JsonPredicate bind(FieldNotEquals definition) {
+        JsonPath jsonPath = compileJsonPath(definition.jsonPath);
+        return json -> {
+            Object value = readJsonPath(jsonPath, json);
+            return value != null && !JsonValues.equal(value, definition.value);
+        };
+    }
+
+    @Override
+    protected JsonPredicate compile(FieldNotEquals definition) {
+        JsonPath jsonPath = compileJsonPath(definition.jsonPath);
+        Object unexpected = JsonValues.canonical(definition.value);
+
+        if (unexpected == null) {
+            return json -> readJsonPath(jsonPath, json) != null;
+        }
+
+        return json -> {
+            Object value = readJsonPath(jsonPath, json);
+            return value != null && !JsonValues.equal(value, unexpected);
+        };
     }
 
     @Override
@@ -0,0 +1,55 @@
+package com.github.jazzschmidt.spring.jsonvalidation.metrics;
+
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValidationConfiguration;
+import com.github.jazzschmidt.spring.jsonvalidation.ValidationMetrics;
+import com.github.jazzschmidt.spring.jsonvalidation.web.ValidationOutcomeCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Records the {@link ValidationMetrics} with Micrometer if it is on the classpath and a {@link MeterRegistry} bean is
+ * present. Otherwise the metrics are disabled. The statistics of the {@link ValidationOutcomeCache} are bound to the
+ * registry as well.
+ */
+@Configuration
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+public class MicrometerMetricsConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ValidationMetrics validationMetrics(ObjectProvider<MeterRegistry> registry,
+                                               JsonValidationConfiguration configuration) {
+        MeterRegistry meterRegistry = registry.getIfAvailable();
+
+        if (meterRegistry == null) {
+            return ValidationMetrics.NOOP;
+        }
+
+        return new MicrometerValidationMetrics(meterRegistry, configuration.getMetricsRuleSetLimit());
+    }
+
+    @Bean
+    public MeterBinder validationOutcomeCacheMetrics(ValidationOutcomeCache cache) {
+        return registry -> {
+            if (!cache.isEnabled()) {
+                return;
+            }
+
+            FunctionCounter.builder("jsonvalidation.cache", cache, ValidationOutcomeCache::getHitCount)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("jsonvalidation.cache", cache, ValidationOutcomeCache::getMissCount)
+                    .tag("result", "miss")
+                    .register(registry);
+            Gauge.builder("jsonvalidation.cache.size", cache, ValidationOutcomeCache::size)
+                    .register(registry);
+        };
+    }
+}
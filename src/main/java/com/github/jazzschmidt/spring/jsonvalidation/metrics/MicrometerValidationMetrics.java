@@ -0,0 +1,206 @@
+package com.github.jazzschmidt.spring.jsonvalidation.metrics;
+
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSet;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetValidator;
+import com.github.jazzschmidt.spring.jsonvalidation.ValidationMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the {@link ValidationMetrics} with Micrometer. Registered rule sets are tagged by their name; once the limit
+ * of tagged rule sets is reached, all further rule sets share the tag {@value #OVERFLOW_TAG}, so that the number of
+ * meters stays bounded. The meters of removed rule sets are removed from the registry, which frees their place in the
+ * limit. Names that equal {@value #OVERFLOW_TAG} or start with {@value #ESCAPE_PREFIX} are tagged with another leading
+ * {@value #ESCAPE_PREFIX}, so that no rule set shares the tag of the overflow or of another rule set.
+ * <ul>
+ *     <li>{@code jsonvalidation.request}: timer of the phases, tagged by {@code phase}</li>
+ *     <li>{@code jsonvalidation.ruleset}: counter of rule sets, tagged by {@code ruleSet} and {@code outcome}
+ *     ({@code evaluated}, {@code matched}, {@code rejected})</li>
+ *     <li>{@code jsonvalidation.component}: timer of the matchers and validators, tagged by {@code component}</li>
+ *     <li>{@code jsonvalidation.rulesets}: gauge of the registered rule sets</li>
+ * </ul>
+ */
+public class MicrometerValidationMetrics implements ValidationMetrics {
+
+    /**
+     * Tag of the rule sets exceeding the limit
+     */
+    public static final String OVERFLOW_TAG = "other";
+
+    /**
+     * Prefix of the tags of rule set names that would clash with {@link #OVERFLOW_TAG}
+     */
+    public static final String ESCAPE_PREFIX = "_";
+
+    private final MeterRegistry registry;
+    private final int ruleSetLimit;
+
+    private final Map<Phase, Timer> phaseTimers = new EnumMap<>(Phase.class);
+    private final Map<String, RuleSetCounters> ruleSetCounters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> componentTimers = new ConcurrentHashMap<>();
+
+    /**
+     * Number of registered rule sets by their name
+     */
+    private final Map<String, Integer> registeredNames = new ConcurrentHashMap<>();
+    private volatile RuleSetCounters overflowCounters;
+
+    public MicrometerValidationMetrics(MeterRegistry registry, int ruleSetLimit) {
+        this.registry = registry;
+        this.ruleSetLimit = ruleSetLimit;
+
+        for (Phase phase : Phase.values()) {
+            phaseTimers.put(phase, Timer.builder("jsonvalidation.request")
+                    .description("Duration of the JSON validation of requests")
+                    .tag("phase", phase.name().toLowerCase())
+                    .register(registry));
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void recordPhase(Phase phase, long nanos) {
+        phaseTimers.get(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordEvaluated(RuleSet ruleSet) {
+        counters(ruleSet).evaluated.increment();
+    }
+
+    @Override
+    public void recordMatched(RuleSet ruleSet) {
+        counters(ruleSet).matched.increment();
+    }
+
+    @Override
+    public void recordRejected(RuleSet ruleSet) {
+        counters(ruleSet).rejected.increment();
+    }
+
+    @Override
+    public void recordComponent(String component, long nanos) {
+        componentTimers.computeIfAbsent(component, name -> Timer.builder("jsonvalidation.component")
+                        .description("Duration of the matchers and validators")
+                        .tag("component", name)
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public synchronized void recordUpdate(Collection<RuleSet> removed, Collection<RuleSet> added) {
+        // Added rule sets are counted first, so that the meters of replaced rule sets are kept
+        for (RuleSet ruleSet : added) {
+            registeredNames.merge(String.valueOf(ruleSet.getName()), 1, Integer::sum);
+        }
+
+        for (RuleSet ruleSet : removed) {
+            String name = String.valueOf(ruleSet.getName());
+
+            if (registeredNames.computeIfPresent(name, (key, count) -> count == 1 ? null : count - 1) == null) {
+                RuleSetCounters counters = ruleSetCounters.remove(name);
+
+                if (counters != null) {
+                    counters.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void monitor(RuleSetValidator validator) {
+        Gauge.builder("jsonvalidation.rulesets", validator, v -> v.getCatalog().size())
+                .description("Number of registered rule sets")
+                .register(registry);
+    }
+
+    /**
+     * Returns the counters of a rule set.
+     *
+     * @param ruleSet rule set
+     * @return counters
+     */
+    private RuleSetCounters counters(RuleSet ruleSet) {
+        String name = String.valueOf(ruleSet.getName());
+        RuleSetCounters counters = ruleSetCounters.get(name);
+
+        if (counters != null) {
+            return counters;
+        }
+
+        // Rule sets that were removed meanwhile are not tagged, as their meters would never be removed
+        if (ruleSetCounters.size() >= ruleSetLimit || !registeredNames.containsKey(name)) {
+            return overflow();
+        }
+
+        return ruleSetCounters.computeIfAbsent(name, key -> new RuleSetCounters(tag(key)));
+    }
+
+    /**
+     * Returns the tag of a rule set name, that differs from the {@link #OVERFLOW_TAG} and the tags of all other names.
+     *
+     * @param name rule set name
+     * @return tag
+     */
+    static String tag(String name) {
+        return name.equals(OVERFLOW_TAG) || name.startsWith(ESCAPE_PREFIX) ? ESCAPE_PREFIX + name : name;
+    }
+
+    /**
+     * Returns the counters shared by the rule sets exceeding the limit.
+     *
+     * @return counters
+     */
+    private RuleSetCounters overflow() {
+        RuleSetCounters counters = overflowCounters;
+
+        if (counters == null) {
+            // Registering the same meters twice yields the meters registered first
+            counters = new RuleSetCounters(OVERFLOW_TAG);
+            overflowCounters = counters;
+        }
+
+        return counters;
+    }
+
+    /**
+     * Counters of a single rule set tag
+     */
+    private final class RuleSetCounters {
+        private final Counter evaluated;
+        private final Counter matched;
+        private final Counter rejected;
+
+        private RuleSetCounters(String ruleSet) {
+            evaluated = counter(ruleSet, "evaluated");
+            matched = counter(ruleSet, "matched");
+            rejected = counter(ruleSet, "rejected");
+        }
+
+        private void remove() {
+            registry.remove(evaluated);
+            registry.remove(matched);
+            registry.remove(rejected);
+        }
+
+        private Counter counter(String ruleSet, String outcome) {
+            return Counter.builder("jsonvalidation.ruleset")
+                    .description("Rule sets evaluated, matched and rejected")
+                    .tag("ruleSet", ruleSet)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetCatalog;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetValidator;
+import com.github.jazzschmidt.spring.jsonvalidation.ValidationResult;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Validates newline delimited JSON documents and streams back one result per document. Documents are read and
+ * validated in chunks, so that results are written while the request is still being read. A document that cannot be
+ * parsed, exceeds the maximum line length or fails unexpectedly is answered with an error line, so that the results of
+ * the remaining documents are still written. Lines are measured in bytes of their UTF-8 encoding, just as request
+ * bodies.
+ */
+class BatchValidationResponse implements StreamingResponseBody {
+
+    private static final Log logger = LogFactory.getLog(BatchValidationResponse.class);
+
+    /**
+     * Number of documents validated at once
+     */
+    private static final int CHUNK_SIZE = 256;
+
+    private final InputStream input;
+    private final RuleSetValidator validator;
+    private final ObjectMapper objectMapper;
+    private final boolean parallel;
+    /**
+     * Maximum number of bytes of a line
+     */
+    private final int maxLineLength;
+
+    BatchValidationResponse(InputStream input, RuleSetValidator validator, ObjectMapper objectMapper,
+                            boolean parallel, int maxLineLength) {
+        this.input = input;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.parallel = parallel;
+        this.maxLineLength = maxLineLength;
+    }
+
+    @Override
+    public void writeTo(@NonNull OutputStream output) throws IOException {
+        InputStream reader = new BufferedInputStream(input);
+        List<Document> chunk = new ArrayList<>(CHUNK_SIZE);
+        Line line = new Line();
+        long lineNumber = 0;
+        int end;
+
+        do {
+            end = readLine(reader, line);
+            lineNumber++;
+
+            if (end == -1 && line.length == 0) {
+                break;
+            }
+
+            if (line.length > maxLineLength) {
+                chunk.add(Document.failed(lineNumber,
+                        "Line exceeds the maximum length of " + maxLineLength + " bytes"));
+            } else if (!line.isBlank()) {
+                chunk.add(new Document(lineNumber, line.toByteArray()));
+            }
+
+            if (chunk.size() == CHUNK_SIZE) {
+                writeChunk(chunk, output);
+                chunk.clear();
+            }
+        } while (end != -1);
+
+        writeChunk(chunk, output);
+    }
+
+    /**
+     * Reads a line without its terminator. Bytes beyond the maximum line length are skipped, so that only one more
+     * byte than allowed is kept to detect the excess. A line feed never occurs within a multi-byte UTF-8 sequence.
+     *
+     * @param reader request
+     * @param line   receives the line
+     * @return the terminating byte or -1 at the end of the request
+     * @throws IOException if the request could not be read
+     */
+    private int readLine(InputStream reader, Line line) throws IOException {
+        line.length = 0;
+        long length = 0;
+        int previous = -1;
+        int b;
+
+        while ((b = reader.read()) != -1 && b != '\n') {
+            if (length++ <= maxLineLength) {
+                line.append(b);
+            }
+            previous = b;
+        }
+
+        // A carriage return before the line feed belongs to the terminator
+        if (previous == '\r' && length <= maxLineLength + 1L) {
+            line.length--;
+        }
+
+        return b;
+    }
+
+    /**
+     * Parses and validates a chunk of documents against the same version of the rule sets and writes their results.
+     *
+     * @param chunk  documents
+     * @param output response
+     * @throws IOException if the results could not be written
+     */
+    private void writeChunk(List<Document> chunk, OutputStream output) throws IOException {
+        RuleSetCatalog catalog = validator.getCatalog();
+        Stream<Document> documents = parallel ? chunk.parallelStream() : chunk.stream();
+
+        documents.forEach(document -> document.validate(objectMapper, validator, catalog));
+
+        for (Document document : chunk) {
+            ObjectNode result = objectMapper.createObjectNode();
+            result.put("line", document.lineNumber);
+
+            if (document.result == null) {
+                result.put("valid", false);
+                result.put("message", document.error);
+            } else {
+                ValidationResult validationResult = document.result;
+                result.put("valid", validationResult.isValid());
+                result.put("catalogVersion", validationResult.getCatalogVersion());
+
+                if (!validationResult.isValid()) {
+                    result.put("ruleSet", Objects.requireNonNull(validationResult.getRuleSet()).getName());
+                    result.put("message", validationResult.getMessage());
+                }
+            }
+
+            output.write(objectMapper.writeValueAsBytes(result));
+            output.write('\n');
+        }
+
+        output.flush();
+    }
+
+    /**
+     * Single line of the request
+     */
+    private static final class Document {
+        private final long lineNumber;
+        @Nullable
+        private final byte[] line;
+        private ValidationResult result;
+        private String error;
+
+        private Document(long lineNumber, @Nullable byte[] line) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+
+        private static Document failed(long lineNumber, String error) {
+            Document document = new Document(lineNumber, null);
+            document.error = error;
+            return document;
+        }
+
+        private void validate(ObjectMapper objectMapper, RuleSetValidator validator, RuleSetCatalog catalog) {
+            if (line == null) {
+                return;
+            }
+
+            JsonNode jsonNode;
+
+            try {
+                jsonNode = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                error = "JSON is invalid: " + e.getOriginalMessage();
+                return;
+            } catch (IOException e) {
+                error = "JSON is invalid: " + e.getMessage();
+                return;
+            }
+
+            try {
+                result = validator.validateDocument(catalog, jsonNode);
+            } catch (RuntimeException e) {
+                logger.error("Could not validate line " + lineNumber + " of a batch", e);
+                error = "Validation failed unexpectedly";
+            }
+        }
+    }
+
+    /**
+     * Bytes of the line that is currently read
+     */
+    private static final class Line {
+        private byte[] bytes = new byte[256];
+        private int length;
+
+        private void append(int b) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(bytes.length * 2L, Integer.MAX_VALUE - 8));
+            }
+
+            bytes[length++] = (byte) b;
+        }
+
+        private boolean isBlank() {
+            for (int i = 0; i < length; i++) {
+                if (!Character.isWhitespace(bytes[i])) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, length);
+        }
+    }
+}
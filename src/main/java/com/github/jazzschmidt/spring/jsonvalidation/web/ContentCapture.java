@@ -0,0 +1,182 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web;
+
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Collects the body of a single request. The bytes are read into a buffer of the {@link JsonContentBufferPool}, that
+ * grows as needed up to the spill threshold. Beyond that, the buffer is spilled to a temporary file whenever it is
+ * full, so that the heap used per request is bounded no matter how large the body is. A spilled body is memory-mapped
+ * once it is complete, and the file is deleted when its {@link JsonContent} is released. Bodies held in memory are
+ * hashed while they are read, see {@link ContentHash}.
+ */
+final class ContentCapture {
+
+    private final JsonContentBufferPool bufferPool;
+    private final long maxContentLength;
+    private final long spillThreshold;
+    private final Path spillDirectory;
+
+    /**
+     * Hash of the bytes, computed as long as they are held in memory
+     */
+    private final ContentHash hash = new ContentHash();
+
+    private byte[] buffer;
+
+    /**
+     * Number of bytes in the buffer
+     */
+    private int length;
+
+    /**
+     * Number of bytes captured in total
+     */
+    private long total;
+
+    /**
+     * Temporary file holding the spilled bytes, deleted on close
+     */
+    private FileChannel file;
+
+    /**
+     * Starts the capture of a body
+     *
+     * @param bufferPool       pool of the buffers
+     * @param maxContentLength maximum number of bytes
+     * @param spillThreshold   number of bytes beyond which the body is spilled to a file
+     * @param spillDirectory   directory of the temporary files or null for the default one
+     * @param contentLength    announced length of the body or -1 if unknown
+     */
+    ContentCapture(JsonContentBufferPool bufferPool, long maxContentLength, long spillThreshold,
+                   @Nullable Path spillDirectory, long contentLength) {
+        this.bufferPool = bufferPool;
+        this.maxContentLength = maxContentLength;
+        this.spillThreshold = spillThreshold;
+        this.spillDirectory = spillDirectory;
+        // One more byte than announced, so that the end of the stream is reached without growing the buffer
+        this.buffer = bufferPool.acquire((int) Math.min(Math.max(contentLength + 1, 0), spillThreshold));
+    }
+
+    /**
+     * Reads the next bytes of the stream.
+     *
+     * @param stream body of the request
+     * @return number of bytes read or -1 at the end of the stream
+     * @throws IOException if the stream could not be read or the bytes could not be spilled
+     */
+    int read(InputStream stream) throws IOException {
+        int count = stream.read(buffer, length, buffer.length - length);
+
+        if (count > 0) {
+            length += count;
+            total += count;
+
+            if (file == null) {
+                hash.update(buffer, length);
+            }
+
+            if (length == buffer.length && !isTooLarge()) {
+                makeRoom();
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Checks if more bytes than the maximum content length were captured
+     *
+     * @return true if the body is too large
+     */
+    boolean isTooLarge() {
+        return total > maxContentLength;
+    }
+
+    /**
+     * Completes the capture.
+     *
+     * @param charset encoding of the body
+     * @return captured content
+     * @throws IOException if the spilled bytes could not be mapped
+     */
+    JsonContent finish(Charset charset) throws IOException {
+        if (file == null) {
+            return new JsonContent(buffer, length, charset, hash.finish(buffer, length));
+        }
+
+        spill();
+        bufferPool.release(buffer);
+        buffer = null;
+
+        return new JsonContent(file.map(FileChannel.MapMode.READ_ONLY, 0, total), (int) total, charset, file);
+    }
+
+    /**
+     * Discards an incomplete capture.
+     */
+    void discard() {
+        if (buffer != null) {
+            bufferPool.release(buffer);
+            buffer = null;
+        }
+
+        JsonContent.close(file);
+    }
+
+    /**
+     * Grows a full buffer up to the spill threshold, or spills it to the file beyond.
+     *
+     * @throws IOException if the bytes could not be spilled
+     */
+    private void makeRoom() throws IOException {
+        if (file == null && buffer.length < spillThreshold) {
+            long size = Math.min(Math.min((long) buffer.length * 2, spillThreshold), maxContentLength + 1);
+            byte[] larger = new byte[(int) Math.max(size, length + 1L)];
+
+            System.arraycopy(buffer, 0, larger, 0, length);
+            bufferPool.release(buffer);
+            buffer = larger;
+            return;
+        }
+
+        spill();
+    }
+
+    /**
+     * Appends the bytes of the buffer to the file and empties the buffer.
+     *
+     * @throws IOException if the bytes could not be written
+     */
+    private void spill() throws IOException {
+        if (file == null) {
+            Path path = spillDirectory != null
+                    ? Files.createTempFile(spillDirectory, "jsonvalidation-", ".json")
+                    : Files.createTempFile("jsonvalidation-", ".json");
+
+            try {
+                file = FileChannel.open(path, READ, WRITE, DELETE_ON_CLOSE);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(path);
+                throw e;
+            }
+        }
+
+        ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, length);
+
+        while (bytes.hasRemaining()) {
+            file.write(bytes);
+        }
+
+        length = 0;
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.security.SecureRandom;
+
+/**
+ * Seeded 64 bit hash of a request body, that is computed eight bytes at a time while the body is read into a growing
+ * buffer, so that the body does not have to be read a second time. The seed is chosen randomly per JVM to keep
+ * collisions unpredictable.
+ */
+final class ContentHash {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+    private static final long SEED = new SecureRandom().nextLong();
+
+    private long hash;
+
+    /**
+     * Offset of the first byte that was not hashed yet
+     */
+    private int position;
+
+    ContentHash() {
+        this(SEED);
+    }
+
+    ContentHash(long seed) {
+        this.hash = seed;
+    }
+
+    /**
+     * Computes the hash of the bytes at once.
+     *
+     * @param bytes  bytes
+     * @param length number of bytes to hash
+     * @return hash
+     */
+    static long of(byte[] bytes, int length) {
+        return new ContentHash().finish(bytes, length);
+    }
+
+    /**
+     * Hashes all complete words of the bytes that were appended since the last update. The bytes hashed before must
+     * still be at the start of the buffer.
+     *
+     * @param bytes  buffer
+     * @param length number of bytes in the buffer
+     */
+    void update(byte[] bytes, int length) {
+        for (; position + Long.BYTES <= length; position += Long.BYTES) {
+            hash = (hash ^ mix((long) LONGS.get(bytes, position))) * GOLDEN_RATIO;
+        }
+    }
+
+    /**
+     * Hashes the remaining bytes and returns the hash of all bytes.
+     *
+     * @param bytes  buffer
+     * @param length number of bytes in the buffer
+     * @return hash
+     */
+    long finish(byte[] bytes, int length) {
+        update(bytes, length);
+        long tail = 0;
+
+        for (int i = position, shift = 0; i < length; i++, shift += Byte.SIZE) {
+            tail |= (bytes[i] & 0xFFL) << shift;
+        }
+
+        return mix((hash ^ mix(tail) ^ length * GOLDEN_RATIO) * GOLDEN_RATIO);
+    }
+
+    /**
+     * Finalization step of MurmurHash3, that lets every input bit affect every output bit
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,255 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSet;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Persists {@link RuleSet}s in a directory, so that they survive a restart. Every change is appended to a log file and
+ * synced to disk before it is acknowledged. Once the log holds as many entries as the compaction threshold, all rule
+ * sets are written to a snapshot that replaces the log.
+ * <p>
+ * On creation, the memory-mapped snapshot and the log are read into memory, without validating the rule sets against
+ * their schema again. An incomplete entry at the end of the log, left by a crash while appending, is discarded by an
+ * immediate compaction.
+ * </p>
+ */
+public class FileRuleSetRepository implements RuleSetRepository, Closeable {
+
+    static final String SNAPSHOT_FILE = "rulesets.snapshot";
+    static final String LOG_FILE = "rulesets.log";
+
+    private static final String PERSIST = "persist";
+    private static final String DELETE = "delete";
+
+    private final Path snapshot;
+    private final Path log;
+    private final ObjectMapper objectMapper;
+    private final int compactionThreshold;
+
+    /**
+     * Map of {@link RuleSet}s with their respective name in order of their creation
+     */
+    private final Map<String, RuleSet> ruleSets = new LinkedHashMap<>();
+
+    private final FileChannel logChannel;
+    private int logEntries;
+
+    /**
+     * Opens the repository and reads all persisted rule sets.
+     *
+     * @param directory           directory of the snapshot and log files, created if missing
+     * @param objectMapper        mapper with the {@link RuleSet} serialization
+     * @param compactionThreshold number of log entries that trigger a compaction
+     * @throws IOException if the files could not be read
+     */
+    public FileRuleSetRepository(Path directory, ObjectMapper objectMapper, int compactionThreshold)
+            throws IOException {
+        this.snapshot = directory.resolve(SNAPSHOT_FILE);
+        this.log = directory.resolve(LOG_FILE);
+        this.objectMapper = objectMapper;
+        this.compactionThreshold = compactionThreshold;
+
+        Files.createDirectories(directory);
+        readSnapshot();
+        boolean complete = readLog();
+
+        this.logChannel = FileChannel.open(log, CREATE, WRITE, APPEND);
+
+        if (!complete) {
+            compact();
+        }
+    }
+
+    @Override
+    public synchronized RuleSet persist(RuleSet ruleSet) {
+        Objects.requireNonNull(ruleSet.getName());
+        Objects.requireNonNull(ruleSet.getDescription());
+
+        ObjectNode entry = objectMapper.createObjectNode();
+        entry.set(PERSIST, objectMapper.valueToTree(ruleSet));
+        append(entry);
+
+        ruleSets.put(ruleSet.getName(), ruleSet);
+        compactIfNecessary();
+
+        return ruleSet;
+    }
+
+    @Override
+    public synchronized List<RuleSet> getAll() {
+        return new ArrayList<>(ruleSets.values());
+    }
+
+    @Override
+    public synchronized Optional<RuleSet> getByName(String name) {
+        return Optional.ofNullable(ruleSets.get(name));
+    }
+
+    @Override
+    public void delete(RuleSet ruleSet) {
+        deleteByName(ruleSet.getName());
+    }
+
+    @Override
+    public synchronized void deleteByName(String name) {
+        if (!ruleSets.containsKey(name)) {
+            return;
+        }
+
+        ObjectNode entry = objectMapper.createObjectNode();
+        entry.put(DELETE, name);
+        append(entry);
+
+        ruleSets.remove(name);
+        compactIfNecessary();
+    }
+
+    /**
+     * Writes all rule sets to a new snapshot and truncates the log. The snapshot is replaced atomically; if the
+     * process stops before the log is truncated, replaying the log on the new snapshot yields the same rule sets.
+     */
+    public synchronized void compact() {
+        Path tempSnapshot = snapshot.resolveSibling(SNAPSHOT_FILE + ".tmp");
+
+        try {
+            try (FileChannel channel = FileChannel.open(tempSnapshot, CREATE, WRITE, TRUNCATE_EXISTING);
+                 OutputStream output = new BufferedOutputStream(Channels.newOutputStream(channel))) {
+                ObjectWriter writer = objectMapper.writer()
+                        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .withRootValueSeparator("\n");
+
+                try (SequenceWriter values = writer.writeValues(output)) {
+                    values.writeAll(ruleSets.values());
+                }
+
+                output.flush();
+                channel.force(true);
+            }
+
+            Files.move(tempSnapshot, snapshot, ATOMIC_MOVE, REPLACE_EXISTING);
+
+            logChannel.truncate(0);
+            logChannel.force(true);
+            logEntries = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compact rule sets", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        logChannel.close();
+    }
+
+    /**
+     * Appends an entry to the log and syncs it to disk.
+     *
+     * @param entry log entry
+     */
+    private void append(ObjectNode entry) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(entry);
+            ByteBuffer buffer = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+
+            while (buffer.hasRemaining()) {
+                logChannel.write(buffer);
+            }
+
+            logChannel.force(false);
+            logEntries++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not persist rule set", e);
+        }
+    }
+
+    private void compactIfNecessary() {
+        if (logEntries >= compactionThreshold) {
+            compact();
+        }
+    }
+
+    /**
+     * Reads all rule sets of the memory-mapped snapshot.
+     *
+     * @throws IOException if the snapshot could not be read
+     */
+    private void readSnapshot() throws IOException {
+        if (!Files.exists(snapshot)) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshot, READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            try (MappingIterator<RuleSet> iterator = objectMapper.readerFor(RuleSet.class)
+                    .readValues(new ByteBufferBackedInputStream(buffer))) {
+                while (iterator.hasNextValue()) {
+                    RuleSet ruleSet = iterator.nextValue();
+                    ruleSets.put(ruleSet.getName(), ruleSet);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replays the log on the rule sets of the snapshot. Every complete entry ends with a line break.
+     *
+     * @return false if the log ends with an incomplete entry
+     * @throws IOException if the log could not be read
+     */
+    private boolean readLog() throws IOException {
+        if (!Files.exists(log)) {
+            return true;
+        }
+
+        byte[] content = Files.readAllBytes(log);
+        int offset = 0;
+
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] == '\n') {
+                replay(objectMapper.readTree(content, offset, i - offset));
+                offset = i + 1;
+            }
+        }
+
+        return offset == content.length;
+    }
+
+    /**
+     * Applies a log entry to the rule sets.
+     *
+     * @param entry log entry
+     * @throws JsonProcessingException if the rule set could not be read
+     */
+    private void replay(JsonNode entry) throws JsonProcessingException {
+        if (entry.has(PERSIST)) {
+            RuleSet ruleSet = objectMapper.treeToValue(entry.get(PERSIST), RuleSet.class);
+            ruleSets.put(ruleSet.getName(), ruleSet);
+        } else if (entry.has(DELETE)) {
+            ruleSets.remove(entry.get(DELETE).asText());
+        }
+
+        logEntries++;
+    }
+}
@@ -3,17 +3,19 @@ package com.github.jazzschmidt.spring.jsonvalidation.web;
 import com.github.jazzschmidt.spring.jsonvalidation.RuleSet;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Holds the {@link RuleSet} instances in memory. This is a very simple implementation that allows for overwriting
- * {@link RuleSet}s and does not permanently persist them.
+ * {@link RuleSet}s and does not permanently persist them. It can safely be
+ * accessed concurrently.
  */
 public class InMemoryRuleSetRepository implements RuleSetRepository {
 
     /**
      * Map of {@link RuleSet}s with their respective name
      */
-    private final Map<String, RuleSet> ruleSets = new HashMap<>();
+    private final Map<String, RuleSet> ruleSets = new ConcurrentHashMap<>();
 
     @Override
     public RuleSet persist(RuleSet ruleSet) {
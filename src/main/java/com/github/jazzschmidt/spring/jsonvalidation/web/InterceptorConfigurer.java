@@ -2,11 +2,16 @@ package com.github.jazzschmidt.spring.jsonvalidation.web;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 /**
- * Configures Spring to use the {@link ValidatorHandlerInterceptor}.
+ * Configures Spring to use the {@link ValidatorHandlerInterceptor} and the {@link ValidatedJsonHttpMessageConverter}.
  */
 @Configuration
 public class InterceptorConfigurer implements WebMvcConfigurer {
@@ -22,4 +27,28 @@ public class InterceptorConfigurer implements WebMvcConfigurer {
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(validatorHandlerInterceptor);
     }
+
+    /**
+     * Replaces the default Jackson converters with {@link ValidatedJsonHttpMessageConverter}s using the same {@link
+     * com.fasterxml.jackson.databind.ObjectMapper}, so that validated request bodies are not parsed twice. The
+     * replacements take over all settings of the default converters, e.g. their media types, charset, JSON prefix and
+     * pretty printing.
+     *
+     * @param converters configured converters
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            HttpMessageConverter<?> converter = converters.get(i);
+
+            if (converter.getClass() == MappingJackson2HttpMessageConverter.class) {
+                MappingJackson2HttpMessageConverter jsonConverter = (MappingJackson2HttpMessageConverter) converter;
+                ValidatedJsonHttpMessageConverter validatedConverter =
+                        new ValidatedJsonHttpMessageConverter(jsonConverter.getObjectMapper());
+                ReflectionUtils.shallowCopyFieldState(jsonConverter, validatedConverter);
+
+                converters.set(i, validatedConverter);
+            }
+        }
+    }
 }
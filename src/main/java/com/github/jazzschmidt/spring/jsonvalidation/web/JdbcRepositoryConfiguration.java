@@ -0,0 +1,29 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Stores the {@link com.github.jazzschmidt.spring.jsonvalidation.RuleSet}s in the database of the application if
+ * {@code jsonvalidation.repository-jdbc} is enabled and Spring JDBC is on the classpath.
+ */
+@Configuration
+@ConditionalOnClass(name = "org.springframework.jdbc.core.JdbcTemplate")
+@ConditionalOnProperty(name = "jsonvalidation.repository-jdbc", havingValue = "true")
+public class JdbcRepositoryConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(RuleSetRepository.class)
+    public JdbcRuleSetRepository jdbcRuleSetRepository(DataSource dataSource, ObjectMapper objectMapper) {
+        JdbcRuleSetRepository repository = new JdbcRuleSetRepository(dataSource, objectMapper);
+        repository.createTables();
+
+        return repository;
+    }
+}
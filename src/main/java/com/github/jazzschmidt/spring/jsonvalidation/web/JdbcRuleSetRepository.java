@@ -0,0 +1,286 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSet;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Stores {@link RuleSet}s in a database shared by several instances of an application. Every change increments the
+ * catalog version of the database and marks the changed row with it; deleted rule sets are kept as tombstones, so that
+ * other instances learn about their deletion.
+ * <p>
+ * All reads are served from a local cache, that is filled by the first {@link #poll()}. Polling only queries the
+ * catalog version, and fetches the rows changed since the last poll if it has increased.
+ * </p>
+ */
+public class JdbcRuleSetRepository implements SharedRuleSetRepository {
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS jsonvalidation_catalog ("
+                    + "id INT PRIMARY KEY, "
+                    + "version BIGINT NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS jsonvalidation_rule_set ("
+                    + "name VARCHAR(255) PRIMARY KEY, "
+                    + "content TEXT, "
+                    + "version BIGINT NOT NULL, "
+                    + "deleted BOOLEAN NOT NULL)"
+    };
+
+    private static final Log logger = LogFactory.getLog(JdbcRuleSetRepository.class);
+
+    private static final String SELECT_VERSION = "SELECT version FROM jsonvalidation_catalog WHERE id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Cached {@link RuleSet}s with their respective name
+     */
+    private final Map<String, StoredRuleSet> ruleSets = new LinkedHashMap<>();
+
+    /**
+     * Catalog version up to which all changes are cached
+     */
+    private long version;
+
+    /**
+     * Creates a repository on a database
+     *
+     * @param dataSource   database
+     * @param objectMapper mapper with the {@link RuleSet} serialization
+     */
+    public JdbcRuleSetRepository(DataSource dataSource, ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Creates the tables if they do not exist yet.
+     */
+    public void createTables() {
+        for (String statement : SCHEMA) {
+            jdbcTemplate.execute(statement);
+        }
+
+        try {
+            jdbcTemplate.update("INSERT INTO jsonvalidation_catalog (id, version) VALUES (1, 0)");
+        } catch (DuplicateKeyException e) {
+            // Created by another instance
+        }
+    }
+
+    @Override
+    public synchronized RuleSet persist(RuleSet ruleSet) {
+        Objects.requireNonNull(ruleSet.getName());
+        Objects.requireNonNull(ruleSet.getDescription());
+
+        String content;
+
+        try {
+            content = objectMapper.writeValueAsString(ruleSet);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Could not serialize rule set " + ruleSet.getName(), e);
+        }
+
+        long written = write(ruleSet.getName(), content, false);
+        ruleSets.put(ruleSet.getName(), new StoredRuleSet(ruleSet, written));
+        advance(written);
+
+        return ruleSet;
+    }
+
+    @Override
+    public synchronized List<RuleSet> getAll() {
+        List<RuleSet> all = new ArrayList<>(ruleSets.size());
+        ruleSets.values().forEach(stored -> all.add(stored.ruleSet));
+
+        return all;
+    }
+
+    @Override
+    public synchronized Optional<RuleSet> getByName(String name) {
+        return Optional.ofNullable(ruleSets.get(name)).map(stored -> stored.ruleSet);
+    }
+
+    @Override
+    public void delete(RuleSet ruleSet) {
+        deleteByName(ruleSet.getName());
+    }
+
+    @Override
+    public synchronized void deleteByName(String name) {
+        if (ruleSets.remove(name) != null) {
+            advance(write(name, null, true));
+        }
+    }
+
+    /**
+     * Fetches the rows changed since the last poll and applies them to the cache in a single step, so that a failing
+     * query leaves the cache untouched and is simply repeated by the next poll. A row that cannot be deserialized, e.g.
+     * since it uses a component unknown to this instance, is skipped and the previous rule set is kept.
+     *
+     * @return changes since the last poll
+     */
+    @Override
+    public synchronized Changes poll() {
+        Long current = jdbcTemplate.queryForObject(SELECT_VERSION, Long.class);
+
+        if (current == null || current == version) {
+            return Changes.NONE;
+        }
+
+        // Rows up to the current version are committed, later ones are fetched by the next poll
+        List<Row> rows = jdbcTemplate.query("SELECT name, content, version, deleted FROM jsonvalidation_rule_set "
+                        + "WHERE version > ? AND version <= ? ORDER BY version",
+                (resultSet, rowNum) -> new Row(resultSet.getString("name"), resultSet.getString("content"),
+                        resultSet.getLong("version"), resultSet.getBoolean("deleted")),
+                version, current);
+
+        Map<String, StoredRuleSet> changed = new LinkedHashMap<>();
+
+        for (Row row : rows) {
+            StoredRuleSet cached = ruleSets.get(row.name);
+
+            if (cached != null && cached.version >= row.version) {
+                continue;
+            }
+
+            if (row.deleted) {
+                changed.put(row.name, null);
+                continue;
+            }
+
+            try {
+                changed.put(row.name, new StoredRuleSet(read(row.content), row.version));
+            } catch (RuntimeException e) {
+                logger.warn("Could not read rule set " + row.name + " of version " + row.version, e);
+            }
+        }
+
+        List<RuleSet> removed = new ArrayList<>();
+        List<RuleSet> added = new ArrayList<>();
+
+        changed.forEach((name, stored) -> {
+            StoredRuleSet cached = stored == null ? ruleSets.remove(name) : ruleSets.put(name, stored);
+
+            if (cached != null) {
+                removed.add(cached.ruleSet);
+            }
+
+            if (stored != null) {
+                added.add(stored.ruleSet);
+            }
+        });
+
+        version = current;
+
+        return new Changes(removed, added);
+    }
+
+    @Override
+    public synchronized void revert(RuleSet added, @Nullable RuleSet previous) {
+        StoredRuleSet stored = ruleSets.get(added.getName());
+
+        if (stored == null || stored.ruleSet != added) {
+            return;
+        }
+
+        // Keeps the version, so that later changes of the rule set are still polled
+        if (previous == null) {
+            ruleSets.remove(added.getName());
+        } else {
+            ruleSets.put(added.getName(), new StoredRuleSet(previous, stored.version));
+        }
+    }
+
+    /**
+     * Writes a rule set row with the next catalog version. Writers are serialized by the lock on the catalog row.
+     *
+     * @param name    name of the rule set
+     * @param content serialized rule set or null if deleted
+     * @param deleted whether the rule set is deleted
+     * @return catalog version of the change
+     */
+    private long write(String name, String content, boolean deleted) {
+        Long written = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("UPDATE jsonvalidation_catalog SET version = version + 1 WHERE id = 1");
+            Long next = jdbcTemplate.queryForObject(SELECT_VERSION, Long.class);
+
+            int updated = jdbcTemplate.update(
+                    "UPDATE jsonvalidation_rule_set SET content = ?, version = ?, deleted = ? WHERE name = ?",
+                    content, next, deleted, name);
+
+            if (updated == 0) {
+                jdbcTemplate.update(
+                        "INSERT INTO jsonvalidation_rule_set (name, content, version, deleted) VALUES (?, ?, ?, ?)",
+                        name, content, next, deleted);
+            }
+
+            return next;
+        });
+
+        return Objects.requireNonNull(written);
+    }
+
+    /**
+     * Advances the cached version past an own change, unless changes of other instances are still to be polled.
+     *
+     * @param written catalog version of the own change
+     */
+    private void advance(long written) {
+        if (written == version + 1) {
+            version = written;
+        }
+    }
+
+    private RuleSet read(String content) {
+        try {
+            return objectMapper.readValue(content, RuleSet.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Could not deserialize rule set", e);
+        }
+    }
+
+    /**
+     * Row of a rule set as fetched by a poll
+     */
+    private static final class Row {
+        private final String name;
+        private final String content;
+        private final long version;
+        private final boolean deleted;
+
+        private Row(String name, String content, long version, boolean deleted) {
+            this.name = name;
+            this.content = content;
+            this.version = version;
+            this.deleted = deleted;
+        }
+    }
+
+    /**
+     * Cached rule set with the catalog version of its last change
+     */
+    private static final class StoredRuleSet {
+        private final RuleSet ruleSet;
+        private final long version;
+
+        private StoredRuleSet(RuleSet ruleSet, long version) {
+            this.ruleSet = ruleSet;
+            this.version = version;
+        }
+    }
+}
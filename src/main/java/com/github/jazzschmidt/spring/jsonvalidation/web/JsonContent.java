@@ -0,0 +1,205 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.github.jazzschmidt.spring.jsonvalidation.JsonSource;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.lang.Nullable;
+
+import javax.servlet.ServletRequest;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Captured body of a single request. The bytes are held in a buffer of the {@link JsonContentBufferPool}, or in a
+ * memory-mapped temporary file if the body exceeds the spill threshold. Both are only valid until the request has
+ * passed the {@link JsonContentFilter}, and are never decoded unless the text is requested explicitly.
+ */
+public final class JsonContent implements JsonSource {
+
+    /**
+     * Request attribute holding the content of the current request
+     */
+    public static final String ATTRIBUTE = JsonContent.class.getName();
+
+    private static final Log logger = LogFactory.getLog(JsonContent.class);
+
+    private final byte[] buffer;
+    private final ByteBuffer mapped;
+    private final FileChannel file;
+    private final int length;
+    private final Charset charset;
+
+    /**
+     * Hash of the bytes held in memory, computed while they were captured or on first use
+     */
+    private long hash;
+    private boolean hashed;
+
+    JsonContent(byte[] buffer, int length, Charset charset) {
+        this(buffer, null, null, length, charset);
+    }
+
+    JsonContent(byte[] buffer, int length, Charset charset, long hash) {
+        this(buffer, null, null, length, charset);
+        this.hash = hash;
+        this.hashed = true;
+    }
+
+    JsonContent(ByteBuffer mapped, int length, Charset charset, FileChannel file) {
+        this(null, mapped, file, length, charset);
+    }
+
+    private JsonContent(@Nullable byte[] buffer, @Nullable ByteBuffer mapped, @Nullable FileChannel file, int length,
+                        Charset charset) {
+        this.buffer = buffer;
+        this.mapped = mapped;
+        this.file = file;
+        this.length = length;
+        this.charset = charset;
+    }
+
+    /**
+     * Returns the content that was captured for a request by the {@link JsonContentFilter}
+     *
+     * @param request HTTP request
+     * @return content or null if the request was not captured
+     */
+    @Nullable
+    public static JsonContent from(ServletRequest request) {
+        return (JsonContent) request.getAttribute(ATTRIBUTE);
+    }
+
+    /**
+     * Returns the number of bytes of the content
+     *
+     * @return length
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the encoding of the content
+     *
+     * @return charset
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Decodes the content. Spilled content is decoded into a single string on the heap as well, so large bodies should
+     * rather be read by {@link #newInputStream()} or {@link #createParser(JsonFactory)}.
+     *
+     * @return Body of the request
+     */
+    public String getText() {
+        if (buffer == null) {
+            return charset.decode(mapped.duplicate()).toString();
+        }
+
+        return new String(buffer, 0, length, charset);
+    }
+
+    /**
+     * Checks if the bytes are held in memory rather than in a temporary file
+     *
+     * @return true if the content was not spilled
+     */
+    public boolean isInMemory() {
+        return buffer != null;
+    }
+
+    /**
+     * Returns the {@link ContentHash} of the bytes held in memory.
+     *
+     * @return hash
+     */
+    long getHash() {
+        if (!hashed) {
+            hash = ContentHash.of(buffer, length);
+            hashed = true;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Returns a new stream of the bytes, which does not copy the buffer.
+     *
+     * @return input stream
+     */
+    public InputStream newInputStream() {
+        if (buffer == null) {
+            return new ByteBufferBackedInputStream(mapped.duplicate());
+        }
+
+        return new ByteArrayInputStream(buffer, 0, length);
+    }
+
+    /**
+     * Creates a parser of the content. UTF-8 content is parsed directly from the buffer, any other encoding is decoded
+     * on the fly.
+     *
+     * @param factory factory of the parser
+     * @return parser
+     * @throws IOException if the parser could not be created
+     */
+    @Override
+    public JsonParser createParser(JsonFactory factory) throws IOException {
+        if (StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset)) {
+            return buffer != null ? factory.createParser(buffer, 0, length) : factory.createParser(newInputStream());
+        }
+
+        return factory.createParser(new InputStreamReader(newInputStream(), charset));
+    }
+
+    /**
+     * Returns the buffer holding the bytes
+     *
+     * @return buffer or null if the content was spilled to a file
+     */
+    @Nullable
+    byte[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Returns the buffer to the pool or deletes the temporary file of spilled content.
+     *
+     * @param bufferPool pool of the buffer
+     */
+    void release(JsonContentBufferPool bufferPool) {
+        if (buffer != null) {
+            bufferPool.release(buffer);
+        } else {
+            close(file);
+        }
+    }
+
+    /**
+     * Closes a temporary file, which deletes it.
+     *
+     * @param file temporary file or null
+     */
+    static void close(@Nullable FileChannel file) {
+        if (file == null) {
+            return;
+        }
+
+        try {
+            file.close();
+        } catch (IOException e) {
+            logger.warn("Could not delete spilled request body", e);
+        }
+    }
+}
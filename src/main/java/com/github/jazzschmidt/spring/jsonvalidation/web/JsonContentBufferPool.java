@@ -0,0 +1,69 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web;
+
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValidationConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of the byte buffers that hold the captured request bodies. Buffers of the default size are reused, while
+ * larger buffers are only allocated for larger bodies and left to the garbage collector afterwards.
+ */
+@Component
+public class JsonContentBufferPool {
+
+    /**
+     * Size of the pooled buffers
+     */
+    static final int BUFFER_SIZE = 8 * 1024;
+
+    private final BlockingQueue<byte[]> buffers;
+
+    @Autowired
+    public JsonContentBufferPool(JsonValidationConfiguration configuration) {
+        this(configuration.getContentBufferPoolSize());
+    }
+
+    JsonContentBufferPool(int capacity) {
+        this.buffers = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+    }
+
+    /**
+     * Takes a buffer from the pool or allocates a new one when the pool is empty or the buffer needs to be larger than
+     * the pooled ones.
+     *
+     * @param minimumSize minimum size of the buffer
+     * @return buffer
+     */
+    public byte[] acquire(int minimumSize) {
+        if (minimumSize > BUFFER_SIZE) {
+            return new byte[minimumSize];
+        }
+
+        byte[] buffer = buffers.poll();
+        return buffer != null ? buffer : new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * Returns a buffer to the pool. Buffers that are not of the pooled size or exceed the capacity of the pool are
+     * discarded.
+     *
+     * @param buffer buffer
+     */
+    public void release(byte[] buffer) {
+        if (buffer.length == BUFFER_SIZE) {
+            buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Returns the number of buffers that are currently available for reuse
+     *
+     * @return number of pooled buffers
+     */
+    public int available() {
+        return buffers.size();
+    }
+}
@@ -1,22 +1,95 @@
 package com.github.jazzschmidt.spring.jsonvalidation.web;
 
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValidationConfiguration;
+import com.github.jazzschmidt.spring.jsonvalidation.ValidationMetrics;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 /**
  * Servlet Filter that wraps the {@link ServletRequest} in {@link JsonContentHttpRequestWrapper} in order to provide the
- * requests content via the wrapper to the {@link ValidatorHandlerInterceptor}.
+ * requests content via the wrapper to the {@link ValidatorHandlerInterceptor}. The content is captured into a buffer
+ * of the {@link JsonContentBufferPool}, or into a temporary file beyond the spill threshold, that is released as soon
+ * as the request has been processed. Requests with a body exceeding the maximum content length are rejected.
+ * <p>
+ * The filter has to be registered for {@link DispatcherType#ASYNC} dispatches as well, in order to resume requests
+ * whose content was captured asynchronously. If a handler processes the request asynchronously, the content is only
+ * released once the asynchronous processing completes.
+ * </p>
  */
 @Component
 public class JsonContentFilter implements Filter {
 
+    private static final Log logger = LogFactory.getLog(JsonContentFilter.class);
+
+    /**
+     * Request attribute marking a request whose content is released once its asynchronous processing completes
+     */
+    private static final String RELEASE_ATTRIBUTE = JsonContentFilter.class.getName() + ".release";
+
+    private final JsonContentBufferPool bufferPool;
+    private final long maxContentLength;
+    private final ValidationMetrics metrics;
+    private final boolean asyncCapture;
+    private final long asyncCaptureTimeout;
+    private final long spillThreshold;
+    private final Path spillDirectory;
+
+    /**
+     * Mappings of the validated handlers or null if every request is captured
+     */
+    private final ValidatedHandlerMappings handlerMappings;
+
+    public JsonContentFilter(JsonContentBufferPool bufferPool, JsonValidationConfiguration configuration) {
+        this(bufferPool, configuration, ValidationMetrics.NOOP, null);
+    }
+
+    @Autowired
+    public JsonContentFilter(JsonContentBufferPool bufferPool, JsonValidationConfiguration configuration,
+                             ObjectProvider<ValidationMetrics> metrics, ValidatedHandlerMappings handlerMappings) {
+        this(bufferPool, configuration, metrics.getIfAvailable(() -> ValidationMetrics.NOOP), handlerMappings);
+    }
+
+    private JsonContentFilter(JsonContentBufferPool bufferPool, JsonValidationConfiguration configuration,
+                              ValidationMetrics metrics, @Nullable ValidatedHandlerMappings handlerMappings) {
+        this.bufferPool = bufferPool;
+        this.metrics = metrics;
+        this.handlerMappings = handlerMappings;
+        this.asyncCapture = configuration.isAsyncCapture();
+        this.asyncCaptureTimeout = Math.max(configuration.getAsyncCaptureTimeout().toMillis(), 0);
+        // Buffers and mapped files are limited to the maximum array size, even if no maximum is configured
+        DataSize configuredMaximum = configuration.getMaxContentLength();
+        this.maxContentLength = Math.min(configuredMaximum != null ? configuredMaximum.toBytes() : Long.MAX_VALUE,
+                Integer.MAX_VALUE - 9);
+        this.spillThreshold = Math.max(configuration.getContentSpillThreshold().toBytes(), 1);
+        this.spillDirectory = configuration.getContentSpillDirectory();
+
+        if (spillThreshold >= maxContentLength) {
+            logger.warn("The content spill threshold is not below the maximum content length, so that request bodies "
+                    + "are never spilled to a file");
+        }
+    }
+
     /**
-     * Wraps the request with the {@link JsonContentHttpRequestWrapper} if it is eligible for JSON validation.
+     * Wraps the request with the {@link JsonContentHttpRequestWrapper} if it is eligible for JSON validation. With
+     * asynchronous capture, the body is read by a {@link ReadListener} and the request is dispatched again once it is
+     * complete, so that no thread is held while a slow client uploads its body.
      *
      * @param request  HTTP request
      * @param response HTTP response
@@ -29,13 +102,131 @@ public class JsonContentFilter implements Filter {
             throws IOException, ServletException {
         HttpServletRequest httpRequest = (HttpServletRequest) request;
 
-        if (isRequestWithJsonBody(httpRequest)) {
-            JsonContentHttpRequestWrapper requestWrapper = new JsonContentHttpRequestWrapper(httpRequest);
-            chain.doFilter(requestWrapper, response);
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            JsonContent content = JsonContent.from(request);
+
+            if (content == null) {
+                chain.doFilter(request, response);
+            } else if (request.getAttribute(RELEASE_ATTRIBUTE) != null) {
+                // Dispatched by an asynchronous handler, whose processing releases the content eventually
+                chain.doFilter(new JsonContentHttpRequestWrapper(httpRequest, content), response);
+            } else {
+                // Resumes a request whose content was captured asynchronously
+                proceed(httpRequest, response, chain, content);
+            }
+            return;
+        }
+
+        // Requests to handlers without validation are streamed untouched
+        if (!isRequestWithJsonBody(httpRequest)
+                || handlerMappings != null && !handlerMappings.isValidated(httpRequest)) {
+            chain.doFilter(request, response);
             return;
         }
 
-        chain.doFilter(request, response);
+        if (asyncCapture && request.isAsyncSupported()) {
+            if (httpRequest.getContentLengthLong() > maxContentLength) {
+                ((HttpServletResponse) response).sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+                return;
+            }
+
+            AsyncContext asyncContext = request.startAsync();
+            // Replaces the default timeout of the container, that would abort slow uploads
+            asyncContext.setTimeout(asyncCaptureTimeout);
+
+            new AsyncCapture(httpRequest, asyncContext).listen();
+            return;
+        }
+
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+        JsonContent content = capture(httpRequest);
+
+        if (metrics.isEnabled()) {
+            metrics.recordPhase(ValidationMetrics.Phase.CAPTURE, System.nanoTime() - start);
+        }
+
+        if (content == null) {
+            ((HttpServletResponse) response).sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            return;
+        }
+
+        proceed(httpRequest, response, chain, content);
+    }
+
+    /**
+     * Passes the request with its captured content on to the filter chain and releases the content afterwards, or once
+     * the asynchronous processing of the request completes, as an asynchronous handler might still read the content.
+     *
+     * @param request  HTTP request
+     * @param response HTTP response
+     * @param chain    Servlet filter chain
+     * @param content  captured content
+     * @throws IOException      if an I/O error occurs during the processing of the request
+     * @throws ServletException if the processing fails for any other reason
+     */
+    private void proceed(HttpServletRequest request, ServletResponse response, FilterChain chain, JsonContent content)
+            throws IOException, ServletException {
+        try {
+            JsonContentHttpRequestWrapper requestWrapper = new JsonContentHttpRequestWrapper(request, content);
+            chain.doFilter(requestWrapper, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.setAttribute(RELEASE_ATTRIBUTE, Boolean.TRUE);
+                request.getAsyncContext().addListener(new ContentRelease(content));
+            } else {
+                request.removeAttribute(JsonContent.ATTRIBUTE);
+                content.release(bufferPool);
+            }
+        }
+    }
+
+    /**
+     * Consumes the body of the request into a pooled buffer, that grows as needed and is spilled to a temporary file
+     * beyond the spill threshold.
+     *
+     * @param request HTTP request
+     * @return content of the request or null if it exceeds the maximum content length
+     * @throws IOException if any I/O error occurs while reading the input stream
+     */
+    private JsonContent capture(HttpServletRequest request) throws IOException {
+        long contentLength = request.getContentLengthLong();
+
+        if (contentLength > maxContentLength) {
+            return null;
+        }
+
+        ContentCapture capture = newCapture(contentLength);
+
+        try {
+            InputStream stream = request.getInputStream();
+
+            while (capture.read(stream) != -1) {
+                if (capture.isTooLarge()) {
+                    capture.discard();
+                    return null;
+                }
+            }
+
+            return capture.finish(getCharset(request));
+        } catch (IOException | RuntimeException e) {
+            capture.discard();
+            throw e;
+        }
+    }
+
+    private ContentCapture newCapture(long contentLength) {
+        return new ContentCapture(bufferPool, maxContentLength, spillThreshold, spillDirectory, contentLength);
+    }
+
+    /**
+     * Returns the encoding of the request, which defaults to UTF-8 for JSON.
+     *
+     * @param request HTTP request
+     * @return charset
+     */
+    private Charset getCharset(HttpServletRequest request) {
+        String encoding = request.getCharacterEncoding();
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
     }
 
     /**
@@ -54,4 +245,150 @@ public class JsonContentFilter implements Filter {
 
         return contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON_VALUE);
     }
+
+    /**
+     * Releases the content of an asynchronously processed request once the processing completes, which follows any
+     * timeout or error as well.
+     */
+    private final class ContentRelease implements AsyncListener {
+        private final JsonContent content;
+
+        private ContentRelease(JsonContent content) {
+            this.content = content;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            content.release(bufferPool);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // Completed afterwards
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // Completed afterwards
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Listeners have to register again if the asynchronous processing is restarted
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /**
+     * Reads the body of an asynchronous request whenever the container signals available data, just as {@link
+     * #capture(HttpServletRequest)} does. Once all data is read, the request is dispatched again with its captured
+     * content. If the asynchronous request times out or fails before, the capture is discarded. The container may call
+     * the listeners on different threads, so they are synchronized.
+     */
+    private final class AsyncCapture implements ReadListener, AsyncListener {
+        private final HttpServletRequest request;
+        private final AsyncContext asyncContext;
+        private final ServletInputStream stream;
+        private final ContentCapture capture;
+        private final long start = System.nanoTime();
+
+        private boolean finished;
+
+        private AsyncCapture(HttpServletRequest request, AsyncContext asyncContext) throws IOException {
+            this.request = request;
+            this.asyncContext = asyncContext;
+            this.stream = request.getInputStream();
+            this.capture = newCapture(request.getContentLengthLong());
+        }
+
+        /**
+         * Registers this listener, which is called as soon as data can be read without blocking.
+         */
+        private void listen() {
+            asyncContext.addListener(this);
+            stream.setReadListener(this);
+        }
+
+        @Override
+        public synchronized void onDataAvailable() throws IOException {
+            while (!finished && stream.isReady() && capture.read(stream) != -1) {
+                if (capture.isTooLarge()) {
+                    reject(HttpStatus.PAYLOAD_TOO_LARGE);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public synchronized void onAllDataRead() throws IOException {
+            if (finished) {
+                return;
+            }
+
+            finished = true;
+            JsonContent content;
+
+            try {
+                content = capture.finish(getCharset(request));
+            } catch (IOException | RuntimeException e) {
+                capture.discard();
+                throw e;
+            }
+
+            if (metrics.isEnabled()) {
+                metrics.recordPhase(ValidationMetrics.Phase.CAPTURE, System.nanoTime() - start);
+            }
+
+            request.setAttribute(JsonContent.ATTRIBUTE, content);
+            asyncContext.dispatch();
+        }
+
+        @Override
+        public synchronized void onError(Throwable t) {
+            if (finished) {
+                return;
+            }
+
+            finished = true;
+            capture.discard();
+            asyncContext.complete();
+        }
+
+        @Override
+        public synchronized void onTimeout(AsyncEvent event) throws IOException {
+            if (!finished) {
+                reject(HttpStatus.REQUEST_TIMEOUT);
+            }
+        }
+
+        @Override
+        public synchronized void onError(AsyncEvent event) {
+            if (!finished) {
+                finished = true;
+                capture.discard();
+            }
+        }
+
+        @Override
+        public synchronized void onComplete(AsyncEvent event) {
+            // Completed by the container before the body was read
+            if (!finished) {
+                finished = true;
+                capture.discard();
+            }
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Not restarted
+        }
+
+        private void reject(HttpStatus status) throws IOException {
+            finished = true;
+            capture.discard();
+
+            ((HttpServletResponse) asyncContext.getResponse()).sendError(status.value());
+            asyncContext.complete();
+        }
+    }
 }
@@ -5,73 +5,49 @@ import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 import java.io.*;
-import java.nio.charset.Charset;
 
 /**
- * Wraps a {@link HttpServletRequest}, consumes its content and statically provides it to the current thread, so that
- * any operation on that content will not affect the {@link InputStream} consuming Servlet request candidates.
+ * Wraps a {@link HttpServletRequest} whose content was consumed into a {@link JsonContent} and provides that content
+ * as request attribute, so that any operation on that content will not affect the {@link InputStream} consuming
+ * Servlet request candidates. The replayed stream supports non-blocking reads with a {@link ReadListener} as well.
  */
 public class JsonContentHttpRequestWrapper extends HttpServletRequestWrapper {
 
     /**
-     * Plain content of the current request
+     * Captured content of the request
      */
-    private static String content;
-
-    /**
-     * Encoding of the request
-     */
-    private final Charset encoding;
+    private final JsonContent content;
 
     /**
      * Constructs a request object wrapping the given request.
      *
      * @param request The request to wrap
+     * @param content The captured content of the request
      * @throws IllegalArgumentException if the request is null
      */
-    public JsonContentHttpRequestWrapper(HttpServletRequest request) throws IOException {
+    public JsonContentHttpRequestWrapper(HttpServletRequest request, JsonContent content) {
         super(request);
-        encoding = Charset.forName(request.getCharacterEncoding());
-        content = readInputStream(request.getInputStream(), encoding);
+        this.content = content;
+        request.setAttribute(JsonContent.ATTRIBUTE, content);
     }
 
     /**
-     * Returns the content of the current request if charged via Servlet filter chain
+     * Returns the captured content of the request
      *
      * @return Body of the request
      */
-    public static String getContent() {
+    public JsonContent getContent() {
         return content;
     }
 
-    /**
-     * Consumes the {@link InputStream} of the request.
-     *
-     * @param stream  HTTP request input stream
-     * @param charset Encoding of the content
-     * @return Content of the request body
-     * @throws IOException if any I/O error occurs while reading the input stream
-     */
-    private String readInputStream(InputStream stream, Charset charset) throws IOException {
-        if (!stream.markSupported()) {
-            stream = new BufferedInputStream(stream);
-        }
-
-        stream.mark(0);
-        final byte[] entity = stream.readAllBytes();
-        stream.reset();
-
-        return new String(entity, charset);
-    }
-
     @Override
     public BufferedReader getReader() throws IOException {
-        return new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+        return new BufferedReader(new InputStreamReader(getInputStream(), content.getCharset()));
     }
 
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        final ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(content.getBytes());
+        final InputStream inputStream = content.newInputStream();
 
         return new ServletInputStream() {
             private boolean finished = false;
@@ -83,13 +59,13 @@ public class JsonContentHttpRequestWrapper extends HttpServletRequestWrapper {
 
             @Override
             public int available() throws IOException {
-                return byteArrayInputStream.available();
+                return inputStream.available();
             }
 
             @Override
             public void close() throws IOException {
                 super.close();
-                byteArrayInputStream.close();
+                inputStream.close();
             }
 
             @Override
@@ -97,18 +73,44 @@ public class JsonContentHttpRequestWrapper extends HttpServletRequestWrapper {
                 return true;
             }
 
+            /**
+             * Notifies the listener right away, since the captured content can always be read without blocking.
+             *
+             * @param readListener listener
+             */
             @Override
             public void setReadListener(ReadListener readListener) {
-                throw new UnsupportedOperationException();
+                try {
+                    if (inputStream.available() > 0) {
+                        readListener.onDataAvailable();
+                    }
+
+                    if (inputStream.available() == 0) {
+                        finished = true;
+                        readListener.onAllDataRead();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    readListener.onError(e);
+                }
             }
 
+            @Override
             public int read() throws IOException {
-                int data = byteArrayInputStream.read();
+                int data = inputStream.read();
                 if (data == -1) {
                     finished = true;
                 }
                 return data;
             }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int count = inputStream.read(b, off, len);
+                if (count == -1) {
+                    finished = true;
+                }
+                return count;
+            }
         };
     }
 }
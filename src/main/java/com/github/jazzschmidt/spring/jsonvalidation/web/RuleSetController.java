@@ -1,29 +1,34 @@
 package com.github.jazzschmidt.spring.jsonvalidation.web;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValidationConfiguration;
 import com.github.jazzschmidt.spring.jsonvalidation.RuleSet;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetValidator;
 import com.github.jazzschmidt.spring.jsonvalidation.SchemaGenerator;
 import com.networknt.schema.JsonSchema;
-import com.networknt.schema.JsonSchemaFactory;
-import com.networknt.schema.SpecVersion;
 import com.networknt.schema.ValidationMessage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * If not deactivates with {@code jsonvalidation.enableEndpoint} set to @{code false} in the application properties,
- * this controller exposes endpoints to create and list {@link RuleSet}s.
+ * this controller exposes endpoints to create and list {@link RuleSet}s and to validate batches of JSON documents.
  * <p>
  * Furthermore, the JSON schema endpoints {@code /schema}, {@code /schema/matchers} and {@code /schema/rules} may be
  * used to assist in authoring {@link RuleSet}s. Every {@link RuleSet} being created will be validated against those
@@ -38,13 +43,18 @@ public class RuleSetController {
 
     private final SchemaGenerator schemaGenerator;
     private final RuleSetService service;
+    private final RuleSetValidator validator;
     private final ObjectMapper objectMapper;
+    private final JsonValidationConfiguration configuration;
 
     @Autowired
-    public RuleSetController(SchemaGenerator schemaGenerator, RuleSetService service, ObjectMapper objectMapper) {
+    public RuleSetController(SchemaGenerator schemaGenerator, RuleSetService service, RuleSetValidator validator,
+                             ObjectMapper objectMapper, JsonValidationConfiguration configuration) {
         this.schemaGenerator = schemaGenerator;
         this.service = service;
+        this.validator = validator;
         this.objectMapper = objectMapper;
+        this.configuration = configuration;
     }
 
     /**
@@ -75,8 +85,8 @@ public class RuleSetController {
      * @throws IOException if the root schema file could not be read
      */
     @GetMapping("/schema")
-    public String getRootSchema(HttpServletRequest request) throws IOException {
-        return getRootSchema(getCurrentUrl(request));
+    public byte[] getRootSchema(HttpServletRequest request) throws IOException {
+        return schemaGenerator.getRootSchemaBytes(getCurrentUrl(request));
     }
 
     /**
@@ -93,23 +103,41 @@ public class RuleSetController {
     /**
      * Returns the matchers schema.
      *
-     * @return JSON schema
-     * @throws JsonProcessingException if the schema could not be generated
+     * @param response HTTP response the schema is written to
+     * @throws IOException if the schema could not be generated or written
      */
     @GetMapping("/schema/matchers")
-    public String getMatchersSchema() throws JsonProcessingException {
-        return schemaGenerator.getMatchersSchema();
+    public void getMatchersSchema(HttpServletResponse response) throws IOException {
+        writeSchema(schemaGenerator.getMatchersSchemaBytes(), response);
     }
 
     /**
      * Returns the rules schema.
      *
-     * @return JSON schema
-     * @throws JsonProcessingException if the schema could not be generated
+     * @param response HTTP response the schema is written to
+     * @throws IOException if the schema could not be generated or written
      */
     @GetMapping("/schema/rules")
-    public String getRulesSchema() throws JsonProcessingException {
-        return schemaGenerator.getRulesSchema();
+    public void getRulesSchema(HttpServletResponse response) throws IOException {
+        writeSchema(schemaGenerator.getRulesSchemaBytes(), response);
+    }
+
+    /**
+     * Writes the pre-serialized bytes of a schema to the response.
+     *
+     * @param schema   read-only JSON schema
+     * @param response HTTP response
+     * @throws IOException if the schema could not be written
+     */
+    private static void writeSchema(ByteBuffer schema, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(schema.remaining());
+
+        WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+
+        while (schema.hasRemaining()) {
+            channel.write(schema);
+        }
     }
 
     /**
@@ -122,9 +150,7 @@ public class RuleSetController {
      */
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     public List<RuleSet> createRuleSet(@RequestBody RuleSet ruleSet, HttpServletRequest request) throws IOException {
-        String schemaString = schemaGenerator.getMergedSchema(getCurrentUrl(request));
-        JsonSchemaFactory schemaFactory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
-        JsonSchema schema = schemaFactory.getSchema(schemaString);
+        JsonSchema schema = schemaGenerator.getMergedJsonSchema(getCurrentUrl(request));
 
         validateRuleSet(ruleSet, schema);
 
@@ -132,6 +158,28 @@ public class RuleSetController {
         return service.getAll();
     }
 
+    /**
+     * Validates newline delimited JSON documents and streams back one result per line, e.g. {@code {"line": 1,
+     * "valid": false, "catalogVersion": 3, "ruleSet": "Example RuleSet", "message": "..."}}. Lines longer than the
+     * maximum content length are answered with an error line.
+     *
+     * @param request  HTTP request
+     * @param parallel whether the documents are spread across cores
+     * @return newline delimited results
+     * @throws IOException if the request could not be read
+     */
+    @PostMapping(value = "/validate", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody validate(HttpServletRequest request,
+                                          @RequestParam(defaultValue = "false") boolean parallel) throws IOException {
+        DataSize maxContentLength = configuration.getMaxContentLength();
+        // A line is kept in an array along with one more byte to detect the excess
+        int maxLineLength = (int) Math.min(maxContentLength != null ? maxContentLength.toBytes() : Long.MAX_VALUE,
+                Integer.MAX_VALUE - 9);
+        return new BatchValidationResponse(request.getInputStream(), validator, objectMapper, parallel,
+                maxLineLength);
+    }
+
     /**
      * Returns all {@link RuleSet}.
      *
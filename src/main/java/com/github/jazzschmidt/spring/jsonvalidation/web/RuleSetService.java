@@ -1,41 +1,145 @@
 package com.github.jazzschmidt.spring.jsonvalidation.web;
 
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValidationConfiguration;
 import com.github.jazzschmidt.spring.jsonvalidation.RuleSet;
 import com.github.jazzschmidt.spring.jsonvalidation.RuleSetValidator;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Attaches and removes {@link RuleSet}s to the {@link RuleSetValidator} and persists them in the {@link
- * RuleSetRepository}.
+ * RuleSetRepository}. Changes are serialized, so that the repository and the validator stay in sync, while validations
+ * are never blocked.
  */
 @Service
 @ConditionalOnWebApplication
 public class RuleSetService {
 
+    private static final Log logger = LogFactory.getLog(RuleSetService.class);
+
     private final RuleSetRepository repository;
     private final RuleSetValidator validator;
+    private final Duration pollInterval;
+    private ScheduledExecutorService poller;
 
     @Autowired
-    public RuleSetService(RuleSetRepository repository, RuleSetValidator validator) {
+    public RuleSetService(RuleSetRepository repository, RuleSetValidator validator,
+                          JsonValidationConfiguration configuration) {
         this.repository = repository;
         this.validator = validator;
+        this.pollInterval = configuration.getRepositoryPollInterval();
+    }
+
+    /**
+     * Attaches all persisted {@link RuleSet}s to the {@link RuleSetValidator} in a single change of the validation.
+     * The changes of a {@link SharedRuleSetRepository} are polled periodically afterwards.
+     */
+    @PostConstruct
+    public synchronized void load() {
+        if (repository instanceof SharedRuleSetRepository) {
+            synchronize();
+
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "jsonvalidation-repository-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::poll, pollInterval.toMillis(), pollInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        List<RuleSet> ruleSets = repository.getAll();
+
+        if (!ruleSets.isEmpty()) {
+            validator.update(Collections.emptyList(), ruleSets);
+        }
+    }
+
+    /**
+     * Stops polling the repository.
+     */
+    @PreDestroy
+    public void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
     }
 
     /**
-     * Creates a {@link RuleSet} and attaches it to the {@link RuleSetValidator}.
+     * Applies the changes other instances made to the {@link SharedRuleSetRepository} to the {@link
+     * RuleSetValidator} in a single change of the validation. If a rule set cannot be compiled, the others are applied
+     * one by one and the previous version of the failing one is kept, both by the validator and the repository.
+     */
+    public synchronized void synchronize() {
+        SharedRuleSetRepository.Changes changes = ((SharedRuleSetRepository) repository).poll();
+
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        try {
+            validator.update(changes.getRemoved(), changes.getAdded());
+        } catch (RuntimeException e) {
+            Map<String, RuleSet> removed = new LinkedHashMap<>();
+            changes.getRemoved().forEach(ruleSet -> removed.put(ruleSet.getName(), ruleSet));
+
+            for (RuleSet ruleSet : changes.getAdded()) {
+                RuleSet replaced = removed.remove(ruleSet.getName());
+
+                try {
+                    validator.update(replaced == null ? List.of() : List.of(replaced), List.of(ruleSet));
+                } catch (RuntimeException ruleSetException) {
+                    logger.warn("Could not apply rule set " + ruleSet.getName(), ruleSetException);
+                    ((SharedRuleSetRepository) repository).revert(ruleSet, replaced);
+                }
+            }
+
+            if (!removed.isEmpty()) {
+                validator.update(removed.values(), Collections.emptyList());
+            }
+        }
+    }
+
+    private void poll() {
+        try {
+            synchronize();
+        } catch (RuntimeException e) {
+            // Keep polling, the validation continues with the rule sets known so far
+            logger.warn("Could not poll the rule set repository", e);
+        }
+    }
+
+    /**
+     * Creates a {@link RuleSet} and attaches it to the {@link RuleSetValidator}. A previous rule set with the same
+     * name is replaced in a single change of the validation.
      *
      * @param ruleSet rule set
      * @return persisted rule set
      */
-    public RuleSet create(@NotNull RuleSet ruleSet) {
+    public synchronized RuleSet create(@NotNull RuleSet ruleSet) {
+        List<RuleSet> replaced = repository.getByName(ruleSet.getName())
+                .map(List::of)
+                .orElse(Collections.emptyList());
+
         repository.persist(ruleSet);
-        validator.addRuleSet(ruleSet);
+        validator.update(replaced, List.of(ruleSet));
 
         return ruleSet;
     }
@@ -55,7 +159,7 @@ public class RuleSetService {
      * @param name Name of the {@link RuleSet}
      * @throws NoSuchElementException if no value is present
      */
-    public void remove(@NotNull String name) {
+    public synchronized void remove(@NotNull String name) {
         RuleSet ruleSet = repository.getByName(name).get();
         repository.delete(ruleSet);
         validator.removeRuleSet(ruleSet);
@@ -0,0 +1,63 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web;
+
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSet;
+import org.springframework.lang.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link RuleSetRepository} that is shared by several instances of an application. Changes made by other instances
+ * are fetched by polling the repository.
+ */
+public interface SharedRuleSetRepository extends RuleSetRepository {
+
+    /**
+     * Fetches the changes that were made by other instances since the last poll and applies them to the rule sets
+     * returned by this repository.
+     *
+     * @return changed rule sets
+     */
+    Changes poll();
+
+    /**
+     * Restores the previous rule set of a name that was added by a {@link #poll()}, but could not be applied, e.g.
+     * since it cannot be compiled. Only the rule sets returned by this repository are restored; the shared repository
+     * is not changed. Nothing is restored if the rule set was changed again meanwhile.
+     *
+     * @param added    rule set added by the poll
+     * @param previous rule set it replaced or null if there was none
+     */
+    void revert(RuleSet added, @Nullable RuleSet previous);
+
+    /**
+     * {@link RuleSet}s that were removed and added by a change of the repository
+     */
+    final class Changes {
+
+        /**
+         * No changes
+         */
+        public static final Changes NONE = new Changes(Collections.emptyList(), Collections.emptyList());
+
+        private final List<RuleSet> removed;
+        private final List<RuleSet> added;
+
+        public Changes(List<RuleSet> removed, List<RuleSet> added) {
+            this.removed = List.copyOf(removed);
+            this.added = List.copyOf(added);
+        }
+
+        public List<RuleSet> getRemoved() {
+            return removed;
+        }
+
+        public List<RuleSet> getAdded() {
+            return added;
+        }
+
+        public boolean isEmpty() {
+            return removed.isEmpty() && added.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable lookup of the request mappings whose handler methods are annotated with {@link ValidateJsonContent}. It is
+ * built from all {@link RequestMappingHandlerMapping}s whenever the application context is refreshed, and lets the
+ * {@link JsonContentFilter} pass the bodies of requests to any other handler untouched. Until then, or if there is no
+ * such handler mapping, every request is considered to be validated.
+ * <p>
+ * A request is considered to be validated if any annotated mapping matches it, even if another mapping is chosen for
+ * it eventually, so that no validated request is missed. Mappings registered at runtime are not known.
+ * </p>
+ * <p>
+ * Mappings of direct paths are looked up by the path of the request, so that only the mappings of path patterns are
+ * matched one by one. The lookup ignores the case and trailing slashes of the paths, and thus yields a superset of the
+ * mappings whose conditions are then matched exactly.
+ * </p>
+ */
+@Component
+public class ValidatedHandlerMappings implements ApplicationListener<ContextRefreshedEvent> {
+
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMappings;
+
+    /**
+     * Annotated mappings by their handler mapping or null if not known yet
+     */
+    private volatile List<Lookup> lookups;
+
+    @Autowired
+    public ValidatedHandlerMappings(ObjectProvider<RequestMappingHandlerMapping> handlerMappings) {
+        this.handlerMappings = handlerMappings;
+    }
+
+    @Override
+    public void onApplicationEvent(@NonNull ContextRefreshedEvent event) {
+        List<RequestMappingHandlerMapping> all = handlerMappings.orderedStream().collect(Collectors.toList());
+
+        if (all.isEmpty()) {
+            return;
+        }
+
+        List<Lookup> lookups = new ArrayList<>();
+
+        all.forEach(handlerMapping -> {
+            List<RequestMappingInfo> mappings = new ArrayList<>();
+
+            handlerMapping.getHandlerMethods().forEach((mapping, handlerMethod) -> {
+                if (handlerMethod.hasMethodAnnotation(ValidateJsonContent.class)) {
+                    mappings.add(mapping);
+                }
+            });
+
+            if (!mappings.isEmpty()) {
+                lookups.add(new Lookup(handlerMapping, mappings));
+            }
+        });
+
+        this.lookups = List.copyOf(lookups);
+    }
+
+    /**
+     * Checks if the request might be handled by a handler method annotated with {@link ValidateJsonContent}.
+     *
+     * @param request HTTP request
+     * @return false if no annotated mapping matches the request
+     */
+    public boolean isValidated(HttpServletRequest request) {
+        List<Lookup> lookups = this.lookups;
+
+        if (lookups == null) {
+            return true;
+        }
+
+        for (Lookup lookup : lookups) {
+            if (lookup.matches(request)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Annotated mappings of a single handler mapping, that are matched against the request path as resolved by their
+     * handler mapping.
+     */
+    private static final class Lookup {
+        private final RequestMappingHandlerMapping handlerMapping;
+        private final Map<String, List<RequestMappingInfo>> directMappings = new HashMap<>();
+        private final List<RequestMappingInfo> patternMappings = new ArrayList<>();
+
+        @SuppressWarnings("deprecation")
+        private Lookup(RequestMappingHandlerMapping handlerMapping, List<RequestMappingInfo> mappings) {
+            this.handlerMapping = handlerMapping;
+
+            // Suffix patterns let any direct path match paths with extensions as well
+            boolean suffixPatterns = !handlerMapping.usesPathPatterns() && handlerMapping.useSuffixPatternMatch();
+
+            for (RequestMappingInfo mapping : mappings) {
+                Set<String> directPaths = mapping.getDirectPaths();
+
+                if (suffixPatterns || directPaths.isEmpty() || directPaths.contains("")
+                        || directPaths.size() != mapping.getPatternValues().size()) {
+                    patternMappings.add(mapping);
+                    continue;
+                }
+
+                directPaths.forEach(path ->
+                        directMappings.computeIfAbsent(normalize(path), key -> new ArrayList<>()).add(mapping));
+            }
+        }
+
+        private boolean matches(HttpServletRequest request) {
+            boolean pathPatterns = handlerMapping.usesPathPatterns();
+            String pathAttribute = pathPatterns ? ServletRequestPathUtils.PATH_ATTRIBUTE : UrlPathHelper.PATH_ATTRIBUTE;
+            Object previousPath = request.getAttribute(pathAttribute);
+            String lookupPath;
+
+            if (pathPatterns) {
+                String path = ServletRequestPathUtils.parseAndCache(request).pathWithinApplication().value();
+                lookupPath = UrlPathHelper.defaultInstance.removeSemicolonContent(path);
+            } else {
+                lookupPath = handlerMapping.getUrlPathHelper().resolveAndCacheLookupPath(request);
+            }
+
+            try {
+                List<RequestMappingInfo> direct = directMappings.get(normalize(lookupPath));
+                return direct != null && matchesAny(direct, request) || matchesAny(patternMappings, request);
+            } finally {
+                // The dispatcher resolves the path again
+                request.setAttribute(pathAttribute, previousPath);
+            }
+        }
+
+        private static boolean matchesAny(List<RequestMappingInfo> mappings, HttpServletRequest request) {
+            for (RequestMappingInfo mapping : mappings) {
+                if (mapping.getMatchingCondition(request) != null) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private static String normalize(String path) {
+            String normalized = path.toLowerCase(Locale.ROOT);
+
+            if (normalized.length() > 1 && normalized.endsWith("/")) {
+                return normalized.substring(0, normalized.length() - 1);
+            }
+
+            return normalized;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson converter that binds request bodies validated by the {@link ValidatorRequestBodyAdvice} from their already
+ * parsed tree. Any other body is read just as by the {@link MappingJackson2HttpMessageConverter}.
+ */
+public class ValidatedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public ValidatedJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    @NonNull
+    public Object read(@NonNull Type type, @Nullable Class<?> contextClass, @NonNull HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        if (!(inputMessage instanceof ValidatedJsonInputMessage)) {
+            return super.read(type, contextClass, inputMessage);
+        }
+
+        JavaType javaType = getJavaType(type, contextClass);
+        ValidatedJsonInputMessage validatedMessage = (ValidatedJsonInputMessage) inputMessage;
+
+        try {
+            return getObjectMapper().readerFor(javaType).readValue(validatedMessage.getJsonNode());
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+}
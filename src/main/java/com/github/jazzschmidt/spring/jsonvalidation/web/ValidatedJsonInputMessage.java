@@ -0,0 +1,47 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Request body that has already been parsed and validated. The {@link ValidatedJsonHttpMessageConverter} binds the
+ * handler argument from its tree, so that the body is never parsed again.
+ */
+final class ValidatedJsonInputMessage implements HttpInputMessage {
+
+    private final HttpHeaders headers;
+    private final JsonNode jsonNode;
+    private final ObjectMapper objectMapper;
+
+    ValidatedJsonInputMessage(HttpHeaders headers, JsonNode jsonNode, ObjectMapper objectMapper) {
+        this.headers = headers;
+        this.jsonNode = jsonNode;
+        this.objectMapper = objectMapper;
+    }
+
+    JsonNode getJsonNode() {
+        return jsonNode;
+    }
+
+    /**
+     * Serializes the tree again for converters that are not aware of it.
+     *
+     * @return body of the request
+     * @throws IOException if the tree could not be serialized
+     */
+    @Override
+    public InputStream getBody() throws IOException {
+        return new ByteArrayInputStream(objectMapper.writeValueAsBytes(jsonNode));
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+}
@@ -0,0 +1,268 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web;
+
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValidationConfiguration;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetValidator;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the outcome of validating a request body, so that identical bodies, e.g. retries or polling requests, are
+ * neither parsed nor validated again. Outcomes are keyed by the {@link ContentHash} of the body, which is computed
+ * while the body is captured, and the version of the {@link
+ * com.github.jazzschmidt.spring.jsonvalidation.RuleSetCatalog} that validated it, so that any change of the rule sets
+ * invalidates all outcomes by construction. A failed validation is answered by throwing the very exception of its
+ * first validation again, so that custom exception types and their causes reach the exception handlers unchanged.
+ * <p>
+ * The cache is split into segments by the hash, each of which evicts its least recently used outcomes once it is
+ * full, so that concurrent requests rarely contend for the same lock. Every outcome holds a copy of its body, which is
+ * compared to the requested body on a hit, so that hash collisions never yield a foreign outcome.
+ * </p>
+ */
+@Component
+public class ValidationOutcomeCache {
+
+    private final int maximumSize;
+    private final long maximumBodySize;
+
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public ValidationOutcomeCache(JsonValidationConfiguration configuration) {
+        this(configuration.getOutcomeCacheSize(), configuration.getOutcomeCacheMaxBodySize().toBytes());
+    }
+
+    ValidationOutcomeCache(int maximumSize, long maximumBodySize) {
+        this.maximumSize = maximumSize;
+        this.maximumBodySize = maximumBodySize;
+
+        // A few segments per core, but at least one outcome per segment, so that the segments never exceed the size
+        int concurrency = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+        int segmentCount = Math.min(concurrency, Integer.highestOneBit(Math.max(maximumSize, 1)));
+        int segmentSize = maximumSize / segmentCount;
+
+        this.segments = new Segment[segmentCount];
+        Arrays.setAll(segments, i -> new Segment(segmentSize));
+    }
+
+    /**
+     * Returns whether outcomes are cached
+     *
+     * @return true if the cache has a size
+     */
+    public boolean isEnabled() {
+        return maximumSize > 0;
+    }
+
+    /**
+     * Returns the outcome of a previous validation of the same content with the current rule sets, or validates it.
+     *
+     * @param content    request body
+     * @param validator  validator providing the current catalog version
+     * @param validation validation of the content
+     * @return version of the catalog that validated the content or null if the content is empty
+     * @throws RuleValidationException if the validation fails, either now or previously
+     * @throws IOException             if the content could not be parsed
+     */
+    @Nullable
+    public Long validate(JsonContent content, RuleSetValidator validator, Validation validation)
+            throws RuleValidationException, IOException {
+        if (!isEnabled() || !content.isInMemory() || content.getLength() > maximumBodySize) {
+            return validation.validate();
+        }
+
+        long hash = content.getHash();
+        Key key = new Key(hash, validator.getCatalog().getVersion());
+        Outcome outcome = segment(hash).get(key);
+
+        if (outcome != null && outcome.matches(content)) {
+            hits.increment();
+            return outcome.replay();
+        }
+
+        misses.increment();
+        Long catalogVersion;
+
+        try {
+            catalogVersion = validation.validate();
+        } catch (RuleValidationException e) {
+            put(hash, new Outcome(content, e.getCatalogVersion(), e));
+            throw e;
+        }
+
+        if (catalogVersion != null) {
+            put(hash, new Outcome(content, catalogVersion, null));
+        }
+
+        return catalogVersion;
+    }
+
+    /**
+     * Returns the number of validations that were answered from the cache
+     *
+     * @return hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of validations that were not cached yet
+     *
+     * @return misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of cached outcomes
+     *
+     * @return size
+     */
+    public int size() {
+        int size = 0;
+
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+
+        return size;
+    }
+
+    /**
+     * Removes all cached outcomes
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private void put(long hash, Outcome outcome) {
+        segment(hash).put(new Key(hash, outcome.catalogVersion), outcome);
+    }
+
+    private Segment segment(long hash) {
+        // The upper bits, since the lower ones select the buckets within the segment
+        return segments[(int) (hash >>> 32) & (segments.length - 1)];
+    }
+
+    /**
+     * Validation of a request body
+     */
+    @FunctionalInterface
+    public interface Validation {
+
+        /**
+         * Validates the request body.
+         *
+         * @return version of the catalog that validated the content or null if the content is empty
+         * @throws RuleValidationException if the validation fails
+         * @throws IOException             if the content could not be parsed
+         */
+        @Nullable
+        Long validate() throws RuleValidationException, IOException;
+    }
+
+    private static final class Key {
+        private final long hash;
+        private final long catalogVersion;
+
+        private Key(long hash, long catalogVersion) {
+            this.hash = hash;
+            this.catalogVersion = catalogVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) o;
+            return hash == key.hash && catalogVersion == key.catalogVersion;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash * 31 + catalogVersion);
+        }
+    }
+
+    /**
+     * Least recently used outcomes of a part of the hashes
+     */
+    private static final class Segment {
+        private final Map<Key, Outcome> outcomes;
+
+        private Segment(int maximumSize) {
+            this.outcomes = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Outcome> eldest) {
+                    return size() > maximumSize;
+                }
+            };
+        }
+
+        private synchronized Outcome get(Key key) {
+            return outcomes.get(key);
+        }
+
+        private synchronized void put(Key key, Outcome outcome) {
+            outcomes.put(key, outcome);
+        }
+
+        private synchronized int size() {
+            return outcomes.size();
+        }
+
+        private synchronized void clear() {
+            outcomes.clear();
+        }
+    }
+
+    /**
+     * Outcome of a validation along with the validated body
+     */
+    private static final class Outcome {
+        private final byte[] body;
+        private final Charset charset;
+        private final long catalogVersion;
+        private final RuleValidationException failure;
+
+        private Outcome(JsonContent content, long catalogVersion, @Nullable RuleValidationException failure) {
+            this.body = Arrays.copyOf(content.getBuffer(), content.getLength());
+            this.charset = content.getCharset();
+            this.catalogVersion = catalogVersion;
+            this.failure = failure;
+        }
+
+        private boolean matches(JsonContent content) {
+            return charset.equals(content.getCharset())
+                    && Arrays.equals(body, 0, body.length, content.getBuffer(), 0, content.getLength());
+        }
+
+        private long replay() throws RuleValidationException {
+            if (failure != null) {
+                throw failure;
+            }
+
+            return catalogVersion;
+        }
+    }
+}
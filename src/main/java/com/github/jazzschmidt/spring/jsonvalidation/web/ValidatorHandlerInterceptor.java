@@ -1,56 +1,296 @@
 package com.github.jazzschmidt.spring.jsonvalidation.web;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValidationConfiguration;
 import com.github.jazzschmidt.spring.jsonvalidation.RuleSet;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetCatalog;
 import com.github.jazzschmidt.spring.jsonvalidation.RuleSetValidator;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleValidationException;
+import com.github.jazzschmidt.spring.jsonvalidation.ValidationMetrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Validates that handler methods annotated with {@link ValidateJsonContent} will not be invoked when the JSON in the
  * request body could not be successfully validated by means of all matching {@link RuleSet}s from the {@link
- * RuleSetValidator}.
+ * RuleSetValidator}. Handler methods reading the body with {@link RequestBody} are validated by the {@link
+ * ValidatorRequestBodyAdvice} instead, which shares the parsed body with the argument binding, as long as the body is
+ * certainly read by the {@link ValidatedJsonHttpMessageConverter}. Bodies read by any other converter, e.g. into a
+ * {@code String}, are validated from the captured content.
  */
 @Component
 public class ValidatorHandlerInterceptor implements HandlerInterceptor {
 
+    /**
+     * Request attribute holding the version of the {@link com.github.jazzschmidt.spring.jsonvalidation.RuleSetCatalog}
+     * that validated the request
+     */
+    public static final String CATALOG_VERSION_ATTRIBUTE =
+            ValidatorHandlerInterceptor.class.getName() + ".catalogVersion";
+
+    /**
+     * Request attribute marking a request whose body has been validated, either by this interceptor or by the {@link
+     * ValidatorRequestBodyAdvice}
+     */
+    public static final String VALIDATED_ATTRIBUTE = ValidatorHandlerInterceptor.class.getName() + ".validated";
+
+    /**
+     * Maximum number of content types per handler method whose decision is cached
+     */
+    private static final int MAX_CONTENT_TYPES = 16;
+
     private final RuleSetValidator validator;
     private final ObjectMapper objectMapper;
+    private final JsonValidationConfiguration configuration;
+    private final ValidationOutcomeCache outcomeCache;
+    private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+
+    /**
+     * Request bodies of the handler methods by their method and bean type
+     */
+    private final Map<MethodClassKey, BodyBinding> bodyBindings = new ConcurrentHashMap<>();
 
     @Autowired
-    public ValidatorHandlerInterceptor(RuleSetValidator validator, ObjectMapper objectMapper) {
+    public ValidatorHandlerInterceptor(RuleSetValidator validator, ObjectMapper objectMapper,
+                                       JsonValidationConfiguration configuration,
+                                       ValidationOutcomeCache outcomeCache,
+                                       ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter) {
         this.validator = validator;
         this.objectMapper = objectMapper;
+        this.configuration = configuration;
+        this.outcomeCache = outcomeCache;
+        this.handlerAdapter = handlerAdapter;
     }
 
     @Override
     public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
                              @NonNull Object handler) throws Exception {
-        // Only validate @ValidateJsonContent handler methods
-        if (shouldValidateBefore(handler)) {
-            String content = JsonContentHttpRequestWrapper.getContent();
-            JsonNode jsonNode = objectMapper.readTree(content);
+        // Only validate @ValidateJsonContent handler methods, once per request
+        if (shouldValidateBefore(request, handler)) {
+            JsonContent content = JsonContent.from(request);
+
+            // Content was not captured, since it is no JSON
+            if (content == null) {
+                rejectUncaptured(request);
+                request.setAttribute(VALIDATED_ATTRIBUTE, Boolean.TRUE);
+                return true;
+            }
 
             // Throws the RuleValidationException on any validation error
-            validator.validate(jsonNode);
+            Long catalogVersion = outcomeCache.validate(content, validator, () -> validate(content));
+
+            request.setAttribute(VALIDATED_ATTRIBUTE, Boolean.TRUE);
+
+            if (catalogVersion == null) {
+                // Empty content
+                return true;
+            }
+
+            request.setAttribute(CATALOG_VERSION_ATTRIBUTE, catalogVersion);
         }
 
         return true;
     }
 
-    private boolean shouldValidateBefore(Object handler) {
-        if (!(handler instanceof HandlerMethod)) {
+    /**
+     * Validates the content by streaming or parsing it completely. Content spilled to a temporary file is always
+     * streamed, so that a large body is never turned into a tree on the heap.
+     *
+     * @param content request body
+     * @return version of the catalog that validated the content or null if the content is empty
+     * @throws RuleValidationException if the validation fails
+     * @throws IOException             if the content could not be parsed
+     */
+    @Nullable
+    private Long validate(JsonContent content) throws RuleValidationException, IOException {
+        RuleSetCatalog catalog = validator.getCatalog();
+
+        if (configuration.isStreaming() || !content.isInMemory()) {
+            validator.validate(catalog, content);
+            return catalog.getVersion();
+        }
+
+        ValidationMetrics metrics = validator.getMetrics();
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+        JsonNode jsonNode;
+
+        try (JsonParser parser = content.createParser(objectMapper.getFactory())) {
+            jsonNode = objectMapper.readTree(parser);
+        }
+
+        if (metrics.isEnabled()) {
+            metrics.recordPhase(ValidationMetrics.Phase.PARSE, System.nanoTime() - start);
+        }
+
+        if (jsonNode == null) {
+            return null;
+        }
+
+        validator.validate(catalog, jsonNode);
+        return catalog.getVersion();
+    }
+
+    /**
+     * Rejects a request whose body was not captured by the {@link JsonContentFilter}, which is the case for any body
+     * that is no JSON, so that no handler method is invoked with a body that was not validated. Requests without a
+     * body pass.
+     *
+     * @param request HTTP request
+     * @throws HttpMediaTypeNotSupportedException if the request has a body
+     * @throws IOException                        if the body could not be read
+     */
+    private void rejectUncaptured(HttpServletRequest request) throws HttpMediaTypeNotSupportedException, IOException {
+        // Probing consumes the first byte of the body, which is never read anyway as the request is rejected then
+        if (request.getInputStream().read() == -1) {
+            return;
+        }
+
+        throw new HttpMediaTypeNotSupportedException("Request body of content type '" + request.getContentType()
+                + "' was not captured for the validation");
+    }
+
+    private boolean shouldValidateBefore(HttpServletRequest request, Object handler) {
+        if (!(handler instanceof HandlerMethod) || request.getAttribute(VALIDATED_ATTRIBUTE) != null) {
             return false;
         }
 
-        return ((HandlerMethod) handler).hasMethodAnnotation(ValidateJsonContent.class);
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+
+        // Request bodies are validated by the ValidatorRequestBodyAdvice while they are read
+        return handlerMethod.hasMethodAnnotation(ValidateJsonContent.class)
+                && !isValidatedByAdvice(request, handlerMethod);
     }
 
+    /**
+     * Checks if the request body is certainly validated by the {@link ValidatorRequestBodyAdvice}, which is the case
+     * if it is bound to a handler argument and the {@link ValidatedJsonHttpMessageConverter} is the first converter
+     * able to read it, just as it is chosen by Spring MVC. The decision is made once per handler method and content
+     * type.
+     *
+     * @param request       HTTP request
+     * @param handlerMethod handler method
+     * @return false if the body might be read by any other converter or not at all
+     */
+    private boolean isValidatedByAdvice(HttpServletRequest request, HandlerMethod handlerMethod) {
+        String contentType = request.getContentType();
+        RequestMappingHandlerAdapter adapter = handlerAdapter.getIfUnique();
+
+        if (contentType == null || adapter == null) {
+            return false;
+        }
+
+        // Keyed by the bean type, as handler methods of prototype beans differ per request
+        BodyBinding binding = bodyBindings.computeIfAbsent(
+                new MethodClassKey(handlerMethod.getMethod(), handlerMethod.getBeanType()),
+                key -> new BodyBinding(getRequestBody(handlerMethod)));
+
+        Boolean validated = binding.decisions.get(contentType);
+
+        if (validated == null) {
+            validated = isReadByValidatedConverter(binding, contentType, adapter);
+
+            // Content types are chosen by the clients
+            if (binding.decisions.size() < MAX_CONTENT_TYPES) {
+                binding.decisions.put(contentType, validated);
+            }
+        }
+
+        return validated;
+    }
+
+    /**
+     * Checks if the {@link ValidatedJsonHttpMessageConverter} is the first converter able to read the body.
+     *
+     * @param binding     body of the handler method
+     * @param contentType content type of the request
+     * @param adapter     adapter providing the converters
+     * @return false if the body might be read by any other converter or not at all
+     */
+    private boolean isReadByValidatedConverter(BodyBinding binding, String contentType,
+                                               RequestMappingHandlerAdapter adapter) {
+        if (binding.parameter == null || binding.targetClass == null) {
+            return false;
+        }
+
+        MediaType mediaType;
+
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+
+        for (HttpMessageConverter<?> converter : adapter.getMessageConverters()) {
+            boolean canRead = converter instanceof GenericHttpMessageConverter
+                    ? ((GenericHttpMessageConverter<?>) converter)
+                            .canRead(binding.targetType, binding.parameter.getContainingClass(), mediaType)
+                    : converter.canRead(binding.targetClass, mediaType);
+
+            if (canRead) {
+                return converter instanceof ValidatedJsonHttpMessageConverter;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the type the body is read as, which is the type argument of an {@link HttpEntity} or the type of an
+     * optional parameter.
+     *
+     * @param parameter body parameter
+     * @return type of the body
+     */
+    private static Type getBodyType(MethodParameter parameter) {
+        if (HttpEntity.class.isAssignableFrom(parameter.getParameterType())) {
+            return ResolvableType.forMethodParameter(parameter).as(HttpEntity.class).getGeneric().getType();
+        }
+
+        return parameter.nestedIfOptional().getNestedGenericParameterType();
+    }
+
+    /**
+     * Body parameter of a handler method along with the decisions whether it is validated by the {@link
+     * ValidatorRequestBodyAdvice} by content type
+     */
+    private static final class BodyBinding {
+        @Nullable
+        private final MethodParameter parameter;
+        @Nullable
+        private final Type targetType;
+        @Nullable
+        private final Class<?> targetClass;
+        private final Map<String, Boolean> decisions = new ConcurrentHashMap<>();
+
+        private BodyBinding(@Nullable MethodParameter parameter) {
+            this.parameter = parameter;
+            this.targetType = parameter != null ? getBodyType(parameter) : null;
+            this.targetClass = targetType != null ? ResolvableType.forType(targetType).resolve() : null;
+        }
+    }
 }
@@ -0,0 +1,156 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSet;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetCatalog;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetValidator;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleValidationException;
+import com.github.jazzschmidt.spring.jsonvalidation.UncheckedRuleValidationException;
+import com.github.jazzschmidt.spring.jsonvalidation.ValidationMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Validates the request body of handler methods annotated with {@link ValidateJsonContent} by means of all matching
+ * {@link RuleSet}s from the {@link RuleSetValidator} before it is bound to the handler argument. The body is parsed
+ * only once, the {@link ValidatedJsonHttpMessageConverter} binds the argument from the same tree. Bodies read by any
+ * other converter are validated by the {@link ValidatorHandlerInterceptor}. Bodies spilled to a temporary file are
+ * streamed just as with the {@code streaming} option instead, and bound by reading them from their file again.
+ */
+@ControllerAdvice
+public class ValidatorRequestBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private final RuleSetValidator validator;
+    private final ObjectMapper objectMapper;
+    private final ValidationOutcomeCache outcomeCache;
+
+    @Autowired
+    public ValidatorRequestBodyAdvice(RuleSetValidator validator, ObjectMapper objectMapper,
+                                      ValidationOutcomeCache outcomeCache) {
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.outcomeCache = outcomeCache;
+    }
+
+    @Override
+    public boolean supports(@NonNull MethodParameter methodParameter, @NonNull Type targetType,
+                            @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return methodParameter.hasMethodAnnotation(ValidateJsonContent.class)
+                && ValidatedJsonHttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    /**
+     * Parses and validates the request body.
+     *
+     * @param inputMessage  request body
+     * @param parameter     handler argument
+     * @param targetType    type of the handler argument
+     * @param converterType converter reading the body
+     * @return body holding the parsed tree
+     * @throws IOException                       if the body could not be parsed
+     * @throws UncheckedRuleValidationException if any validation fails
+     */
+    @Override
+    @NonNull
+    public HttpInputMessage beforeBodyRead(@NonNull HttpInputMessage inputMessage, @NonNull MethodParameter parameter,
+                                           @NonNull Type targetType,
+                                           @NonNull Class<? extends HttpMessageConverter<?>> converterType)
+            throws IOException {
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        JsonContent content = (JsonContent) attributes.getAttribute(JsonContent.ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+
+        // Large bodies are streamed instead of being held as tree and bound directly from their file
+        if (content != null && !content.isInMemory()) {
+            validateStreaming(content, attributes);
+            return inputMessage;
+        }
+
+        ValidationMetrics metrics = validator.getMetrics();
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+        JsonNode jsonNode = objectMapper.readTree(inputMessage.getBody());
+
+        if (metrics.isEnabled()) {
+            metrics.recordPhase(ValidationMetrics.Phase.PARSE, System.nanoTime() - start);
+        }
+
+        // The body has already been validated by the interceptor
+        if (attributes.getAttribute(ValidatorHandlerInterceptor.VALIDATED_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST) != null) {
+            return new ValidatedJsonInputMessage(inputMessage.getHeaders(), jsonNode, objectMapper);
+        }
+
+        try {
+            Long catalogVersion;
+
+            if (content == null) {
+                catalogVersion = validate(jsonNode);
+            } else {
+                // Identical bodies are validated only once per catalog version
+                catalogVersion = outcomeCache.validate(content, validator, () -> validate(jsonNode));
+            }
+
+            attributes.setAttribute(ValidatorHandlerInterceptor.VALIDATED_ATTRIBUTE, Boolean.TRUE,
+                    RequestAttributes.SCOPE_REQUEST);
+            attributes.setAttribute(ValidatorHandlerInterceptor.CATALOG_VERSION_ATTRIBUTE, catalogVersion,
+                    RequestAttributes.SCOPE_REQUEST);
+        } catch (RuleValidationException e) {
+            throw new UncheckedRuleValidationException(e);
+        }
+
+        return new ValidatedJsonInputMessage(inputMessage.getHeaders(), jsonNode, objectMapper);
+    }
+
+    /**
+     * Validates the parsed body.
+     *
+     * @param jsonNode request body
+     * @return version of the catalog that validated the body
+     * @throws RuleValidationException if any validation fails
+     */
+    private long validate(JsonNode jsonNode) throws RuleValidationException {
+        RuleSetCatalog catalog = validator.getCatalog();
+        validator.validate(catalog, jsonNode);
+
+        return catalog.getVersion();
+    }
+
+    /**
+     * Validates content spilled to a temporary file by streaming it, unless the interceptor already did.
+     *
+     * @param content    request body
+     * @param attributes attributes of the request
+     * @throws IOException                       if the body could not be parsed
+     * @throws UncheckedRuleValidationException if any validation fails
+     */
+    private void validateStreaming(JsonContent content, RequestAttributes attributes) throws IOException {
+        if (attributes.getAttribute(ValidatorHandlerInterceptor.VALIDATED_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST) != null) {
+            return;
+        }
+
+        try {
+            RuleSetCatalog catalog = validator.getCatalog();
+            validator.validate(catalog, content);
+            long catalogVersion = catalog.getVersion();
+
+            attributes.setAttribute(ValidatorHandlerInterceptor.VALIDATED_ATTRIBUTE, Boolean.TRUE,
+                    RequestAttributes.SCOPE_REQUEST);
+            attributes.setAttribute(ValidatorHandlerInterceptor.CATALOG_VERSION_ATTRIBUTE, catalogVersion,
+                    RequestAttributes.SCOPE_REQUEST);
+        } catch (RuleValidationException e) {
+            throw new UncheckedRuleValidationException(e);
+        }
+    }
+}
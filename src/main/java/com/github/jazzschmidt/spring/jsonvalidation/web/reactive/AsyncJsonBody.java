@@ -0,0 +1,171 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web.reactive;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Body of a reactive request, that is tokenized by Jackson's non-blocking parser while its {@link DataBuffer}s arrive.
+ * The tokens are recorded in a {@link TokenBuffer}, so that no buffer is ever blocked on. The original buffers are kept
+ * untouched and re-emitted to the handler, or released if the request is rejected.
+ * <p>
+ * The non-blocking parser only supports UTF-8, which is the mandatory encoding of JSON exchanged over networks.
+ * </p>
+ */
+final class AsyncJsonBody {
+
+    private final ObjectMapper objectMapper;
+    private final long maxContentLength;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final TokenBuffer tokens;
+    private final List<DataBuffer> buffers = new ArrayList<>();
+
+    private long length;
+    private long parseNanos;
+    private boolean consumed;
+
+    AsyncJsonBody(ObjectMapper objectMapper, long maxContentLength) throws IOException {
+        this.objectMapper = objectMapper;
+        this.maxContentLength = maxContentLength;
+        this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.tokens = new TokenBuffer(parser);
+        this.tokens.forceUseOfBigDecimal(objectMapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS));
+    }
+
+    /**
+     * Keeps a buffer of the body and feeds its bytes to the parser.
+     *
+     * @param buffer next buffer of the body
+     * @throws ResponseStatusException if the body exceeds the maximum content length
+     * @throws UncheckedIOException    if the body is no valid JSON
+     */
+    synchronized void append(DataBuffer buffer) {
+        buffers.add(buffer);
+        length += buffer.readableByteCount();
+
+        if (length > maxContentLength) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+
+        long start = System.nanoTime();
+        ByteBuffer bytes = buffer.asByteBuffer();
+        int count = bytes.remaining();
+
+        try {
+            // Heap buffers are fed directly, while direct ones are copied chunk by chunk
+            if (bytes.hasArray()) {
+                int offset = bytes.arrayOffset() + bytes.position();
+                feeder.feedInput(bytes.array(), offset, offset + count);
+            } else {
+                byte[] chunk = new byte[count];
+                bytes.get(chunk);
+                feeder.feedInput(chunk, 0, count);
+            }
+
+            drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            parseNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Signals the end of the body and builds the JSON from the recorded tokens.
+     *
+     * @return JSON or null if the body is empty
+     * @throws IOException if the body is no complete JSON
+     */
+    @Nullable
+    synchronized JsonNode finish() throws IOException {
+        long start = System.nanoTime();
+
+        try {
+            feeder.endOfInput();
+            drain();
+
+            return objectMapper.readTree(tokens.asParser(objectMapper));
+        } finally {
+            parseNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Returns the time spent in parsing the body
+     *
+     * @return nanoseconds
+     */
+    synchronized long getParseNanos() {
+        return parseNanos;
+    }
+
+    /**
+     * Decorates the request, so that its body re-emits the original buffers.
+     *
+     * @param request request whose body was consumed
+     * @return request with the buffered body
+     */
+    ServerHttpRequest decorate(ServerHttpRequest request) {
+        return new ServerHttpRequestDecorator(request) {
+            @Override
+            @NonNull
+            public Flux<DataBuffer> getBody() {
+                return Flux.defer(() -> Flux.fromIterable(consume()));
+            }
+        };
+    }
+
+    /**
+     * Releases the buffers, unless they were passed to the handler.
+     */
+    synchronized void release() {
+        if (!consumed) {
+            consumed = true;
+            buffers.forEach(DataBufferUtils::release);
+            buffers.clear();
+        }
+    }
+
+    private synchronized List<DataBuffer> consume() {
+        if (consumed) {
+            throw new IllegalStateException("The request body can only be consumed once");
+        }
+
+        consumed = true;
+        return buffers;
+    }
+
+    /**
+     * Records all tokens the parser can produce from the input fed so far.
+     *
+     * @throws IOException if the input is no valid JSON
+     */
+    private void drain() throws IOException {
+        JsonToken token;
+
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            tokens.copyCurrentEvent(parser);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web.reactive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValidationConfiguration;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSet;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetCatalog;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetValidator;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleValidationException;
+import com.github.jazzschmidt.spring.jsonvalidation.ValidationExceptionHandler;
+import com.github.jazzschmidt.spring.jsonvalidation.ValidationMetrics;
+import com.github.jazzschmidt.spring.jsonvalidation.web.ValidateJsonContent;
+import com.github.jazzschmidt.spring.jsonvalidation.web.ValidatorHandlerInterceptor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Validates the JSON body of requests to WebFlux handler methods annotated with {@link ValidateJsonContent} by means
+ * of all matching {@link RuleSet}s, before the handler is invoked. The body is tokenized without blocking while it
+ * arrives, see {@link AsyncJsonBody}, and its original buffers are passed on to the handler once the validation
+ * succeeded. Failed validations are answered with HTTP status FORBIDDEN and the same error object as in Spring MVC.
+ * <p>
+ * The rule sets are evaluated on the thread that received the end of the body, since they neither block nor perform
+ * I/O. Parallel validation waits for the rule sets applied on other threads, so it is moved off the event loop.
+ * </p>
+ */
+public class JsonValidationWebFilter implements WebFilter {
+
+    private static final Set<HttpMethod> METHODS = EnumSet.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH);
+
+    private final RuleSetValidator validator;
+    private final ObjectMapper objectMapper;
+    private final JsonValidationConfiguration configuration;
+    private final HandlerMapping handlerMapping;
+
+    /**
+     * Creates a filter validating the requests of the handler methods of a mapping
+     *
+     * @param validator      validator
+     * @param objectMapper   mapper the JSON is parsed with
+     * @param configuration  configuration
+     * @param handlerMapping mapping resolving the handler methods of the requests
+     */
+    public JsonValidationWebFilter(RuleSetValidator validator, ObjectMapper objectMapper,
+                                   JsonValidationConfiguration configuration, HandlerMapping handlerMapping) {
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.configuration = configuration;
+        this.handlerMapping = handlerMapping;
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        if (!isRequestWithJsonBody(exchange.getRequest())) {
+            return chain.filter(exchange);
+        }
+
+        return handlerMapping.getHandler(exchange)
+                .map(JsonValidationWebFilter::shouldValidate)
+                .defaultIfEmpty(false)
+                .flatMap(validate -> validate ? validate(exchange, chain) : chain.filter(exchange));
+    }
+
+    /**
+     * Validates the body of the request and passes it on to the handler, unless the validation fails.
+     *
+     * @param exchange exchange
+     * @param chain    filter chain
+     * @return completion of the request
+     */
+    private Mono<Void> validate(ServerWebExchange exchange, WebFilterChain chain) {
+        DataSize configuredMaximum = configuration.getMaxContentLength();
+        long maxContentLength = configuredMaximum != null ? configuredMaximum.toBytes() : Long.MAX_VALUE;
+
+        if (exchange.getRequest().getHeaders().getContentLength() > maxContentLength) {
+            return Mono.error(new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE));
+        }
+
+        return Mono.fromCallable(() -> new AsyncJsonBody(objectMapper, maxContentLength))
+                .flatMap(body -> exchange.getRequest().getBody()
+                        .doOnNext(body::append)
+                        .then(Mono.defer(() -> validate(body)))
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        // Only errors of reading and validating the body are mapped, not those of the handler
+                        .onErrorMap(UncheckedIOException.class, e -> invalidContent(e.getCause()))
+                        .onErrorMap(IOException.class, JsonValidationWebFilter::invalidContent)
+                        .doOnError(e -> body.release())
+                        .doOnCancel(body::release)
+                        .onErrorResume(RuleValidationException.class,
+                                e -> reject(exchange, e).then(Mono.<Optional<Long>>empty()))
+                        .flatMap(catalogVersion -> {
+                            catalogVersion.ifPresent(version -> exchange.getAttributes()
+                                    .put(ValidatorHandlerInterceptor.CATALOG_VERSION_ATTRIBUTE, version));
+
+                            ServerWebExchange validated = exchange.mutate()
+                                    .request(body.decorate(exchange.getRequest()))
+                                    .build();
+
+                            // Releases the buffers if the handler did not read the body
+                            return chain.filter(validated).doFinally(signal -> body.release());
+                        }));
+    }
+
+    /**
+     * Validates the parsed body.
+     *
+     * @param body completely received body
+     * @return version of the catalog that validated the body or empty if the body is empty
+     */
+    private Mono<Long> validate(AsyncJsonBody body) {
+        Mono<Long> validation = Mono.fromCallable(() -> {
+            JsonNode jsonNode = body.finish();
+            ValidationMetrics metrics = validator.getMetrics();
+
+            if (metrics.isEnabled()) {
+                metrics.recordPhase(ValidationMetrics.Phase.PARSE, body.getParseNanos());
+            }
+
+            if (jsonNode == null) {
+                return null;
+            }
+
+            RuleSetCatalog catalog = validator.getCatalog();
+            validator.validate(catalog, jsonNode);
+
+            return catalog.getVersion();
+        });
+
+        return configuration.isParallel() ? validation.subscribeOn(Schedulers.boundedElastic()) : validation;
+    }
+
+    /**
+     * Answers a failed validation with HTTP status FORBIDDEN.
+     *
+     * @param exchange  exchange
+     * @param exception failed validation
+     * @return completion of the response
+     */
+    private Mono<Void> reject(ServerWebExchange exchange, RuleValidationException exception) {
+        ServerHttpResponse response = exchange.getResponse();
+        byte[] error;
+
+        try {
+            error = objectMapper.writeValueAsBytes(new ValidationExceptionHandler.ValidationError(exception));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+
+        response.setStatusCode(HttpStatus.FORBIDDEN);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(error)));
+    }
+
+    private static ResponseStatusException invalidContent(Throwable cause) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid JSON content", cause);
+    }
+
+    private static boolean shouldValidate(Object handler) {
+        return handler instanceof HandlerMethod
+                && ((HandlerMethod) handler).hasMethodAnnotation(ValidateJsonContent.class);
+    }
+
+    /**
+     * Checks if the request has JSON content and its method is either one of POST, PUT or PATCH.
+     *
+     * @param request HTTP request
+     * @return true if the request is eligible for JSON validation
+     */
+    private static boolean isRequestWithJsonBody(ServerHttpRequest request) {
+        MediaType contentType = request.getHeaders().getContentType();
+
+        // Same media types as in Spring MVC, see JsonContentFilter
+        return METHODS.contains(request.getMethod())
+                && contentType != null
+                && contentType.toString().startsWith(MediaType.APPLICATION_JSON_VALUE);
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValidationConfiguration;
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetValidator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.HandlerMapping;
+
+/**
+ * Validates the request bodies of WebFlux handler methods with the {@link JsonValidationWebFilter} if the application
+ * is a reactive web application.
+ */
+@Configuration
+@ConditionalOnClass(name = "org.springframework.web.reactive.HandlerMapping")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveValidationConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JsonValidationWebFilter jsonValidationWebFilter(
+            RuleSetValidator validator, ObjectMapper objectMapper, JsonValidationConfiguration configuration,
+            @Qualifier("requestMappingHandlerMapping") HandlerMapping handlerMapping) {
+        return new JsonValidationWebFilter(validator, objectMapper, configuration, handlerMapping);
+    }
+}
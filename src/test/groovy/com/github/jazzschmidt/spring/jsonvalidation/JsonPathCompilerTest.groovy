@@ -0,0 +1,29 @@
+package com.github.jazzschmidt.spring.jsonvalidation
+
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+class JsonPathCompilerTest extends Specification {
+
+    def "shares compiled paths while they are referenced"() {
+        given:
+        def compiled = JsonPathCompiler.compile('$.shared.path')
+
+        expect:
+        JsonPathCompiler.compile('$.shared.path').is(compiled)
+    }
+
+    def "releases compiled paths that are no longer referenced"() {
+        given:
+        def conditions = new PollingConditions(timeout: 10)
+
+        when:
+        (0..<10000).each { JsonPathCompiler.compile('$.released' + it) }
+
+        then:
+        conditions.eventually {
+            System.gc()
+            assert JsonPathCompiler.size() < 1000
+        }
+    }
+}
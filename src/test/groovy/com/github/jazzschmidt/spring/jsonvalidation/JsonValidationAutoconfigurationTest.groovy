@@ -9,6 +9,7 @@ import com.github.jazzschmidt.spring.jsonvalidation.extra.TestProperties
 import com.github.jazzschmidt.spring.jsonvalidation.web.RuleSetRepository
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.util.unit.DataSize
 import spock.lang.Specification
 
 @SpringBootTest(classes = [JsonValidationAutoconfiguration, ObjectMapper, TestConfiguration])
@@ -23,6 +24,9 @@ class JsonValidationAutoconfigurationTest extends Specification {
     @Autowired
     Map<String, Class<?>> rules
 
+    @Autowired
+    JsonValidationConfiguration configuration
+
     def 'context starts'() {
         expect:
         matchers == [
@@ -40,4 +44,10 @@ class JsonValidationAutoconfigurationTest extends Specification {
         ]
     }
 
+    def 'does not limit the content length by default'() {
+        expect:
+        configuration.maxContentLength == null
+        configuration.contentSpillThreshold == DataSize.ofMegabytes(1)
+    }
+
 }
@@ -0,0 +1,37 @@
+package com.github.jazzschmidt.spring.jsonvalidation
+
+import spock.lang.Specification
+
+class JsonValuesTest extends Specification {
+
+    def "compares numbers beyond the range of long"() {
+        expect:
+        JsonValues.equal(value, other) == equal
+        JsonValues.equal(other, value) == equal
+        (JsonValues.canonical(value) == JsonValues.canonical(other)) == equal
+
+        where:
+        value                                   | other                                      || equal
+        new BigInteger("18446744073709551616")  | 0x1p64d                                    || true
+        new BigDecimal("18446744073709551616")  | 0x1p64d                                    || true
+        new BigInteger("100000000000000000000") | 1e20d                                      || true
+        new BigInteger("18446744073709551617")  | 1.8446744073709552E19d                     || false
+        new BigInteger("18446744073709551617")  | new BigDecimal("1.8446744073709551617E19") || true
+        new BigInteger("-9223372036854775809")  | -0x1p63d                                   || false
+        new BigInteger("-9223372036854775808")  | -0x1p63d                                   || true
+    }
+
+    def "compares decimals to the doubles they are read as"() {
+        expect:
+        JsonValues.equal(value, other) == equal
+        (JsonValues.canonical(value) == JsonValues.canonical(other)) == equal
+
+        where:
+        value                  | other       || equal
+        new BigDecimal("0.1")  | 0.1d        || true
+        new BigDecimal("0.10") | 0.1d        || true
+        new BigDecimal(0.1d)   | 0.1d        || true
+        new BigDecimal("0.3")  | 0.1d + 0.2d || false
+        new BigDecimal("2.5")  | 2.5f        || true
+    }
+}
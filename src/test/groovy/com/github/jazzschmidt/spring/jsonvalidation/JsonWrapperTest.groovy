@@ -0,0 +1,123 @@
+package com.github.jazzschmidt.spring.jsonvalidation
+
+import com.jayway.jsonpath.Configuration
+import com.jayway.jsonpath.Option
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class JsonWrapperTest extends Specification {
+
+    def mapper = JsonWrapper.DEFAULT_MAPPER
+
+    @Unroll
+    def "evaluates a shared path once per document if its value is #description"() {
+        given:
+        def provider = new CountingJsonProvider()
+        def wrapper = new JsonWrapper(mapper, configuration(provider), mapper.readTree(json))
+        def jsonPath = JsonPathCompiler.compile('$.shared')
+
+        when:
+        def first = wrapper.read(jsonPath)
+        def second = wrapper.read(JsonPathCompiler.compile('$.shared'))
+
+        then:
+        first == expected
+        second.is(first)
+        provider.evaluations == 1
+
+        where:
+        description | json                       | expected
+        "present"   | '{"shared": {"id": 1}}'    | [id: 1]
+        "null"      | '{"shared": null}'         | null
+        "missing"   | '{"other": 1}'             | null
+    }
+
+    def "evaluates a path again for another document"() {
+        given:
+        def provider = new CountingJsonProvider()
+        def jsonPath = JsonPathCompiler.compile('$.shared')
+
+        when:
+        ['{"shared": 1}', '{"shared": 2}'].each {
+            new JsonWrapper(mapper, configuration(provider), mapper.readTree(it)).read(jsonPath)
+        }
+
+        then:
+        provider.evaluations == 2
+    }
+
+    def "evaluates paths directly on the json node"() {
+        given:
+        def wrapper = new JsonWrapper(mapper.readTree('{"order": {"items": [{"id": 1}], "total": 10}}'))
+
+        expect:
+        JsonPathCompiler.NODE_CONFIGURATION.jsonProvider() instanceof JacksonJsonNodeJsonProvider
+        wrapper.read(JsonPathCompiler.compile('$.order.total')) == 10
+        wrapper.read(JsonPathCompiler.compile('$.order.items')) == [[id: 1]]
+
+        // The document is never converted to a Map for reading paths
+        wrapper.@jsonMap == null
+    }
+
+    def "shares the mapper and configuration between wrappers"() {
+        given:
+        def first = new JsonWrapper(mapper.readTree('{"id": 1}'))
+        def second = new JsonWrapper(mapper.readTree('{"id": 2}'))
+
+        expect:
+        first.@objectMapper.is(JsonWrapper.DEFAULT_MAPPER)
+        second.@objectMapper.is(JsonWrapper.DEFAULT_MAPPER)
+        first.@nodeConfiguration.is(JsonPathCompiler.NODE_CONFIGURATION)
+        second.@nodeConfiguration.is(JsonPathCompiler.NODE_CONFIGURATION)
+    }
+
+    def "shares the configuration of a factory between its wrappers"() {
+        given:
+        def factory = new JsonWrapperFactory(mapper)
+        def first = factory.wrap(mapper.readTree('{"id": 1}'))
+        def second = factory.wrap(mapper.readTree('{"id": 2}'))
+
+        expect:
+        first.@nodeConfiguration.is(second.@nodeConfiguration)
+        first.@nodeConfiguration.jsonProvider() instanceof JacksonJsonNodeJsonProvider
+    }
+
+    def "converts the json node to a Map only once"() {
+        given:
+        def wrapper = new JsonWrapper(mapper.readTree('{"id": 1}'))
+
+        when:
+        def jsonMap = wrapper.jsonMap
+
+        then:
+        jsonMap == [id: 1]
+        wrapper.jsonMap.is(jsonMap)
+    }
+
+    private static Configuration configuration(CountingJsonProvider provider) {
+        Configuration.builder()
+                .jsonProvider(provider)
+                .mappingProvider(new JacksonMappingProvider(JsonWrapper.DEFAULT_MAPPER))
+                .options(Option.SUPPRESS_EXCEPTIONS)
+                .build()
+    }
+
+    /**
+     * Counts the properties that are read from JSON objects
+     */
+    static class CountingJsonProvider extends JacksonJsonNodeJsonProvider {
+        int evaluations
+
+        CountingJsonProvider() {
+            super(JsonWrapper.DEFAULT_MAPPER)
+        }
+
+        @Override
+        Object getMapValue(Object obj, String key) {
+            evaluations++
+            super.getMapValue(obj, key)
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.jazzschmidt.spring.jsonvalidation
+
+import spock.lang.Specification
+
+class PersistentMapTest extends Specification {
+
+    def "puts and removes keys without changing previous maps"() {
+        given:
+        PersistentMap<Integer, String> empty = PersistentMap.empty()
+        def maps = [empty]
+
+        when:
+        (0..<2000).each { maps << maps.last().put(it, "v$it".toString()) }
+
+        then:
+        maps.last().size() == 2000
+        (0..<2000).every { maps.last().get(it) == "v$it" }
+        maps[1000].size() == 1000
+        maps[1000].get(999) == "v999"
+        maps[1000].get(1000) == null
+        empty.isEmpty()
+
+        when:
+        def removed = (0..<2000).step(2).inject(maps.last()) { map, key -> map.remove(key) }
+
+        then:
+        removed.size() == 1000
+        (0..<2000).every { removed.containsKey(it) == (it % 2 == 1) }
+        maps.last().size() == 2000
+        removed.remove(0).is(removed)
+    }
+
+    def "replaces values of present keys"() {
+        given:
+        def map = PersistentMap.empty().put("key", 1)
+
+        when:
+        def replaced = map.put("key", 2)
+
+        then:
+        replaced.size() == 1
+        replaced.get("key") == 2
+        map.get("key") == 1
+    }
+
+    def "stores keys of equal hashes"() {
+        given:
+        def keys = (0..<5).collect { new CollidingKey(id: it) }
+
+        when:
+        def map = keys.inject(PersistentMap.empty()) { result, key -> result.put(key, key.id) }
+
+        then:
+        map.size() == 5
+        keys.every { map.get(it) == it.id }
+
+        when:
+        def removed = map.remove(keys[1]).remove(keys[3])
+        def entries = [:]
+        removed.forEach { key, value -> entries[key] = value }
+
+        then:
+        removed.size() == 3
+        entries == [(keys[0]): 0, (keys[2]): 2, (keys[4]): 4]
+        map.size() == 5
+    }
+
+    static class CollidingKey {
+        int id
+
+        @Override
+        int hashCode() {
+            42
+        }
+
+        @Override
+        boolean equals(Object other) {
+            other instanceof CollidingKey && other.id == id
+        }
+    }
+}
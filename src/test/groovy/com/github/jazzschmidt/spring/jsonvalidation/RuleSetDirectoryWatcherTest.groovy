@@ -0,0 +1,142 @@
+package com.github.jazzschmidt.spring.jsonvalidation
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.github.jazzschmidt.spring.jsonvalidation.extra.TestConfiguration
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+@SpringBootTest(classes = [TestConfiguration, JsonValidationAutoconfiguration, ObjectMapper])
+class RuleSetDirectoryWatcherTest extends Specification {
+
+    @Autowired
+    RuleSetValidator engine
+
+    @Autowired
+    ObjectMapper mapper
+
+    @TempDir
+    Path directory
+
+    RuleSetDirectoryWatcher watcher
+
+    def setup() {
+        watcher = new RuleSetDirectoryWatcher(directory, engine, mapper)
+    }
+
+    def cleanup() {
+        fileRuleSets().each { engine.removeRuleSet(it) }
+    }
+
+    def "reloads only changed rule set files"() {
+        given:
+        def first = directory.resolve("first.json")
+        def second = directory.resolve("second.json")
+
+        first.text = ruleSetJson("First", "first")
+        second.text = ruleSetJson("Second", "second")
+        watcher.scan()
+
+        def unchanged = engine.ruleSets.find { it.name == "Second" }
+
+        when:
+        first.text = ruleSetJson("First", "changed")
+        watcher.reload([first, second])
+
+        then:
+        engine.ruleSets.find { it.name == "Second" }.is(unchanged)
+        engine.ruleSets.find { it.name == "First" }.matchers[0].value == "changed"
+
+        when:
+        Files.delete(first)
+        Files.delete(second)
+        watcher.reload([first, second])
+
+        then:
+        fileRuleSets().empty
+    }
+
+    def "keeps the previous rule set of malformed rule set files"() {
+        given:
+        def valid = directory.resolve("valid.json")
+        def unknown = directory.resolve("unknown.json")
+        def incomplete = directory.resolve("incomplete.json")
+
+        valid.text = ruleSetJson("Valid", "valid")
+        unknown.text = ruleSetJson("Unknown", "unknown").replace("field-equals-matcher", "no-such-matcher")
+        incomplete.text = '{"name": "Incomplete", "description": "File", "matchers": []}'
+
+        when:
+        watcher.scan()
+
+        then:
+        noExceptionThrown()
+        fileRuleSets()*.name == ["Valid"]
+
+        when:
+        valid.text = ruleSetJson("Valid", "valid").replace("field-equals-matcher", "no-such-matcher")
+        watcher.reload([valid, unknown, incomplete])
+
+        then:
+        noExceptionThrown()
+        engine.ruleSets.find { it.name == "Valid" }.matchers[0].value == "valid"
+    }
+
+    def "rejects rule set files with the name of the rule set of another file"() {
+        given:
+        def first = directory.resolve("a.json")
+        def second = directory.resolve("b.json")
+
+        first.text = ruleSetJson("Shared", "first")
+        second.text = ruleSetJson("Shared", "second")
+
+        when:
+        watcher.scan()
+
+        then:
+        fileRuleSets()*.matchers*.value.flatten() == ["first"]
+
+        when:
+        first.text = ruleSetJson("Shared", "changed")
+        watcher.reload([first])
+
+        then: "the name stays with the file that holds it"
+        fileRuleSets()*.matchers*.value.flatten() == ["changed"]
+
+        when:
+        Files.delete(first)
+        watcher.reload([first])
+
+        then: "the rejected file is loaded once the name is free"
+        fileRuleSets()*.matchers*.value.flatten() == ["second"]
+    }
+
+    def "does not pass the name of a file on to a renamed rule set of another file"() {
+        given:
+        def first = directory.resolve("a.json")
+        def second = directory.resolve("b.json")
+
+        first.text = ruleSetJson("First", "first")
+        second.text = ruleSetJson("Second", "second")
+        watcher.scan()
+
+        when:
+        second.text = ruleSetJson("First", "renamed")
+        watcher.reload([second])
+
+        then:
+        fileRuleSets()*.matchers*.value.flatten() == ["first"]
+    }
+
+    private Collection<RuleSet> fileRuleSets() {
+        engine.ruleSets.findAll { it.description == "File" }
+    }
+
+    private static String ruleSetJson(String name, String value) {
+        """{"name": "$name", "description": "File", "matchers": [{"id": "field-equals-matcher", "jsonPath": "\$.file", "value": "$value"}], "rules": []}"""
+    }
+}
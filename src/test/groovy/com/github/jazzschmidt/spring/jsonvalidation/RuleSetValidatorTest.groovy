@@ -1,12 +1,25 @@
 package com.github.jazzschmidt.spring.jsonvalidation
 
+import com.fasterxml.jackson.databind.JsonNode
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldEquals
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldEqualsComponent
 import com.github.jazzschmidt.spring.jsonvalidation.extra.TestConfiguration
 import com.github.jazzschmidt.spring.jsonvalidation.extra.TestProperties
+import com.jayway.jsonpath.InvalidPathException
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.context.SpringBootTest
 import spock.lang.Specification
 
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.CyclicBarrier
+import java.util.concurrent.Executors
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.stream.Collectors
+
 import static com.github.jazzschmidt.spring.jsonvalidation.RuleSetBuilder.DefinitionsSupplier.fieldEquals
 
 @SpringBootTest(classes = [TestConfiguration, JsonValidationAutoconfiguration, ObjectMapper])
@@ -15,6 +28,15 @@ class RuleSetValidatorTest extends Specification {
     @Autowired
     RuleSetValidator engine
 
+    @Autowired
+    ObjectMapper mapper
+
+    List<RuleSet> addedRuleSets = []
+
+    def cleanup() {
+        addedRuleSets.each { engine.removeRuleSet(it) }
+    }
+
     def "skips non-matching json"() {
         given:
         def json1 = ["id": 123456, "name": "foo"]
@@ -49,12 +71,473 @@ class RuleSetValidatorTest extends Specification {
         thrown(RuleValidationException)
     }
 
+    def "resolves the json paths of definitions once when binding them"() {
+        given:
+        def component = new BindingFieldEqualsComponent()
+        def validator = new RuleSetValidator([component.matcher] as Set, [component.validator] as Set)
+
+        validator.addRuleSet(new RuleSet(name: "Bound", matchers: [fieldEquals('$.type', "bound")],
+                rules: [fieldEquals('$.total', 10)]))
+
+        when:
+        10.times { validator.validate(["type": "bound", "total": 10]) }
+
+        then:
+        noExceptionThrown()
+        component.bindings == 2
+        component.lookups == 0
+    }
+
+    def "applies only rule sets discriminated by the values of the json"() {
+        given:
+        def component = new CountingFieldEqualsComponent()
+        def validator = new RuleSetValidator([component.matcher] as Set, [component.validator] as Set)
+
+        (0..<100).each {
+            validator.addRuleSet(new RuleSet(name: "Type $it", matchers: [fieldEquals('$.type', "type$it")],
+                    rules: [fieldEquals('$.total', 10)]))
+        }
+
+        when:
+        validator.validate(["type": "type42", "total": 10])
+
+        then:
+        noExceptionThrown()
+        // Only the matcher and the validator of the single candidate are evaluated
+        component.evaluations == 2
+
+        when:
+        component.evaluations = 0
+        validator.validate(["type": "type42", "total": 11])
+
+        then:
+        def e = thrown(RuleValidationException)
+        e.ruleSet.name == "Type 42"
+        component.evaluations == 2
+
+        when:
+        component.evaluations = 0
+        validator.validate(["type": "unknown", "total": 11])
+
+        then:
+        noExceptionThrown()
+        component.evaluations == 0
+    }
+
+    def "validates streamed json content"() {
+        given:
+        ruleSet {
+            matchers = [fieldEquals('$.kind', 'stream')]
+            rules = [fieldEquals('$.nested.value', 1)]
+        }
+
+        def validContent = '{"kind": "stream", "nested": {"value": 1}, "tail": [1, 2, 3]}'
+        def invalidContent = '{"kind": "stream", "nested": {"value": 2}}'
+
+        when:
+        engine.validate({ factory -> factory.createParser(validContent) } as JsonSource)
+
+        then:
+        noExceptionThrown()
+
+        when:
+        engine.validate({ factory -> factory.createParser(invalidContent) } as JsonSource)
+
+        then:
+        thrown(RuleValidationException)
+    }
+
+    def "reports the catalog version used for the validation"() {
+        given:
+        def previousVersion = engine.catalog.version
+
+        ruleSet {
+            matchers = [fieldEquals('$.type', 'versioned')]
+            rules = [new TestProperties(success: false)]
+        }
+
+        def catalog = engine.catalog
+        def version = catalog.version
+
+        expect:
+        version == previousVersion + 1
+
+        when:
+        engine.validate(catalog, ["type": "other"])
+
+        then:
+        noExceptionThrown()
+
+        when:
+        engine.validate(catalog, ["type": "versioned"])
+
+        then:
+        def e = thrown(RuleValidationException)
+        e.catalogVersion == version
+    }
+
+    def "derives catalogs from their previous version"() {
+        given:
+        def component = new FieldEqualsComponent()
+        def validator = new RuleSetValidator([component.matcher] as Set, [component.validator] as Set)
+        def ruleSets = (0..<3).collect {
+            new RuleSet(name: "Catalog $it", matchers: [fieldEquals('$.type', "type$it")],
+                    rules: [fieldEquals('$.valid', true)])
+        }
+
+        when:
+        validator.addRuleSet(ruleSets[0])
+        def first = validator.catalog
+        validator.addRuleSet(ruleSets[1])
+        def second = validator.catalog
+
+        then:
+        first.ruleSets == [ruleSets[0]]
+        second.ruleSets == ruleSets[0..1]
+        second.streamingReader.is(first.streamingReader)
+
+        when:
+        validator.update([ruleSets[0]], [ruleSets[2], ruleSets[0]])
+
+        then:
+        validator.ruleSets == [ruleSets[1], ruleSets[2], ruleSets[0]]
+        validator.catalog.streamingReader.is(first.streamingReader)
+        second.ruleSets == ruleSets[0..1]
+
+        when:
+        validator.validate(["type": "type2", "valid": false])
+
+        then:
+        thrown(RuleValidationException)
+
+        when:
+        validator.removeRuleSet(ruleSets[2])
+        validator.validate(["type": "type2", "valid": false])
+
+        then:
+        noExceptionThrown()
+        validator.catalog.size() == 2
+    }
+
+    def "applies matching rule sets in parallel"() {
+        given:
+        engine.enableParallelValidation(ForkJoinPool.commonPool(), 2)
+
+        3.times {
+            ruleSet {
+                matchers = [fieldEquals('$.type', 'parallel')]
+                rules = [fieldEquals('$.valid', true)]
+            }
+        }
+
+        when:
+        engine.validate(["type": "parallel", "valid": true])
+
+        then:
+        noExceptionThrown()
+
+        when:
+        engine.validate(["type": "parallel", "valid": false])
+
+        then:
+        thrown(RuleValidationException)
+
+        cleanup:
+        engine.disableParallelValidation()
+    }
+
+    def "applies matching rule sets concurrently"() {
+        given:
+        def executor = Executors.newFixedThreadPool(2)
+        def barrier = new CyclicBarrier(3)
+        def threads = ConcurrentHashMap.newKeySet()
+        def validator = probeValidator { Probe probe ->
+            threads << Thread.currentThread()
+            // Times out unless all three rule sets are applied at the same time
+            barrier.await(10, TimeUnit.SECONDS)
+        }
+        validator.enableParallelValidation(executor, 2)
+        ["First", "Second", "Third"].each { validator.addRuleSet(probeRuleSet(it)) }
+
+        when:
+        validator.validate(["type": "probe"])
+
+        then:
+        noExceptionThrown()
+        threads.size() == 3
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "reports the first failure in registration order and skips later rule sets"() {
+        given:
+        def executor = Executors.newSingleThreadExecutor()
+        def secondFailed = new CountDownLatch(1)
+        def applied = Collections.synchronizedList([])
+        def validator = probeValidator { Probe probe ->
+            applied << probe.name
+
+            if (probe.name == "First") {
+                // Fails only after the second rule set failed and the executor processed the remaining tasks
+                assert secondFailed.await(10, TimeUnit.SECONDS)
+                executor.submit({} as Runnable).get(10, TimeUnit.SECONDS)
+                throw new RuleValidationException("First failed")
+            }
+
+            if (probe.name == "Second") {
+                secondFailed.countDown()
+                throw new RuleValidationException("Second failed")
+            }
+        }
+        validator.enableParallelValidation(executor, 2)
+        ["First", "Second", "Third", "Fourth"].each { validator.addRuleSet(probeRuleSet(it)) }
+
+        when:
+        validator.validate(["type": "probe"])
+
+        then:
+        def e = thrown(RuleValidationException)
+        e.message == "First failed"
+        e.ruleSet.name == "First"
+        applied as Set == ["First", "Second"] as Set
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "validates with compiled predicates"() {
+        given:
+        def component = new CountingFieldEqualsComponent()
+        def validator = new RuleSetValidator([component.matcher] as Set, [component.validator] as Set)
+        validator.predicateCompilation = compilation
+
+        validator.addRuleSet(new RuleSet(name: "Compiled",
+                matchers: [fieldEquals('$.type', 'compiled'), fieldEquals('$.id', 1)],
+                rules: [fieldEquals('$.valid', true)]))
+
+        when:
+        validator.validate(["type": "compiled", "id": 1, "valid": true])
+        validator.validate(["type": "compiled", "valid": false])
+
+        then:
+        noExceptionThrown()
+        component.compilations == compilations
+        (component.evaluations == 0) == compilation
+
+        when:
+        validator.validate(["type": "compiled", "id": 1, "valid": false])
+
+        then:
+        def e = thrown(RuleValidationException)
+        e.message == 'Value of $.valid must be `true`, but is `false`'
+
+        where:
+        compilation | compilations
+        true        | 3
+        false       | 0
+    }
+
+    def "compares numbers independently of their type"() {
+        given:
+        ruleSet {
+            matchers = [fieldEquals('$.amount', 1L)]
+            rules = [fieldEquals('$.price', 2.5d)]
+        }
+
+        when:
+        engine.validate(["amount": 1.0d, "price": new BigDecimal("2.50")])
+        engine.validate(["amount": new BigInteger("1"), "price": 2.5f])
+
+        then:
+        noExceptionThrown()
+
+        when:
+        engine.validate(["amount": 1, "price": 2])
+
+        then:
+        thrown(RuleValidationException)
+    }
+
+    def "selects rule sets discriminated by numbers beyond the range of long"() {
+        given:
+        def component = new FieldEqualsComponent()
+        def validator = new RuleSetValidator([component.matcher] as Set, [component.validator] as Set)
+
+        validator.addRuleSet(new RuleSet(name: "Large", matchers: [fieldEquals('$.amount', 0x1p64d)],
+                rules: [fieldEquals('$.valid', true)]))
+        validator.addRuleSet(new RuleSet(name: "Decimal", matchers: [fieldEquals('$.amount', 0.1d)],
+                rules: [fieldEquals('$.valid', true)]))
+
+        when:
+        validator.validate(["amount": amount, "valid": false])
+
+        then:
+        def e = thrown(RuleValidationException)
+        e.ruleSet.name == name
+
+        where:
+        amount                                     | name
+        new BigInteger("18446744073709551616")     | "Large"
+        new BigDecimal("1.8446744073709551616E19") | "Large"
+        new BigDecimal("0.10")                     | "Decimal"
+    }
+
+    def "skips rule sets discriminated by a nearby number beyond the range of long"() {
+        given:
+        def component = new FieldEqualsComponent()
+        def validator = new RuleSetValidator([component.matcher] as Set, [component.validator] as Set)
+
+        validator.addRuleSet(new RuleSet(name: "Large", matchers: [fieldEquals('$.amount', 0x1p64d)],
+                rules: [fieldEquals('$.valid', true)]))
+
+        when:
+        validator.validate(["amount": new BigInteger("18446744073709551617"), "valid": false])
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "evaluates equal matcher definitions once per document"() {
+        given:
+        def evaluations = new AtomicInteger()
+        def matcher = new Matcher<FieldEquals>(FieldEquals) {
+            @Override
+            protected boolean matches(FieldEquals definition, JsonWrapper json) {
+                evaluations.incrementAndGet()
+                json.read(JsonPathCompiler.compile(definition.jsonPath)) == definition.value
+            }
+
+            @Override
+            protected Collection<String> jsonPaths(FieldEquals definition) {
+                [definition.jsonPath]
+            }
+        }
+        def validator = new RuleSetValidator([matcher] as Set, [] as Set)
+        def first = new RuleSet(name: "First", matchers: [fieldEquals('$.type', 'shared'), fieldEquals('$.a', 1)])
+        def second = new RuleSet(name: "Second", matchers: [fieldEquals('$.type', 'shared'), fieldEquals('$.b', 2)])
+
+        when:
+        validator.update([], [first, second])
+        validator.validate(["type": "shared", "a": 1, "b": 2])
+
+        then:
+        validator.conditionCount == 3
+        evaluations.get() == 3
+
+        when:
+        validator.removeRuleSet(first)
+        evaluations.set(0)
+        validator.validate(["type": "shared", "a": 1, "b": 2])
+
+        then:
+        validator.conditionCount == 2
+        evaluations.get() == 2
+
+        when:
+        validator.update([], [new RuleSet(name: "Invalid",
+                matchers: [fieldEquals('$.type', 'shared'), fieldEquals('$.c', 3), fieldEquals('$[', 4)])])
+
+        then:
+        thrown(InvalidPathException)
+        validator.conditionCount == 2
+        validator.ruleSets == [second]
+
+        when:
+        validator.update([], [first, first])
+
+        then:
+        validator.conditionCount == 3
+
+        when:
+        validator.removeRuleSet(first)
+
+        then:
+        validator.conditionCount == 2
+    }
+
+    def "reports the results of batch validations"() {
+        given:
+        ruleSet {
+            matchers = [fieldEquals('$.type', 'batch')]
+            rules = [fieldEquals('$.valid', true)]
+        }
+
+        def documents = [
+                ["type": "batch", "valid": true],
+                ["type": "batch", "valid": false],
+                ["type": "other"]
+        ].collect { mapper.valueToTree(it) as JsonNode }
+
+        when:
+        def results = engine.validateAll(documents)
+
+        then:
+        results*.valid == [true, false, true]
+        results[1].ruleSet.name == "Test Name"
+        engine.validateAll(documents.stream()).collect(Collectors.toList())*.valid == [true, false, true]
+    }
+
     private void ruleSet(@DelegatesTo(RuleSet) Closure configure) {
         def ruleSet = new RuleSet(name: "Test Name", description: "Test description")
         configure.delegate = ruleSet
         configure()
 
         engine.addRuleSet(ruleSet)
+        addedRuleSets << ruleSet
+    }
+
+    private static RuleSetValidator probeValidator(Closure action) {
+        def component = new FieldEqualsComponent()
+        def probeValidator = new Validator<Probe>(Probe) {
+            @Override
+            protected void apply(Probe definition, JsonWrapper json) throws RuleValidationException {
+                action(definition)
+            }
+        }
+
+        new RuleSetValidator([component.matcher] as Set, [probeValidator] as Set)
+    }
+
+    private static RuleSet probeRuleSet(String name) {
+        new RuleSet(name: name, matchers: [fieldEquals('$.type', 'probe')], rules: [new Probe(name: name)])
+    }
+
+    static class Probe {
+        String name
+    }
+
+    static class CountingFieldEqualsComponent extends FieldEqualsComponent {
+        int compilations
+        int evaluations
+
+        @Override
+        protected JsonPredicate compile(FieldEquals definition) {
+            compilations++
+            super.compile(definition)
+        }
+
+        @Override
+        boolean matches(FieldEquals definition, JsonWrapper json) {
+            evaluations++
+            super.matches(definition, json)
+        }
     }
 
+    static class BindingFieldEqualsComponent extends FieldEqualsComponent {
+        int bindings
+        int lookups
+
+        @Override
+        protected JsonPredicate bind(FieldEquals definition) {
+            bindings++
+            super.bind(definition)
+        }
+
+        @Override
+        protected Object readJsonPath(String jsonPath, JsonWrapper json) {
+            lookups++
+            super.readJsonPath(jsonPath, json)
+        }
+    }
 }
@@ -0,0 +1,137 @@
+package com.github.jazzschmidt.spring.jsonvalidation.metrics
+
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSet
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetValidator
+import com.github.jazzschmidt.spring.jsonvalidation.RuleValidationException
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldEqualsComponent
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+
+import static com.github.jazzschmidt.spring.jsonvalidation.RuleSetBuilder.DefinitionsSupplier.fieldEquals
+
+class MicrometerValidationMetricsTest extends Specification {
+
+    def registry = new SimpleMeterRegistry()
+    def metrics = new MicrometerValidationMetrics(registry, 2)
+    def component = new FieldEqualsComponent()
+    def validator = new RuleSetValidator([component.matcher] as Set, [component.validator] as Set)
+
+    def setup() {
+        validator.metrics = metrics
+        metrics.monitor(validator)
+    }
+
+    def "counts evaluated, matched and rejected rule sets"() {
+        given:
+        validator.addRuleSet(ruleSet("First"))
+
+        when:
+        validator.validate(["type": "metrics", "valid": true])
+        validator.validate(["type": "metrics", "valid": false])
+
+        then:
+        thrown(RuleValidationException)
+        count("First", "evaluated") == 2
+        count("First", "matched") == 2
+        count("First", "rejected") == 1
+        registry.get("jsonvalidation.rulesets").gauge().value() == 1
+    }
+
+    def "tags rule sets exceeding the limit as other"() {
+        given:
+        ["First", "Second", "Third"].each { validator.addRuleSet(ruleSet(it)) }
+
+        when:
+        validator.validate(["type": "metrics", "valid": true])
+
+        then:
+        def tags = tags()
+        tags.size() == 3
+        tags.contains(MicrometerValidationMetrics.OVERFLOW_TAG)
+        count(MicrometerValidationMetrics.OVERFLOW_TAG, "evaluated") == 1
+    }
+
+    def "does not share the overflow tag with a rule set named like it"() {
+        given:
+        def named = ruleSet(MicrometerValidationMetrics.OVERFLOW_TAG)
+        validator.update([], [named, ruleSet("_other")])
+        validator.validate(["type": "metrics", "valid": true])
+
+        when:
+        validator.addRuleSet(ruleSet("Third"))
+        validator.validate(["type": "metrics", "valid": true])
+
+        then:
+        tags() == ["_other", "__other", MicrometerValidationMetrics.OVERFLOW_TAG] as Set
+        count("_other", "evaluated") == 2
+        count("__other", "evaluated") == 2
+        count(MicrometerValidationMetrics.OVERFLOW_TAG, "evaluated") == 1
+
+        when:
+        validator.update([named], [])
+
+        then:
+        tags() == ["__other", MicrometerValidationMetrics.OVERFLOW_TAG] as Set
+    }
+
+    def "removes the meters of removed rule sets"() {
+        given:
+        def first = ruleSet("First")
+        def second = ruleSet("Second")
+        validator.update([], [first, second])
+        validator.validate(["type": "metrics", "valid": true])
+
+        when:
+        validator.removeRuleSet(first)
+
+        then:
+        tags() == ["Second"] as Set
+        registry.find("jsonvalidation.ruleset").tag("ruleSet", "First").counters().isEmpty()
+
+        when:
+        validator.addRuleSet(ruleSet("Third"))
+        validator.validate(["type": "metrics", "valid": true])
+
+        then:
+        tags() == ["Second", "Third"] as Set
+    }
+
+    def "keeps the meters of replaced rule sets of the same name"() {
+        given:
+        def previous = ruleSet("First")
+        validator.addRuleSet(previous)
+        validator.validate(["type": "metrics", "valid": true])
+
+        when:
+        validator.update([previous], [ruleSet("First")])
+        validator.validate(["type": "metrics", "valid": true])
+
+        then:
+        count("First", "evaluated") == 2
+    }
+
+    def "does not tag rule sets of other validators"() {
+        given:
+        def other = new RuleSetValidator([component.matcher] as Set, [component.validator] as Set)
+        other.addRuleSet(ruleSet("Foreign"))
+
+        when:
+        metrics.recordEvaluated(other.ruleSets[0])
+
+        then:
+        tags() == [MicrometerValidationMetrics.OVERFLOW_TAG] as Set
+    }
+
+    private double count(String ruleSet, String outcome) {
+        registry.get("jsonvalidation.ruleset").tag("ruleSet", ruleSet).tag("outcome", outcome).counter().count()
+    }
+
+    private Set<String> tags() {
+        registry.find("jsonvalidation.ruleset").counters().collect { it.id.getTag("ruleSet") } as Set
+    }
+
+    private static RuleSet ruleSet(String name) {
+        new RuleSet(name: name, description: "Metrics",
+                matchers: [fieldEquals('$.type', 'metrics')], rules: [fieldEquals('$.valid', true)])
+    }
+}
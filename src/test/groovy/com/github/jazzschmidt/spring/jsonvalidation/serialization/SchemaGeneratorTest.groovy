@@ -8,6 +8,9 @@ import org.springframework.boot.test.context.SpringBootTest
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.nio.ReadOnlyBufferException
+import java.nio.charset.StandardCharsets
+
 @SpringBootTest(classes = [JsonValidationAutoconfiguration, ObjectMapper])
 class SchemaGeneratorTest extends Specification {
 
@@ -44,6 +47,41 @@ class SchemaGeneratorTest extends Specification {
         "rules"    | readFile(SCHEMA_RULES)
     }
 
+    def "caches generated schemas until the cache is cleared"() {
+        given:
+        def schema = generator.getMatchersSchemaBytes()
+        def mergedSchema = generator.getMergedJsonSchema("http://localhost/schema")
+
+        expect:
+        generator.getMergedJsonSchema("http://localhost/schema").is(mergedSchema)
+
+        when:
+        generator.clearCache()
+
+        then:
+        !generator.getMergedJsonSchema("http://localhost/schema").is(mergedSchema)
+        generator.getMatchersSchemaBytes() == schema
+    }
+
+    def "returns read-only views of the cached schemas"() {
+        when:
+        def schemas = [
+                generator.getMatchersSchemaBytes(),
+                generator.getRulesSchemaBytes(),
+                generator.getRootSchemaBytes("http://localhost/schema")
+        ]
+
+        then:
+        schemas.every { it.readOnly }
+
+        when:
+        schemas[0].put((byte) ' ')
+
+        then:
+        thrown(ReadOnlyBufferException)
+        generator.getMatchersSchema() == StandardCharsets.UTF_8.decode(generator.getMatchersSchemaBytes()).toString()
+    }
+
     private String readFile(String path) {
         getClass().getResource(path).text
     }
@@ -0,0 +1,94 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.github.jazzschmidt.spring.jsonvalidation.JsonWrapper
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSet
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetValidator
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldEquals
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldEqualsComponent
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+import static com.github.jazzschmidt.spring.jsonvalidation.RuleSetBuilder.DefinitionsSupplier.fieldEquals
+
+class BatchValidationResponseTest extends Specification {
+
+    def mapper = new ObjectMapper()
+    def component = new FailingFieldEqualsComponent()
+    def validator = new RuleSetValidator([component.matcher] as Set, [component.validator] as Set)
+
+    def setup() {
+        validator.addRuleSet(new RuleSet(name: "Batch", matchers: [fieldEquals('$.type', 'batch')],
+                rules: [fieldEquals('$.valid', true)]))
+    }
+
+    def "writes a result line for every document"() {
+        given:
+        def request = '{"type": "batch", "valid": true}\r\n' +
+                '\n' +
+                '{"type": "batch", "valid": false}\n' +
+                '{"type": \n' +
+                '{"type": "batch", "valid": "explode"}\n' +
+                '{"type": "other", "padding": "' + 'x' * 64 + '"}\n' +
+                '{"type": "other"}'
+
+        when:
+        def results = validate(request, 64, parallel)
+
+        then:
+        results*.line == [1, 3, 4, 5, 6, 7]
+        results*.valid == [true, false, false, false, false, true]
+        results[1].ruleSet == "Batch"
+        results[2].message.startsWith("JSON is invalid")
+        results[3].message == "Validation failed unexpectedly"
+        results[4].message == "Line exceeds the maximum length of 64 bytes"
+
+        where:
+        parallel << [false, true]
+    }
+
+    def "accepts lines of the maximum length"() {
+        given:
+        def document = '{"type": "other", "padding": "' + 'x' * 32 + '"}'
+
+        expect:
+        document.length() == 64
+        validate(document + '\r\n' + document, 64, false)*.valid == [true, true]
+        validate(document + ' ', 64, false)*.valid == [false]
+    }
+
+    def "measures lines in bytes of their UTF-8 encoding"() {
+        given:
+        def document = '{"type": "other", "padding": "' + '\u00e4' * 16 + '"}'
+
+        expect:
+        document.length() == 48
+        document.getBytes(StandardCharsets.UTF_8).length == 64
+        validate(document, 64, false)*.valid == [true]
+        validate(document, 63, false)*.message == ["Line exceeds the maximum length of 63 bytes"]
+    }
+
+    private List<Map> validate(String request, int maxLineLength, boolean parallel) {
+        def input = new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8))
+        def output = new ByteArrayOutputStream()
+
+        new BatchValidationResponse(input, validator, mapper, parallel, maxLineLength).writeTo(output)
+
+        output.toString(StandardCharsets.UTF_8).readLines().collect { mapper.readValue(it, Map) }
+    }
+
+    /**
+     * Fails unexpectedly for a specific value
+     */
+    static class FailingFieldEqualsComponent extends FieldEqualsComponent {
+        @Override
+        boolean matches(FieldEquals definition, JsonWrapper json) {
+            if (String.valueOf(readJsonPath('$.valid', json)).contains("explode")) {
+                throw new IllegalStateException("Unexpected failure")
+            }
+
+            super.matches(definition, json)
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValidationAutoconfiguration
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetBuilder
+import com.github.jazzschmidt.spring.jsonvalidation.extra.TestConfiguration
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+import static com.github.jazzschmidt.spring.jsonvalidation.RuleSetBuilder.DefinitionsSupplier.fieldEquals
+
+@SpringBootTest(classes = [TestConfiguration, JsonValidationAutoconfiguration, ObjectMapper])
+class FileRuleSetRepositoryTest extends Specification {
+
+    @Autowired
+    ObjectMapper mapper
+
+    @TempDir
+    Path directory
+
+    def "restores persisted rule sets"() {
+        given:
+        def repository = new FileRuleSetRepository(directory, mapper, 3)
+
+        when:
+        repository.persist(ruleSet("first", "a"))
+        repository.persist(ruleSet("second", "b"))
+        repository.persist(ruleSet("first", "c"))
+        repository.deleteByName("second")
+        repository.persist(ruleSet("third", "d"))
+        repository.close()
+
+        def restored = new FileRuleSetRepository(directory, mapper, 3)
+
+        then:
+        restored.all*.name == ["first", "third"]
+        restored.getByName("first").get().matchers[0].value == "c"
+
+        cleanup:
+        restored?.close()
+    }
+
+    def "discards an incomplete entry at the end of the log"() {
+        given:
+        def repository = new FileRuleSetRepository(directory, mapper, 100)
+        repository.persist(ruleSet("complete", "a"))
+        repository.close()
+
+        directory.resolve(FileRuleSetRepository.LOG_FILE).toFile() << '{"persist":{"name":"incompl'
+
+        when:
+        def restored = new FileRuleSetRepository(directory, mapper, 100)
+
+        then:
+        restored.all*.name == ["complete"]
+        Files.size(directory.resolve(FileRuleSetRepository.LOG_FILE)) == 0
+
+        cleanup:
+        restored?.close()
+    }
+
+    private static ruleSet(String name, String value) {
+        new RuleSetBuilder(name, "Description")
+                .matches(fieldEquals('$.type', value))
+                .build()
+    }
+}
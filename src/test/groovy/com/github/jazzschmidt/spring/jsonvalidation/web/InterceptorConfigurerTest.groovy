@@ -0,0 +1,43 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.springframework.http.MediaType
+import org.springframework.http.converter.HttpMessageConverter
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter
+import org.springframework.mock.http.MockHttpOutputMessage
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+class InterceptorConfigurerTest extends Specification {
+
+    def "replaces the jackson converter with a validated converter of the same settings"() {
+        given:
+        def original = new MappingJackson2HttpMessageConverter(new ObjectMapper())
+        original.supportedMediaTypes = [MediaType.APPLICATION_JSON, new MediaType("application", "vnd.test+json")]
+        original.defaultCharset = StandardCharsets.ISO_8859_1
+        original.prettyPrint = true
+        original.prefixJson = true
+
+        List<HttpMessageConverter<?>> converters = [original]
+
+        when:
+        new InterceptorConfigurer(null).extendMessageConverters(converters)
+
+        then:
+        def replacement = converters[0]
+        replacement instanceof ValidatedJsonHttpMessageConverter
+        replacement.objectMapper.is(original.objectMapper)
+        replacement.supportedMediaTypes == original.supportedMediaTypes
+        replacement.defaultCharset == StandardCharsets.ISO_8859_1
+        write(replacement) == write(original)
+        write(replacement).startsWith(")]}', ")
+    }
+
+    private static String write(MappingJackson2HttpMessageConverter converter) {
+        def output = new MockHttpOutputMessage()
+        converter.write([name: "Foo"], MediaType.APPLICATION_JSON, output)
+
+        output.bodyAsString
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValidationAutoconfiguration
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValidationConfiguration
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetBuilder
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetValidator
+import com.github.jazzschmidt.spring.jsonvalidation.components.FieldEqualsComponent
+import com.github.jazzschmidt.spring.jsonvalidation.extra.TestConfiguration
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType
+import spock.lang.Specification
+
+import static com.github.jazzschmidt.spring.jsonvalidation.RuleSetBuilder.DefinitionsSupplier.fieldEquals
+
+@SpringBootTest(classes = [TestConfiguration, JsonValidationAutoconfiguration, ObjectMapper])
+class JdbcRuleSetRepositoryTest extends Specification {
+
+    @Autowired
+    ObjectMapper mapper
+
+    EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build()
+
+    def cleanup() {
+        database.shutdown()
+    }
+
+    def "polls the changes of other instances"() {
+        given:
+        def first = repository()
+        def second = repository()
+
+        when:
+        first.persist(ruleSet("shared", "a"))
+        def changes = second.poll()
+
+        then:
+        changes.removed.empty
+        changes.added*.name == ["shared"]
+        second.getByName("shared").get().matchers[0].value == "a"
+
+        when:
+        first.persist(ruleSet("shared", "b"))
+        changes = second.poll()
+
+        then:
+        changes.removed*.matchers*.value == [["a"]]
+        changes.added*.matchers*.value == [["b"]]
+
+        when:
+        second.deleteByName("shared")
+
+        then:
+        first.poll().removed*.name == ["shared"]
+        first.all.empty
+        second.poll().empty
+    }
+
+    def "skips rows that cannot be read without losing the other changes"() {
+        given:
+        def first = repository()
+        def second = repository()
+        def jdbcTemplate = new JdbcTemplate(database)
+
+        when:
+        first.persist(ruleSet("valid", "a"))
+        jdbcTemplate.update("UPDATE jsonvalidation_catalog SET version = version + 1 WHERE id = 1")
+        jdbcTemplate.update("INSERT INTO jsonvalidation_rule_set (name, content, version, deleted) "
+                + "VALUES ('unknown', ?, 2, FALSE)",
+                '{"name": "unknown", "description": "Description", '
+                        + '"matchers": [{"id": "no-such-matcher"}], "rules": []}')
+        first.persist(ruleSet("later", "b"))
+        def changes = second.poll()
+
+        then:
+        changes.removed.empty
+        changes.added*.name == ["valid", "later"]
+        !second.getByName("unknown").present
+        second.poll().empty
+
+        when:
+        first.persist(ruleSet("unknown", "c"))
+
+        then:
+        second.poll().added*.name == ["unknown"]
+    }
+
+    def "keeps the previous rule set of changes that cannot be applied"() {
+        given:
+        def first = repository()
+        def second = repository()
+        def component = new FieldEqualsComponent()
+        def validator = new RuleSetValidator([component.matcher] as Set, [component.validator] as Set)
+        def service = new RuleSetService(second, validator, new JsonValidationConfiguration())
+
+        first.persist(ruleSet("changed", "a"))
+        service.synchronize()
+
+        when:
+        first.persist(new RuleSetBuilder("changed", "Description").matches(fieldEquals('$[', "b")).build())
+        first.persist(new RuleSetBuilder("added", "Description").matches(fieldEquals('$[', "c")).build())
+        first.persist(ruleSet("valid", "d"))
+        service.synchronize()
+
+        then:
+        validator.ruleSets*.name as Set == ["changed", "valid"] as Set
+        service.all*.name as Set == ["changed", "valid"] as Set
+        service.all.every { ruleSet -> validator.ruleSets.any { it.is(ruleSet) } }
+        second.getByName("changed").get().matchers[0].value == "a"
+
+        when:
+        first.persist(ruleSet("changed", "e"))
+        service.synchronize()
+
+        then:
+        second.getByName("changed").get().matchers[0].value == "e"
+        validator.ruleSets.find { it.name == "changed" }.matchers[0].value == "e"
+    }
+
+    private JdbcRuleSetRepository repository() {
+        def repository = new JdbcRuleSetRepository(database, mapper)
+        repository.createTables()
+        repository.poll()
+
+        repository
+    }
+
+    private static ruleSet(String name, String value) {
+        new RuleSetBuilder(name, "Description")
+                .matches(fieldEquals('$.type', value))
+                .build()
+    }
+}
@@ -0,0 +1,300 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web
+
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValidationConfiguration
+import org.springframework.http.HttpStatus
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import org.springframework.util.unit.DataSize
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import javax.servlet.AsyncEvent
+import javax.servlet.DispatcherType
+import javax.servlet.FilterChain
+import javax.servlet.ReadListener
+import javax.servlet.ServletInputStream
+import javax.servlet.http.HttpServletRequest
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Duration
+import java.util.stream.Collectors
+
+class JsonContentFilterTest extends Specification {
+
+    def "captures request bodies with non-blocking reads"() {
+        given:
+        def configuration = new JsonValidationConfiguration(asyncCapture: true)
+        def filter = new JsonContentFilter(new JsonContentBufferPool(4), configuration)
+        def body = '{"name": "' + 'x' * 20000 + '"}'
+        def stream = new ChunkedInputStream(body.bytes, 4096)
+
+        def request = new MockHttpServletRequest("POST", "/test") {
+            @Override
+            ServletInputStream getInputStream() {
+                stream
+            }
+        }
+        request.contentType = "application/json"
+        request.asyncSupported = true
+
+        def response = new MockHttpServletResponse()
+        String received = null
+        def chain = { req, res -> received = ((HttpServletRequest) req).inputStream.text } as FilterChain
+
+        when:
+        filter.doFilter(request, response, chain)
+
+        then:
+        request.asyncStarted
+        received == null
+
+        when:
+        stream.deliver()
+
+        then:
+        request.asyncContext.dispatchedPath == "/test"
+        JsonContent.from(request).text == body
+
+        when:
+        // The container ends the asynchronous processing by the dispatch
+        request.asyncStarted = false
+        request.dispatcherType = DispatcherType.ASYNC
+        filter.doFilter(request, response, chain)
+
+        then:
+        received == body
+        JsonContent.from(request) == null
+    }
+
+    def "releases the content of asynchronously processed requests once they complete"() {
+        given:
+        def bufferPool = new JsonContentBufferPool(4)
+        def filter = new JsonContentFilter(bufferPool, new JsonValidationConfiguration())
+        def body = '{"name": "async"}'
+
+        def request = new MockHttpServletRequest("POST", "/test")
+        request.contentType = "application/json"
+        request.content = body.bytes
+        request.asyncSupported = true
+
+        def response = new MockHttpServletResponse()
+        String received = null
+
+        when:
+        filter.doFilter(request, response, { req, res -> req.startAsync() } as FilterChain)
+
+        then:
+        request.asyncStarted
+        JsonContent.from(request).text == body
+        bufferPool.available() == 0
+
+        when:
+        def asyncContext = request.asyncContext
+        request.asyncStarted = false
+        request.dispatcherType = DispatcherType.ASYNC
+        filter.doFilter(request, response, { req, res ->
+            received = ((HttpServletRequest) req).inputStream.text
+            req.startAsync()
+        } as FilterChain)
+
+        then:
+        received == body
+        bufferPool.available() == 0
+
+        when:
+        asyncContext.listeners.each { it.onStartAsync(new AsyncEvent(request.asyncContext, request, response)) }
+        request.asyncContext.complete()
+
+        then:
+        bufferPool.available() == 1
+    }
+
+    def "releases the content of synchronously processed requests immediately"() {
+        given:
+        def bufferPool = new JsonContentBufferPool(4)
+        def filter = new JsonContentFilter(bufferPool, new JsonValidationConfiguration())
+
+        def request = new MockHttpServletRequest("POST", "/test")
+        request.contentType = "application/json"
+        request.content = '{"name": "sync"}'.bytes
+
+        when:
+        filter.doFilter(request, new MockHttpServletResponse(), { req, res -> } as FilterChain)
+
+        then:
+        bufferPool.available() == 1
+        JsonContent.from(request) == null
+    }
+
+    def "discards request bodies whose asynchronous capture timed out"() {
+        given:
+        def configuration = new JsonValidationConfiguration(asyncCapture: true,
+                asyncCaptureTimeout: Duration.ofSeconds(90))
+        def bufferPool = new JsonContentBufferPool(4)
+        def filter = new JsonContentFilter(bufferPool, configuration)
+        def stream = new ChunkedInputStream('{"name": "slow"}'.bytes, 4)
+
+        def request = new MockHttpServletRequest("POST", "/test") {
+            @Override
+            ServletInputStream getInputStream() {
+                stream
+            }
+        }
+        request.contentType = "application/json"
+        request.asyncSupported = true
+
+        def response = new MockHttpServletResponse()
+
+        when:
+        filter.doFilter(request, response, { req, res -> } as FilterChain)
+        def asyncContext = request.asyncContext
+
+        then:
+        asyncContext.timeout == 90000
+
+        when:
+        asyncContext.listeners.each { it.onTimeout(new AsyncEvent(asyncContext, request, response)) }
+
+        then:
+        response.status == HttpStatus.REQUEST_TIMEOUT.value()
+        !request.asyncStarted
+        bufferPool.available() == 1
+
+        when:
+        stream.deliver()
+
+        then:
+        asyncContext.dispatchedPath == null
+        JsonContent.from(request) == null
+    }
+
+    def "notifies read listeners of the replayed request body"() {
+        given:
+        def body = '{"name": "replayed"}'.bytes
+        def request = new MockHttpServletRequest("POST", "/test")
+        def wrapper = new JsonContentHttpRequestWrapper(request,
+                new JsonContent(body, body.length, StandardCharsets.UTF_8))
+        def stream = wrapper.inputStream
+        def received = new ByteArrayOutputStream()
+        def allDataRead = false
+
+        when:
+        stream.setReadListener(new ReadListener() {
+            @Override
+            void onDataAvailable() {
+                byte[] chunk = new byte[8]
+                int count
+
+                while (stream.ready && (count = stream.read(chunk)) != -1) {
+                    received.write(chunk, 0, count)
+                }
+            }
+
+            @Override
+            void onAllDataRead() {
+                allDataRead = true
+            }
+
+            @Override
+            void onError(Throwable t) {
+                throw t
+            }
+        })
+
+        then:
+        allDataRead
+        stream.finished
+        received.toByteArray() == body
+    }
+
+    def "spills large request bodies to a temporary file"(@TempDir Path directory) {
+        given:
+        def configuration = new JsonValidationConfiguration(
+                contentSpillThreshold: DataSize.ofKilobytes(16), contentSpillDirectory: directory)
+        def filter = new JsonContentFilter(new JsonContentBufferPool(4), configuration)
+        def body = '{"name": "' + 'x' * 100000 + '"}'
+
+        def request = new MockHttpServletRequest("POST", "/test")
+        request.contentType = "application/json"
+        request.content = body.bytes
+
+        JsonContent captured = null
+        String received = null
+        List<Path> spilled = null
+
+        def chain = { req, res ->
+            captured = JsonContent.from(req)
+            received = ((HttpServletRequest) req).inputStream.text
+            spilled = Files.list(directory).collect(Collectors.toList())
+        } as FilterChain
+
+        when:
+        filter.doFilter(request, new MockHttpServletResponse(), chain)
+
+        then:
+        !captured.inMemory
+        captured.length == body.length()
+        received == body
+        spilled.size() == 1
+        Files.list(directory).count() == 0
+    }
+
+    /**
+     * Stream that makes its bytes available chunk by chunk, as a container would for a slow client
+     */
+    static class ChunkedInputStream extends ServletInputStream {
+        private final byte[] bytes
+        private final int chunkSize
+        private int available
+        private int position
+        private ReadListener listener
+
+        ChunkedInputStream(byte[] bytes, int chunkSize) {
+            this.bytes = bytes
+            this.chunkSize = chunkSize
+        }
+
+        void deliver() {
+            while (available < bytes.length) {
+                available = Math.min(available + chunkSize, bytes.length)
+                listener.onDataAvailable()
+            }
+
+            listener.onAllDataRead()
+        }
+
+        @Override
+        boolean isFinished() {
+            position == bytes.length
+        }
+
+        @Override
+        boolean isReady() {
+            position < available || finished
+        }
+
+        @Override
+        void setReadListener(ReadListener listener) {
+            this.listener = listener
+        }
+
+        @Override
+        int read() {
+            finished ? -1 : bytes[position++] & 0xFF
+        }
+
+        @Override
+        int read(byte[] b, int off, int len) {
+            if (finished) {
+                return -1
+            }
+
+            int count = Math.min(len, available - position)
+            System.arraycopy(bytes, position, b, off, count)
+            position += count
+
+            count
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.github.jazzschmidt.spring.jsonvalidation.web
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.github.jazzschmidt.spring.jsonvalidation.RuleSet
 import com.github.jazzschmidt.spring.jsonvalidation.RuleSetValidator
+import com.github.jazzschmidt.spring.jsonvalidation.SchemaGenerator
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.autoconfigure.SpringBootApplication
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc
@@ -11,12 +12,15 @@ import org.springframework.context.annotation.ComponentScan
 import org.springframework.http.HttpStatus
 import org.springframework.http.MediaType
 import org.springframework.test.web.servlet.MockMvc
+import org.springframework.web.bind.annotation.GetMapping
 import org.springframework.web.bind.annotation.PostMapping
 import org.springframework.web.bind.annotation.RequestBody
 import org.springframework.web.bind.annotation.RequestMapping
 import org.springframework.web.bind.annotation.RestController
 import spock.lang.Specification
 
+import javax.servlet.http.HttpServletRequest
+
 import static com.github.jazzschmidt.spring.jsonvalidation.RuleSetBuilder.DefinitionsSupplier.fieldEquals
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post
@@ -40,6 +44,9 @@ class RuleSetControllerTest extends Specification {
     @Autowired
     private MockMvc mvc
 
+    @Autowired
+    private SchemaGenerator generator
+
     def "creates a new RuleSet"() {
         given:
         def ruleSet = new RuleSet()
@@ -66,6 +73,19 @@ class RuleSetControllerTest extends Specification {
         !validator.ruleSets.empty
     }
 
+    def "serves the generated schemas"() {
+        expect:
+        mvc.perform(get("/jsonvalidation/schema/matchers"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(generator.matchersSchema, true))
+
+        mvc.perform(get("/jsonvalidation/schema/rules"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(generator.rulesSchema, true))
+    }
+
     def "passes valid json objects to controller"() {
         given:
         def ruleSet = new RuleSet()
@@ -125,6 +145,105 @@ class RuleSetControllerTest extends Specification {
         noExceptionThrown()
     }
 
+    def "validates request bodies that are not bound by the Jackson converter"() {
+        given:
+        def ruleSet = new RuleSet(name: "String body", description: "Validates bodies read as String",
+                matchers: [fieldEquals('$.id', 1)], rules: [fieldEquals('$.name', 'Foo')])
+        validator.addRuleSet(ruleSet)
+
+        expect:
+        mvc.perform(post("/test/string")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content('{"id": 1, "name": "Bar"}'))
+                .andExpect(status().is(HttpStatus.FORBIDDEN.value()))
+
+        mvc.perform(post("/test/string")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content('{"id": 1, "name": "Foo"}'))
+                .andExpect(status().isOk())
+                .andExpect(content().string('{"id": 1, "name": "Foo"}'))
+
+        cleanup:
+        validator.removeRuleSet(ruleSet)
+    }
+
+    def "validates spilled request bodies of any size by streaming them"() {
+        given:
+        def ruleSet = new RuleSet(name: "Spilled body", description: "Validates large bodies",
+                matchers: [fieldEquals('$.id', 2)], rules: [fieldEquals('$.name', 'Foo')])
+        validator.addRuleSet(ruleSet)
+        // Exceeds the default spill threshold, while the content length is not limited by default
+        def padding = 'x' * 2 * 1024 * 1024
+
+        expect:
+        mvc.perform(post("/test")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString([id: 2, name: 'Bar', padding: padding])))
+                .andExpect(status().is(HttpStatus.FORBIDDEN.value()))
+
+        mvc.perform(post("/test/string")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString([id: 2, name: 'Bar', padding: padding])))
+                .andExpect(status().is(HttpStatus.FORBIDDEN.value()))
+
+        mvc.perform(post("/test")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString([id: 2, name: 'Foo', padding: padding])))
+                .andExpect(status().isOk())
+
+        cleanup:
+        validator.removeRuleSet(ruleSet)
+    }
+
+    def "passes an empty body to an optional request body"() {
+        expect:
+        mvc.perform(post("/test/optional")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().string("empty"))
+    }
+
+    def "captures only the bodies of requests to validated handlers"() {
+        expect:
+        mvc.perform(post("/test/unvalidated")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content('{"id": 1}'))
+                .andExpect(status().isOk())
+                .andExpect(content().json('{"captured": false}'))
+
+        mvc.perform(post("/test/captured")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content('{"id": 1}'))
+                .andExpect(status().isOk())
+                .andExpect(content().json('{"captured": true}'))
+
+        mvc.perform(post("/test/captured/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content('{"id": 1}'))
+                .andExpect(status().isOk())
+                .andExpect(content().json('{"captured": true}'))
+    }
+
+    def "rejects bodies of validated handlers that were not captured"() {
+        given:
+        def ruleSet = new RuleSet(name: "Uncaptured body", description: "Rejects other content types",
+                matchers: [fieldEquals('$.id', 4)], rules: [fieldEquals('$.name', 'Foo')])
+        validator.addRuleSet(ruleSet)
+
+        expect:
+        mvc.perform(post("/test/string")
+                .contentType(MediaType.TEXT_PLAIN)
+                .content('{"id": 4, "name": "Bar"}'))
+                .andExpect(status().isUnsupportedMediaType())
+
+        mvc.perform(get("/test/bodiless"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("validated"))
+
+        cleanup:
+        validator.removeRuleSet(ruleSet)
+    }
+
     @RestController
     @RequestMapping("/test")
     static class TestController {
@@ -133,6 +252,35 @@ class RuleSetControllerTest extends Specification {
         HashMap<String, Object> post(@RequestBody HashMap<String, Object> json) {
             return json
         }
+
+        @PostMapping("/string")
+        @ValidateJsonContent
+        String string(@RequestBody String json) {
+            return json
+        }
+
+        @PostMapping("/optional")
+        @ValidateJsonContent
+        String optional(@RequestBody(required = false) HashMap<String, Object> json) {
+            return json == null ? "empty" : "present"
+        }
+
+        @PostMapping("/captured")
+        @ValidateJsonContent
+        Map<String, Object> captured(@RequestBody HashMap<String, Object> json, HttpServletRequest request) {
+            return [captured: JsonContent.from(request) != null]
+        }
+
+        @GetMapping("/bodiless")
+        @ValidateJsonContent
+        String bodiless() {
+            return "validated"
+        }
+
+        @PostMapping("/unvalidated")
+        Map<String, Object> unvalidated(@RequestBody HashMap<String, Object> json, HttpServletRequest request) {
+            return [captured: JsonContent.from(request) != null]
+        }
     }
 
 }
@@ -0,0 +1,177 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSet
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetValidator
+import com.github.jazzschmidt.spring.jsonvalidation.RuleValidationException
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
+import org.springframework.test.web.servlet.MockMvc
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+import static com.github.jazzschmidt.spring.jsonvalidation.RuleSetBuilder.DefinitionsSupplier.fieldEquals
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status
+
+@SpringBootTest(classes = RuleSetControllerTest.SpringContext, properties = ["jsonvalidation.outcome-cache-size=10"])
+@AutoConfigureMockMvc
+class ValidationOutcomeCacheTest extends Specification {
+
+    @Autowired
+    private RuleSetValidator validator
+
+    @Autowired
+    private ValidationOutcomeCache outcomeCache
+
+    @Autowired
+    private MockMvc mvc
+
+    def "caches validation outcomes per body and catalog version"() {
+        given:
+        def engine = new RuleSetValidator([] as Set, [] as Set)
+        def mapper = new ObjectMapper()
+        def cache = new ValidationOutcomeCache(10, 1024)
+        def jsonContent = content('{"cached": true}')
+        def validations = 0
+        def validation = {
+            validations++
+            def catalog = engine.catalog
+            engine.validate(catalog, mapper.readTree(jsonContent.text))
+            catalog.version
+        } as ValidationOutcomeCache.Validation
+
+        when:
+        def first = cache.validate(jsonContent, engine, validation)
+        def second = cache.validate(jsonContent, engine, validation)
+
+        then:
+        first == second
+        validations == 1
+        cache.hitCount == 1
+        cache.missCount == 1
+
+        when:
+        engine.addRuleSet(new RuleSet(name: "Cache", description: "Invalidates", matchers: [], rules: []))
+        cache.validate(jsonContent, engine, validation)
+
+        then:
+        validations == 2
+    }
+
+    def "rethrows the exception of cached failed validations"() {
+        given:
+        def engine = new RuleSetValidator([] as Set, [] as Set)
+        def cache = new ValidationOutcomeCache(10, 1024)
+        def jsonContent = content('{"cached": false}')
+        def cause = new IllegalStateException("Cause")
+        def validations = 0
+        def validation = {
+            validations++
+            def exception = new CustomValidationException(cause)
+            exception.catalogVersion = engine.catalog.version
+            throw exception
+        } as ValidationOutcomeCache.Validation
+
+        when:
+        cache.validate(jsonContent, engine, validation)
+
+        then:
+        def first = thrown(CustomValidationException)
+        first.cause.is(cause)
+
+        when:
+        cache.validate(jsonContent, engine, validation)
+
+        then:
+        def second = thrown(CustomValidationException)
+        second.is(first)
+        validations == 1
+        cache.hitCount == 1
+    }
+
+    def "evicts outcomes beyond the maximum size"() {
+        given:
+        def engine = new RuleSetValidator([] as Set, [] as Set)
+        def cache = new ValidationOutcomeCache(10, 1024)
+        def validation = { engine.catalog.version } as ValidationOutcomeCache.Validation
+
+        when:
+        (0..<100).each { cache.validate(content("{\"id\": $it}"), engine, validation) }
+
+        then:
+        cache.size() > 0
+        cache.size() <= 10
+        cache.missCount == 100
+    }
+
+    def "hashes bodies while they are captured"() {
+        given:
+        def body = ('{"padding": "' + 'x' * 20000 + '"}').getBytes(StandardCharsets.UTF_8)
+        def capture = new ContentCapture(new JsonContentBufferPool(1), Long.MAX_VALUE, 1 << 20, null, -1)
+        // Reads a few bytes at a time into a buffer that grows beyond the pooled size
+        def stream = new FilterInputStream(new ByteArrayInputStream(body)) {
+            @Override
+            int read(byte[] bytes, int offset, int length) {
+                super.read(bytes, offset, Math.min(length, 7))
+            }
+        }
+
+        when:
+        while (capture.read(stream) != -1) {
+        }
+        def captured = capture.finish(StandardCharsets.UTF_8)
+
+        then:
+        captured.hash == ContentHash.of(body, body.length)
+        captured.hash != content('{"padding": "y"}').hash
+    }
+
+    def "answers identical request bodies from the cache"() {
+        given:
+        def ruleSet = new RuleSet(name: "Cached", description: "Validates cached bodies",
+                matchers: [fieldEquals('$.id', 3)], rules: [fieldEquals('$.name', 'Foo')])
+        validator.addRuleSet(ruleSet)
+        def hits = outcomeCache.hitCount
+
+        expect:
+        [path, path].each {
+            mvc.perform(post(path)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content('{"id": 3, "name": "Foo"}'))
+                    .andExpect(status().isOk())
+        }
+
+        outcomeCache.hitCount == hits + 1
+
+        [path, path].each {
+            mvc.perform(post(path)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content('{"id": 3, "name": "Bar"}'))
+                    .andExpect(status().is(HttpStatus.FORBIDDEN.value()))
+        }
+
+        outcomeCache.hitCount == hits + 2
+
+        cleanup:
+        validator.removeRuleSet(ruleSet)
+
+        where:
+        path << ["/test", "/test/string"]
+    }
+
+    private static JsonContent content(String json) {
+        def body = json.getBytes(StandardCharsets.UTF_8)
+        new JsonContent(body, body.length, StandardCharsets.UTF_8)
+    }
+
+    static class CustomValidationException extends RuleValidationException {
+        CustomValidationException(Throwable cause) {
+            super("Custom", cause)
+        }
+    }
+}
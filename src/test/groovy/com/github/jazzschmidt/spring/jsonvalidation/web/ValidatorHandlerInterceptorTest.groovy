@@ -0,0 +1,77 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.http.converter.HttpMessageConverter
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import org.springframework.web.bind.annotation.RequestBody
+import org.springframework.web.method.HandlerMethod
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter
+import spock.lang.Specification
+
+class ValidatorHandlerInterceptorTest extends Specification {
+
+    def adapter = new CountingHandlerAdapter()
+    def interceptor = new ValidatorHandlerInterceptor(null, null, null, null,
+            Stub(ObjectProvider) { getIfUnique() >> adapter })
+
+    def setup() {
+        adapter.messageConverters = [new ValidatedJsonHttpMessageConverter(new ObjectMapper())]
+    }
+
+    def "decides once per handler method and content type whether the body is validated by the advice"() {
+        given:
+        def handler = new HandlerMethod(new Handler(), Handler.getMethod("handle", Map))
+
+        when:
+        3.times { interceptor.preHandle(request("application/json"), new MockHttpServletResponse(), handler) }
+
+        then:
+        adapter.lookups == 1
+
+        when:
+        2.times { interceptor.preHandle(request("application/vnd.test+json"), new MockHttpServletResponse(), handler) }
+
+        then:
+        adapter.lookups == 2
+    }
+
+    def "shares the decision between handler methods of the same bean type"() {
+        when:
+        2.times {
+            def handler = new HandlerMethod(new Handler(), Handler.getMethod("handle", Map))
+            interceptor.preHandle(request("application/json"), new MockHttpServletResponse(), handler)
+        }
+
+        then:
+        adapter.lookups == 1
+    }
+
+    private static MockHttpServletRequest request(String contentType) {
+        def request = new MockHttpServletRequest("POST", "/test")
+        request.contentType = contentType
+        request.content = '{"name": "Foo"}'.bytes
+
+        request
+    }
+
+    static class Handler {
+        @ValidateJsonContent
+        void handle(@RequestBody Map<String, Object> body) {
+        }
+    }
+
+    /**
+     * Counts the lookups of the message converters
+     */
+    static class CountingHandlerAdapter extends RequestMappingHandlerAdapter {
+        int lookups
+
+        @Override
+        List<HttpMessageConverter<?>> getMessageConverters() {
+            lookups++
+            super.getMessageConverters()
+        }
+    }
+}
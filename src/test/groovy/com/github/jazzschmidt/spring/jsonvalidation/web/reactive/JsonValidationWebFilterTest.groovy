@@ -0,0 +1,239 @@
+package com.github.jazzschmidt.spring.jsonvalidation.web.reactive
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValidationAutoconfiguration
+import com.github.jazzschmidt.spring.jsonvalidation.JsonValidationConfiguration
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSet
+import com.github.jazzschmidt.spring.jsonvalidation.RuleSetValidator
+import com.github.jazzschmidt.spring.jsonvalidation.RuleValidationException
+import com.github.jazzschmidt.spring.jsonvalidation.extra.TestConfiguration
+import com.github.jazzschmidt.spring.jsonvalidation.web.ValidateJsonContent
+import com.github.jazzschmidt.spring.jsonvalidation.web.ValidatorHandlerInterceptor
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.core.io.buffer.DataBuffer
+import org.springframework.core.io.buffer.DataBufferUtils
+import org.springframework.core.io.buffer.DefaultDataBufferFactory
+import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest
+import org.springframework.mock.web.server.MockServerWebExchange
+import org.springframework.web.method.HandlerMethod
+import org.springframework.web.reactive.HandlerMapping
+import org.springframework.util.unit.DataSize
+import org.springframework.web.server.ResponseStatusException
+import org.springframework.web.server.WebFilterChain
+import reactor.core.Exceptions
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+import static com.github.jazzschmidt.spring.jsonvalidation.RuleSetBuilder.DefinitionsSupplier.fieldEquals
+
+@SpringBootTest(classes = [TestConfiguration, JsonValidationAutoconfiguration, ObjectMapper])
+class JsonValidationWebFilterTest extends Specification {
+
+    @Autowired
+    RuleSetValidator validator
+
+    @Autowired
+    ObjectMapper mapper
+
+    @Autowired
+    JsonValidationConfiguration configuration
+
+    RuleSet ruleSet = new RuleSet(name: "Reactive", description: "Reactive validation",
+            matchers: [fieldEquals('$.type', 'reactive')], rules: [fieldEquals('$.valid', true)])
+
+    def setup() {
+        validator.addRuleSet(ruleSet)
+    }
+
+    def cleanup() {
+        validator.removeRuleSet(ruleSet)
+    }
+
+    def "passes the original body of valid requests on to the handler"() {
+        given:
+        def body = '{"type": "reactive", "valid": true, "values": [1, 2.5, {"nested": null}]}'
+        def exchange = exchange(body)
+        String received = null
+
+        def chain = { filtered ->
+            DataBufferUtils.join(filtered.request.body).map { buffer ->
+                received = buffer.toString(StandardCharsets.UTF_8)
+                DataBufferUtils.release(buffer)
+            }.then()
+        } as WebFilterChain
+
+        when:
+        filter("post").filter(exchange, chain).block()
+
+        then:
+        received == body
+        exchange.getAttribute(ValidatorHandlerInterceptor.CATALOG_VERSION_ATTRIBUTE) == validator.catalog.version
+    }
+
+    def "rejects invalid requests before the handler is invoked"() {
+        given:
+        def exchange = exchange('{"type": "reactive", "valid": false}')
+        def invoked = false
+        def chain = { filtered -> invoked = true; Mono.empty() } as WebFilterChain
+
+        when:
+        filter("post").filter(exchange, chain).block()
+
+        then:
+        !invoked
+        exchange.response.statusCode == HttpStatus.FORBIDDEN
+        exchange.response.bodyAsString.block().contains('"name":"Reactive"')
+    }
+
+    def "validates bodies arriving in chunks that split tokens"() {
+        given:
+        def body = '{"type": "reactive", "valid": ' + valid + ', "amount": 12345.678, "name": "split \\"string\\" \u00e4"}'
+        def exchange = exchange(chunks(body, chunkSize))
+        String received = null
+
+        def chain = { filtered ->
+            DataBufferUtils.join(filtered.request.body).map { buffer ->
+                received = buffer.toString(StandardCharsets.UTF_8)
+                DataBufferUtils.release(buffer)
+            }.then()
+        } as WebFilterChain
+
+        when:
+        filter("post").filter(exchange, chain).block()
+
+        then:
+        received == (valid ? body : null)
+        (exchange.response.statusCode == HttpStatus.FORBIDDEN) == !valid
+
+        where:
+        chunkSize | valid
+        1         | true
+        2         | true
+        3         | false
+        7         | true
+        7         | false
+    }
+
+    def "rejects bodies exceeding the maximum content length"() {
+        given:
+        def configuration = new JsonValidationConfiguration(maxContentLength: DataSize.ofBytes(32))
+        def filter = new JsonValidationWebFilter(validator, mapper, configuration, mapping("post"))
+        def invoked = false
+        def chain = { filtered -> invoked = true; Mono.empty() } as WebFilterChain
+
+        when:
+        filter.filter(request, chain).block()
+
+        then:
+        def e = thrown(ResponseStatusException)
+        e.status == HttpStatus.PAYLOAD_TOO_LARGE
+        !invoked
+
+        where:
+        request << [
+                exchange('{"type": "reactive", "valid": true, "padding": "exceeds the maximum"}'),
+                exchange(chunks('{"type": "reactive", "valid": true, "padding": "exceeds the maximum"}', 5))
+        ]
+    }
+
+    def "passes errors of the handler on unchanged"() {
+        given:
+        def exchange = exchange('{"type": "reactive", "valid": true}')
+        def chain = { filtered -> Mono.error(error) } as WebFilterChain
+
+        when:
+        filter("post").filter(exchange, chain).block()
+
+        then:
+        def e = thrown(Exception)
+        Exceptions.unwrap(e).is(error)
+        exchange.response.statusCode == null
+
+        where:
+        error << [new IOException("Handler failed"), new RuleValidationException("Handler rejected")]
+    }
+
+    def "validates json media types like Spring MVC"() {
+        given:
+        def exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/test")
+                .header("Content-Type", contentType)
+                .body('{"type": "reactive", "valid": false}'))
+        def invoked = false
+        def chain = { filtered -> invoked = true; Mono.empty() } as WebFilterChain
+
+        when:
+        filter("post").filter(exchange, chain).block()
+
+        then:
+        invoked == !validated
+
+        where:
+        contentType                      | validated
+        "application/json"               | true
+        "application/json;charset=UTF-8" | true
+        "text/plain"                     | false
+    }
+
+    def "ignores handlers without validation"() {
+        given:
+        def exchange = exchange('{"type": "reactive", "valid": false}')
+        def invoked = false
+        def chain = { filtered -> invoked = true; Mono.empty() } as WebFilterChain
+
+        when:
+        filter("unvalidated").filter(exchange, chain).block()
+
+        then:
+        invoked
+    }
+
+    private JsonValidationWebFilter filter(String method) {
+        new JsonValidationWebFilter(validator, mapper, configuration, mapping(method))
+    }
+
+    private static HandlerMapping mapping(String method) {
+        def handler = new HandlerMethod(new TestHandler(), method, Map)
+        return { exchange -> Mono.just(handler) } as HandlerMapping
+    }
+
+    private static MockServerWebExchange exchange(String body) {
+        MockServerWebExchange.from(MockServerHttpRequest.post("/test")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body))
+    }
+
+    private static MockServerWebExchange exchange(Flux<DataBuffer> body) {
+        MockServerWebExchange.from(MockServerHttpRequest.post("/test")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body))
+    }
+
+    /**
+     * Splits the body into chunks of a few bytes, which split strings, numbers and multi-byte characters
+     */
+    private static Flux<DataBuffer> chunks(String body, int chunkSize) {
+        def bytes = body.getBytes(StandardCharsets.UTF_8)
+        def factory = new DefaultDataBufferFactory()
+
+        Flux.fromIterable((0..<bytes.length).step(chunkSize)).map { offset ->
+            factory.wrap(Arrays.copyOfRange(bytes, offset, Math.min(offset + chunkSize, bytes.length)))
+        }
+    }
+
+    static class TestHandler {
+        @ValidateJsonContent
+        Map post(Map json) {
+            json
+        }
+
+        Map unvalidated(Map json) {
+            json
+        }
+    }
+}